@@ -0,0 +1,188 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.adaptor.DocumentAdaptor;
+import com.lps.ruleengine.adaptor.PolicyAdaptor;
+import com.lps.ruleengine.adaptor.RuleAdaptor;
+import com.lps.ruleengine.generator.GeneratedRuleBase;
+import com.lps.ruleengine.generator.GeneratorSpec;
+import com.lps.ruleengine.generator.RuleBaseGenerator;
+import com.lps.ruleengine.model.ChangeEpoch;
+import com.lps.ruleengine.model.ChangeLogEntry;
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.repository.ChangeEpochRepository;
+import com.lps.ruleengine.repository.ChangeLogRepository;
+import com.lps.ruleengine.repository.DocumentRepository;
+import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.repository.RuleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The service layer wired as in the application, minus the database: the engine, service and adaptor beans run
+ * against {@link InMemoryRepository in-memory repositories}, a fixed-size policy evaluation pool and an in-memory
+ * meter registry, so evaluation metrics are recorded as in the application.
+ * Entities must be saved before the first evaluation, which loads the rule base.
+ */
+public final class BenchmarkEngine implements AutoCloseable {
+
+    private static final String[] SERVICE_PACKAGES = {
+            "com.lps.ruleengine.adaptor",
+            "com.lps.ruleengine.engine",
+            "com.lps.ruleengine.generator",
+            "com.lps.ruleengine.mapper",
+            "com.lps.ruleengine.service"
+    };
+
+    private final AnnotationConfigApplicationContext context;
+    private final DocumentRepository documentRepository;
+    private final RuleRepository ruleRepository;
+    private final PolicyRepository policyRepository;
+
+    private BenchmarkEngine(Map<String, Object> properties) {
+        documentRepository = InMemoryRepository.create(DocumentRepository.class, Document::getDocumentId,
+                document -> true);
+        ruleRepository = InMemoryRepository.create(RuleRepository.class, Rule::getRuleId, Rule::getIsActive);
+        policyRepository = InMemoryRepository.create(PolicyRepository.class, Policy::getPolicyId,
+                Policy::getIsActive);
+        ChangeEpochRepository changeEpochRepository = InMemoryRepository.create(ChangeEpochRepository.class,
+                ChangeEpoch::getName, epoch -> true);
+        ChangeLogRepository changeLogRepository = InMemoryRepository.create(ChangeLogRepository.class,
+                ChangeLogEntry::getChangeKey, entry -> true);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "policy-eval");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(DocumentRepository.class, () -> documentRepository);
+        context.registerBean(RuleRepository.class, () -> ruleRepository);
+        context.registerBean(PolicyRepository.class, () -> policyRepository);
+        context.registerBean(ChangeEpochRepository.class, () -> changeEpochRepository);
+        context.registerBean(ChangeLogRepository.class, () -> changeLogRepository);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean("policyEvaluationExecutor", ExecutorService.class, () -> executor,
+                definition -> definition.setDestroyMethodName("shutdown"));
+        context.scan(SERVICE_PACKAGES);
+        context.refresh();
+    }
+
+    /**
+     * Starts an engine with the application's default configuration.
+     */
+    public static BenchmarkEngine start() {
+        return start(Map.of());
+    }
+
+    /**
+     * Starts an engine.
+     *
+     * @param properties {@code ruleengine.*} settings overriding the defaults
+     */
+    public static BenchmarkEngine start(Map<String, Object> properties) {
+        return new BenchmarkEngine(properties);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public DocumentAdaptor documents() {
+        return getBean(DocumentAdaptor.class);
+    }
+
+    public RuleAdaptor rules() {
+        return getBean(RuleAdaptor.class);
+    }
+
+    public PolicyAdaptor policies() {
+        return getBean(PolicyAdaptor.class);
+    }
+
+    public void save(Document document) {
+        documentRepository.save(document);
+    }
+
+    public void save(Rule rule) {
+        ruleRepository.save(rule);
+    }
+
+    public void save(Policy policy) {
+        policyRepository.save(policy);
+    }
+
+    /**
+     * Saves the sample documents, rules and policies the application starts with, including
+     * {@code policy_standard_loan}.
+     */
+    public void saveSampleData() {
+        DocumentAdaptor documents = documents();
+        save(documents.createDocumentFromIdAndValue("doc_min_age", 18));
+        save(documents.createDocumentFromIdAndValue("doc_max_age", 65));
+        save(documents.createDocumentFromIdAndValue("doc_min_income", 25000));
+        save(documents.createDocumentFromIdAndValue("doc_allowed_cities",
+                Arrays.asList("Bangalore", "Mumbai", "Delhi", "Chennai")));
+        save(documents.createDocumentFromIdAndValue("doc_high_risk_amount", 500000));
+        save(documents.createDocumentFromIdAndValue("doc_true", true));
+        save(documents.createDocumentFromIdAndValue("doc_false", false));
+
+        RuleAdaptor rules = rules();
+        save(rules.createRule("rule_age_check", "age >= 18", "doc_min_age",
+                Rule.OutcomeType.RULE, "rule_city_check", Rule.OutcomeType.VALUE, "false",
+                "Check if user is at least 18 years old", true));
+        save(rules.createRule("rule_city_check", "city IN allowedCities", "doc_allowed_cities",
+                Rule.OutcomeType.RULE, "rule_income_check", Rule.OutcomeType.VALUE, "false",
+                "Check if user is from allowed cities", true));
+        save(rules.createRule("rule_income_check", "income >= 25000", "doc_min_income",
+                Rule.OutcomeType.RULE, "rule_amount_check", Rule.OutcomeType.VALUE, "false",
+                "Check if user has minimum required income", true));
+        save(rules.createRule("rule_amount_check", "loanAmount < 500000", "doc_high_risk_amount",
+                Rule.OutcomeType.VALUE, "true", Rule.OutcomeType.RULE, "rule_high_amount_check",
+                "Check loan amount threshold", true));
+        save(rules.createRule("rule_high_amount_check", "age <= 65", "doc_max_age",
+                Rule.OutcomeType.VALUE, "true", Rule.OutcomeType.VALUE, "false",
+                "Additional check for high amount loans", true));
+        save(rules.createSimpleRule("rule_simple_approve", "age >= 18",
+                "Simple age-based approval rule", "true", "false"));
+
+        PolicyAdaptor policies = policies();
+        save(policies.createPolicy("policy_standard_loan", "Standard Loan Approval Policy",
+                "Standard policy for regular loan applications", "rule_age_check",
+                List.of("rule_age_check", "rule_city_check", "rule_income_check",
+                        "rule_amount_check", "rule_high_amount_check"), 1, true));
+        save(policies.createPolicy("policy_simple_loan", "Simple Loan Approval Policy",
+                "Simplified policy with only age check", "rule_simple_approve",
+                List.of("rule_simple_approve"), 2, true));
+    }
+
+    /**
+     * Generates a rule base and saves it in bulk.
+     *
+     * @param spec the size and shape of the rule base
+     * @return the saved rule base
+     */
+    public GeneratedRuleBase saveGenerated(GeneratorSpec spec) {
+        GeneratedRuleBase generated = getBean(RuleBaseGenerator.class).generate(spec);
+        documentRepository.saveAll(generated.getDocuments());
+        ruleRepository.saveAll(generated.getRules());
+        policyRepository.saveAll(generated.getPolicies());
+        return generated;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationResponse;
+
+import java.util.Map;
+
+/**
+ * Checks run in a benchmark's setup, so that a fixture that does not evaluate the way it is meant to fails the run
+ * instead of timing an error path.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static void expect(EvaluationResponse response, boolean result) {
+        if (response.getErrorMessage() != null) {
+            throw new IllegalStateException("Evaluation of " + response.getEvaluatedId() + " failed: "
+                    + response.getErrorMessage());
+        }
+        if (!Boolean.valueOf(result).equals(response.getResult())) {
+            throw new IllegalStateException("Evaluation of " + response.getEvaluatedId() + " returned "
+                    + response.getResult() + ", expected " + result);
+        }
+    }
+
+    static void expect(Map<String, EvaluationResponse> responses, int policyCount) {
+        if (responses.size() != policyCount) {
+            throw new IllegalStateException("Evaluated " + responses.size() + " policies, expected " + policyCount);
+        }
+        for (EvaluationResponse response : responses.values()) {
+            if (response.getErrorMessage() != null) {
+                throw new IllegalStateException("Evaluation of " + response.getEvaluatedId() + " failed: "
+                        + response.getErrorMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.engine.columnar.ComparisonKernel;
+import com.lps.ruleengine.engine.expression.Operator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The numeric column comparison of vectorized batch evaluation over {@code size} rows, about half of which pass:
+ * {@link ComparisonKernel} shifting each result straight into its bitmap word, next to the two-pass alternative that
+ * writes a {@code boolean[]} mask in a plain indexed loop and packs it afterwards, and the mask loop alone.
+ * A threshold of 0 makes EQ fall back to {@link Double#compare}; any other threshold uses {@code ==}.
+ * The default slice size of a batch is 512 rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComparisonKernelBenchmark {
+
+    @Param({"512", "65536"})
+    public int size;
+
+    @Param({"GTE", "EQ"})
+    public Operator operator;
+
+    @Param({"50000", "0"})
+    public double threshold;
+
+    private double[] values;
+    private boolean[] mask;
+    private long[] words;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Whole thousands around the threshold, so EQ matches some rows too
+            values[i] = threshold + (random.nextInt(100) - 50) * 1000;
+        }
+        mask = new boolean[size];
+        words = new long[(size + 63) >>> 6];
+
+        long[] packed = maskAndPack().clone();
+        if (!Arrays.equals(kernel(), packed)) {
+            throw new IllegalStateException("ComparisonKernel disagrees with the mask loop");
+        }
+    }
+
+    @Benchmark
+    public long[] kernel() {
+        ComparisonKernel.compare(values, operator, threshold, words, size);
+        return words;
+    }
+
+    @Benchmark
+    public long[] maskAndPack() {
+        compareIntoMask();
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            for (int b = 0; b < end; b++) {
+                bits |= (mask[base + b] ? 1L : 0L) << b;
+            }
+            words[w] = bits;
+        }
+        return words;
+    }
+
+    @Benchmark
+    public boolean[] maskOnly() {
+        compareIntoMask();
+        return mask;
+    }
+
+    private void compareIntoMask() {
+        if (operator == Operator.GTE) {
+            for (int i = 0; i < size; i++) {
+                mask[i] = values[i] >= threshold;
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                mask[i] = Double.compare(values[i], threshold) == 0;
+            }
+        }
+    }
+}
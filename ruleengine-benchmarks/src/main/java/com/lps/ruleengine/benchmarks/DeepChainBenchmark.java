@@ -0,0 +1,81 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A policy whose rules form one chain, {@code rule_0} leading to {@code rule_1} and so on, evaluated for an applicant
+ * passing every rule so that each evaluation makes {@code depth} hops. Shows the per-hop cost and whether it stays
+ * flat as chains get longer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeepChainBenchmark {
+
+    private static final String POLICY_ID = "policy_chain";
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    private BenchmarkEngine engine;
+    private IPolicyEvaluationService policyEvaluationService;
+    private Map<String, Object> applicant;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkEngine.start();
+        List<String> ruleIds = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            String ruleId = "rule_" + i;
+            boolean last = i == depth - 1;
+            engine.save(engine.rules().createRule(ruleId, "score >= " + i, null,
+                    last ? Rule.OutcomeType.VALUE : Rule.OutcomeType.RULE, last ? "true" : "rule_" + (i + 1),
+                    Rule.OutcomeType.VALUE, "false", "Hop " + i + " of " + depth, true));
+            ruleIds.add(ruleId);
+        }
+        engine.save(engine.policies().createPolicy(POLICY_ID, "Chain of " + depth + " rules",
+                "Every rule leads to the next", "rule_0", ruleIds, 1, true));
+        applicant = Map.of("score", depth);
+
+        policyEvaluationService = engine.getBean(IPolicyEvaluationService.class);
+        Benchmarks.expect(evaluate(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public EvaluationResponse evaluate() {
+        return policyEvaluationService.evaluatePolicy(POLICY_ID, "benchmark", applicant, TraceLevel.NONE);
+    }
+
+    @Benchmark
+    public EvaluationResponse evaluateWithFullTrace() {
+        return policyEvaluationService.evaluatePolicy(POLICY_ID, "benchmark", applicant, TraceLevel.FULL);
+    }
+}
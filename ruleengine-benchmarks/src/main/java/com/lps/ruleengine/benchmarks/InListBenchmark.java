@@ -0,0 +1,78 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IRuleEvaluationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@code IN} check against a LIST reference document of growing size, for a member found at the end of the list
+ * and for a value not in it. Lookup time should not grow with the list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InListBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private BenchmarkEngine engine;
+    private IRuleEvaluationService ruleEvaluationService;
+    private Map<String, Object> member;
+    private Map<String, Object> nonMember;
+
+    @Setup
+    public void setUp() {
+        List<String> cities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cities.add("city_" + i);
+        }
+        member = Map.of("city", "city_" + (size - 1));
+        nonMember = Map.of("city", "city_" + size);
+
+        engine = BenchmarkEngine.start();
+        engine.save(engine.documents().createDocumentFromIdAndValue("doc_cities", cities));
+        engine.save(engine.rules().createRule("rule_city_check", "city IN allowedCities", "doc_cities",
+                Rule.OutcomeType.VALUE, "true", Rule.OutcomeType.VALUE, "false",
+                "Check the city against " + size + " allowed cities", true));
+        ruleEvaluationService = engine.getBean(IRuleEvaluationService.class);
+        Benchmarks.expect(member(), true);
+        Benchmarks.expect(nonMember(), false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public EvaluationResponse member() {
+        return ruleEvaluationService.evaluateRule("rule_city_check", "benchmark", member, TraceLevel.NONE);
+    }
+
+    @Benchmark
+    public EvaluationResponse nonMember() {
+        return ruleEvaluationService.evaluateRule("rule_city_check", "benchmark", nonMember, TraceLevel.NONE);
+    }
+}
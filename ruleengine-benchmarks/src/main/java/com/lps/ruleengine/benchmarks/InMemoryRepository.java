@@ -0,0 +1,99 @@
+package com.lps.ruleengine.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Map-backed stand-in for a Spring Data repository, so benchmarks measure the engine rather than H2 and JPA.
+ * Only the lookups the engine makes while loading the rule base are implemented: {@code findAll}, {@code count},
+ * {@code save}, {@code saveAll}, {@code deleteById}, {@code findByIsActiveTrue}, {@code findMaxEpoch} and the lookups
+ * and existence checks by identifier. Any other repository method throws, so a benchmark can never silently measure
+ * an empty answer.
+ *
+ * @param <T> the entity type
+ */
+final class InMemoryRepository<T> implements InvocationHandler {
+
+    private final Map<String, T> entities = new ConcurrentHashMap<>();
+    private final Function<T, String> idOf;
+    private final Predicate<T> isActive;
+
+    private InMemoryRepository(Function<T, String> idOf, Predicate<T> isActive) {
+        this.idOf = idOf;
+        this.isActive = isActive;
+    }
+
+    /**
+     * Creates an empty repository implementing the given interface.
+     *
+     * @param repositoryType the repository interface
+     * @param idOf returns an entity's identifier
+     * @param isActive whether an entity is active, for {@code findByIsActiveTrue}
+     * @return the repository
+     */
+    static <T, R> R create(Class<R> repositoryType, Function<T, String> idOf, Predicate<T> isActive) {
+        InMemoryRepository<T> handler = new InMemoryRepository<>(idOf, isActive);
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType}, handler));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "findAll":
+                if (args == null) {
+                    return new ArrayList<>(entities.values());
+                }
+                break;
+            case "count":
+                return (long) entities.size();
+            case "save":
+                T entity = (T) args[0];
+                entities.put(idOf.apply(entity), entity);
+                return entity;
+            case "saveAll":
+                List<T> saved = new ArrayList<>();
+                for (T each : (Iterable<T>) args[0]) {
+                    entities.put(idOf.apply(each), each);
+                    saved.add(each);
+                }
+                return saved;
+            case "deleteById":
+                entities.remove((String) args[0]);
+                return null;
+            case "findByIsActiveTrue":
+                return entities.values().stream().filter(isActive).toList();
+            case "findMaxEpoch":
+                // Nothing is written through the change log during a benchmark
+                return 0L;
+            case "toString":
+                return "InMemoryRepository" + entities.keySet();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                break;
+        }
+        // findById, findByRuleId, existsByDocumentId, ...: every entity is keyed by its identifier
+        if (args != null && args.length == 1 && args[0] instanceof String id && name.endsWith("Id")) {
+            if (name.startsWith("findBy") && method.getReturnType() == Optional.class) {
+                return Optional.ofNullable(entities.get(id));
+            }
+            if (name.startsWith("existsBy")) {
+                return entities.containsKey(id);
+            }
+        }
+        throw new UnsupportedOperationException("Not stubbed for benchmarks: " + method);
+    }
+}
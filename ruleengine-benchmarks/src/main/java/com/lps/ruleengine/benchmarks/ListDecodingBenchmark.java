@@ -0,0 +1,75 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.engine.ReferenceValueCache;
+import com.lps.ruleengine.engine.expression.MembershipSet;
+import com.lps.ruleengine.model.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a LIST document's JSON value with {@link Document#getTypedValue()}, alone and followed by building the
+ * {@link MembershipSet} that {@code IN} checks look members up in, which together are what a miss in the
+ * {@link ReferenceValueCache} costs, next to a hit in that cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListDecodingBenchmark {
+
+    public enum ElementType {
+        STRING, INTEGER
+    }
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param
+    public ElementType elementType;
+
+    private Document document;
+    private ReferenceValueCache referenceValueCache;
+
+    @Setup
+    public void setUp() {
+        List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(elementType == ElementType.STRING ? "value_" + i : i);
+        }
+        document = Document.of("doc_list", elements);
+        referenceValueCache = new ReferenceValueCache(1000);
+        if (!elements.equals(referenceValueCache.getTypedValue(document))) {
+            throw new IllegalStateException("LIST document did not decode to its elements");
+        }
+    }
+
+    @Benchmark
+    public Object decode() {
+        return document.getTypedValue();
+    }
+
+    @Benchmark
+    public MembershipSet decodeAndIndex() {
+        return MembershipSet.of((List<?>) document.getTypedValue());
+    }
+
+    @Benchmark
+    public Object cached() {
+        return referenceValueCache.getTypedValue(document);
+    }
+}
@@ -0,0 +1,89 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of many policies for one applicant, once through the bulk endpoint's path, which evaluates each policy
+ * on the evaluation pool, and once through the portfolio, which evaluates every distinct rule once.
+ * Besides the two sample policies there are {@code policies} variants of {@code policy_standard_loan}, each with its
+ * own income floor in front of the shared rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiPolicyBenchmark {
+
+    private static final Map<String, Object> APPLICANT = Map.of(
+            "age", 30, "city", "Mumbai", "income", 80000, "loanAmount", 900000);
+    private static final List<String> STANDARD_RULES = List.of("rule_age_check", "rule_city_check",
+            "rule_income_check", "rule_amount_check", "rule_high_amount_check");
+
+    @Param({"8", "32", "128"})
+    public int policies;
+
+    private BenchmarkEngine engine;
+    private IPolicyEvaluationService policyEvaluationService;
+    private String[] policyIds;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkEngine.start();
+        engine.saveSampleData();
+
+        List<String> ids = new ArrayList<>(List.of("policy_standard_loan", "policy_simple_loan"));
+        for (int i = 0; i < policies; i++) {
+            String floorRuleId = "rule_income_floor_" + i;
+            engine.save(engine.rules().createRule(floorRuleId, "income >= " + (1000 * i), null,
+                    Rule.OutcomeType.RULE, "rule_age_check", Rule.OutcomeType.VALUE, "false",
+                    "Income floor of variant " + i, true));
+            List<String> ruleIds = new ArrayList<>(STANDARD_RULES);
+            ruleIds.add(floorRuleId);
+            engine.save(engine.policies().createPolicy("policy_variant_" + i, "Loan Policy Variant " + i,
+                    "Standard loan policy behind an income floor", floorRuleId, ruleIds, 3, true));
+            ids.add("policy_variant_" + i);
+        }
+        policyIds = ids.toArray(String[]::new);
+
+        policyEvaluationService = engine.getBean(IPolicyEvaluationService.class);
+        Benchmarks.expect(multiplePolicies(), policyIds.length);
+        Benchmarks.expect(portfolio(), policyIds.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Map<String, EvaluationResponse> multiplePolicies() {
+        return policyEvaluationService.evaluateMultiplePolicies(policyIds, "benchmark", APPLICANT, TraceLevel.NONE);
+    }
+
+    @Benchmark
+    public Map<String, EvaluationResponse> portfolio() {
+        return policyEvaluationService.evaluatePortfolio("benchmark", APPLICANT, TraceLevel.NONE);
+    }
+}
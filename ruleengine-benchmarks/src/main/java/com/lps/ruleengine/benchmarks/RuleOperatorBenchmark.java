@@ -0,0 +1,93 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IRuleEvaluationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a single rule for each kind of condition the expression language supports, with and without a
+ * reference document. Each rule ends in a value, so the time is that of one condition plus the per-call overhead of
+ * {@link IRuleEvaluationService#evaluateRule}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleOperatorBenchmark {
+
+    private static final Map<String, Object> APPLICANT = Map.of(
+            "age", 30, "city", "Delhi", "income", 50000, "loanAmount", 100000, "employed", true);
+
+    public enum Condition {
+        GT("income > 25000", null),
+        GTE("age >= 18", null),
+        GTE_REFERENCE("age >= minAge", 18),
+        LT("loanAmount < 500000", null),
+        LTE("age <= 65", null),
+        EQ("city == 'Delhi'", null),
+        NEQ("city != 'Pune'", null),
+        IN_LITERAL("city IN ['Bangalore', 'Mumbai', 'Delhi', 'Chennai']", null),
+        IN_REFERENCE("city IN allowedCities", List.of("Bangalore", "Mumbai", "Delhi", "Chennai")),
+        BOOLEAN("employed", null),
+        NOT("NOT (age < 18)", null),
+        AND("age >= 18 AND income > 25000 AND loanAmount < 500000", null),
+        OR("age < 18 OR city == 'Pune' OR income > 25000", null);
+
+        private final String expression;
+        private final Object reference;
+
+        Condition(String expression, Object reference) {
+            this.expression = expression;
+            this.reference = reference;
+        }
+    }
+
+    @Param
+    public Condition condition;
+
+    private BenchmarkEngine engine;
+    private IRuleEvaluationService ruleEvaluationService;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkEngine.start();
+        String referenceId = null;
+        if (condition.reference != null) {
+            referenceId = "doc_reference";
+            engine.save(engine.documents().createDocumentFromIdAndValue(referenceId, condition.reference));
+        }
+        engine.save(engine.rules().createRule("rule_condition", condition.expression, referenceId,
+                Rule.OutcomeType.VALUE, "true", Rule.OutcomeType.VALUE, "false", condition.name(), true));
+        ruleEvaluationService = engine.getBean(IRuleEvaluationService.class);
+        Benchmarks.expect(evaluate(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public EvaluationResponse evaluate() {
+        return ruleEvaluationService.evaluateRule("rule_condition", "benchmark", APPLICANT, TraceLevel.NONE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.lps.ruleengine.benchmarks;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full evaluation of the sample {@code policy_standard_loan} through {@link IPolicyEvaluationService}, the way the
+ * evaluation endpoint calls it, for applicants leaving the graph after one, four and five rules, on either tier.
+ * Tiering is pinned so the tier measured does not depend on how many evaluations the warm-up made: the interpreted
+ * graph is forced, or the tiering threshold is zero so the graph of specialized expression objects is used from the
+ * first evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StandardLoanPolicyBenchmark {
+
+    private static final String POLICY_ID = "policy_standard_loan";
+
+    // Rejected by rule_age_check
+    private static final Map<String, Object> UNDERAGE = Map.of(
+            "age", 16, "city", "Delhi", "income", 50000, "loanAmount", 100000);
+    // Approved by rule_amount_check
+    private static final Map<String, Object> APPROVED = Map.of(
+            "age", 30, "city", "Delhi", "income", 50000, "loanAmount", 100000);
+    // Decided by rule_high_amount_check, the longest path
+    private static final Map<String, Object> HIGH_AMOUNT = Map.of(
+            "age", 30, "city", "Mumbai", "income", 80000, "loanAmount", 900000);
+
+    @Param({"NONE", "PATH_IDS", "FULL"})
+    public TraceLevel traceLevel;
+
+    @Param({"INTERPRETED", "SPECIALIZED_EXPRESSIONS"})
+    public Tier tier;
+
+    public enum Tier {
+        INTERPRETED,
+        SPECIALIZED_EXPRESSIONS
+    }
+
+    private BenchmarkEngine engine;
+    private IPolicyEvaluationService policyEvaluationService;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkEngine.start(Map.of(
+                "ruleengine.evaluation.tiering.force-interpreter", tier == Tier.INTERPRETED,
+                "ruleengine.evaluation.tiering.threshold", 0));
+        engine.saveSampleData();
+        policyEvaluationService = engine.getBean(IPolicyEvaluationService.class);
+        Benchmarks.expect(evaluate(UNDERAGE), false);
+        Benchmarks.expect(evaluate(APPROVED), true);
+        Benchmarks.expect(evaluate(HIGH_AMOUNT), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public EvaluationResponse rejectedAtFirstRule() {
+        return evaluate(UNDERAGE);
+    }
+
+    @Benchmark
+    public EvaluationResponse approved() {
+        return evaluate(APPROVED);
+    }
+
+    @Benchmark
+    public EvaluationResponse highAmount() {
+        return evaluate(HIGH_AMOUNT);
+    }
+
+    private EvaluationResponse evaluate(Map<String, Object> applicant) {
+        return policyEvaluationService.evaluatePolicy(POLICY_ID, "benchmark", applicant, traceLevel);
+    }
+}
@@ -0,0 +1,30 @@
+package com.lps.ruleengine.benchmarks.load;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where the load driver sends its evaluation requests. Implementations are called from many threads at once.
+ */
+interface EvaluationTarget extends AutoCloseable {
+
+    /**
+     * @return the policies to spread requests over
+     */
+    List<String> policyIds();
+
+    /**
+     * Evaluates a policy for one applicant.
+     *
+     * @param policyId the policy identifier
+     * @param userId the user identifier
+     * @param attributes the applicant's attributes
+     * @return false if the evaluation failed
+     */
+    boolean evaluate(String policyId, String userId, Map<String, Object> attributes);
+
+    String describe();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,107 @@
+package com.lps.ruleengine.benchmarks.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lps.ruleengine.dto.EvaluationRequest;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts evaluation requests to {@code /api/evaluation/policies/{policyId}} of a running instance, e.g. one started
+ * with {@code ruleengine.generator.enabled=true}. Spreads requests over the instance's active policies.
+ */
+final class HttpTarget implements EvaluationTarget {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ERROR_MARKER = "\"errorMessage\":\"";
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final TraceLevel traceLevel;
+    private final List<String> policyIds;
+
+    HttpTarget(String baseUrl, TraceLevel traceLevel) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.traceLevel = traceLevel;
+        this.policyIds = fetchActivePolicyIds();
+    }
+
+    private List<String> fetchActivePolicyIds() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/policies/active")).GET().build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Listing active policies returned HTTP " + response.statusCode());
+            }
+            List<String> ids = new ArrayList<>();
+            for (JsonNode policy : MAPPER.readTree(response.body())) {
+                ids.add(policy.get("policyId").asText());
+            }
+            return ids;
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot reach " + baseUrl + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while listing active policies", e);
+        }
+    }
+
+    @Override
+    public List<String> policyIds() {
+        return policyIds;
+    }
+
+    @Override
+    public boolean evaluate(String policyId, String userId, Map<String, Object> attributes) {
+        byte[] body;
+        try {
+            body = MAPPER.writeValueAsBytes(EvaluationRequest.builder()
+                    .userId(userId)
+                    .userAttributes(attributes)
+                    .traceLevel(traceLevel)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize evaluation request", e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/evaluation/policies/" + policyId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            // A failed evaluation still answers 200, with its error message set
+            return response.statusCode() == 200
+                    && !new String(response.body(), StandardCharsets.UTF_8).contains(ERROR_MARKER);
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return baseUrl + ", " + policyIds.size() + " active policies";
+    }
+
+    @Override
+    public void close() {
+        // The client's connections close with the JVM
+    }
+}
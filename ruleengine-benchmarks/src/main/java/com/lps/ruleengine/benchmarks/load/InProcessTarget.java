@@ -0,0 +1,53 @@
+package com.lps.ruleengine.benchmarks.load;
+
+import com.lps.ruleengine.benchmarks.BenchmarkEngine;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.generator.GeneratedRuleBase;
+import com.lps.ruleengine.generator.GeneratorSpec;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates through {@link IPolicyEvaluationService}, the service the evaluation endpoint delegates to, in this JVM
+ * and over a generated rule base held in memory. Leaves out HTTP and JSON, so it shows what the engine alone can do.
+ */
+final class InProcessTarget implements EvaluationTarget {
+
+    private final BenchmarkEngine engine;
+    private final IPolicyEvaluationService policyEvaluationService;
+    private final List<String> policyIds;
+    private final TraceLevel traceLevel;
+
+    InProcessTarget(GeneratorSpec spec, TraceLevel traceLevel) {
+        this.engine = BenchmarkEngine.start();
+        GeneratedRuleBase generated = engine.saveGenerated(spec);
+        this.policyEvaluationService = engine.getBean(IPolicyEvaluationService.class);
+        this.policyIds = generated.getPolicyIds();
+        this.traceLevel = traceLevel;
+    }
+
+    @Override
+    public List<String> policyIds() {
+        return policyIds;
+    }
+
+    @Override
+    public boolean evaluate(String policyId, String userId, Map<String, Object> attributes) {
+        EvaluationResponse response = policyEvaluationService.evaluatePolicy(policyId, userId, attributes,
+                traceLevel);
+        return response.getErrorMessage() == null;
+    }
+
+    @Override
+    public String describe() {
+        return "in-process, " + policyIds.size() + " generated policies";
+    }
+
+    @Override
+    public void close() {
+        engine.close();
+    }
+}
@@ -0,0 +1,258 @@
+package com.lps.ruleengine.benchmarks.load;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.generator.ApplicantGenerator;
+import com.lps.ruleengine.generator.GeneratorSpec;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fires policy evaluations at the engine for a fixed time and reports throughput and latency percentiles.
+ *
+ * <p>In a closed loop each thread sends its next request as soon as the previous one is answered, which finds the
+ * maximum throughput. In an open loop requests are due at a fixed rate whether or not earlier ones were answered,
+ * as with independent clients; latency is measured from when a request was due, so time spent waiting behind slow
+ * requests counts too. Applicants are drawn at random by {@link ApplicantGenerator}, a new one per request.</p>
+ *
+ * <pre>
+ *   java -cp benchmarks.jar com.lps.ruleengine.benchmarks.load.LoadDriver [--option=value ...]
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private static final String USAGE = """
+            Options:
+              --target=in-process|<url>   in-process over a generated rule base (default), or a running instance,
+                                          e.g. http://localhost:8080
+              --mode=closed|open          closed loop (default) or open loop at --rate
+              --threads=<n>               concurrent requests; default: processors for closed, 64 for open
+              --rate=<n>                  requests per second in an open loop (default 1000)
+              --duration=<s>              measured seconds (default 30)
+              --warmup=<s>                seconds before measuring (default 10)
+              --trace-level=<level>       NONE (default), PATH_IDS or FULL
+              --policy-prefix=<prefix>    only evaluate policies whose id starts with the prefix
+              --histogram=<file>          also write the full latency distribution, in microseconds
+              --seed=<n>                  seed of the rule base and the applicants (default 42)
+            In-process rule base (see GeneratorSpec):
+              --rules=<n> --policies=<n> --threshold-documents=<n> --list-documents=<n> --list-size=<n>
+            """;
+
+    private static final Set<String> OPTIONS = Set.of("target", "mode", "threads", "rate", "duration", "warmup",
+            "trace-level", "policy-prefix", "histogram", "seed", "rules", "policies", "threshold-documents",
+            "list-documents", "list-size");
+
+    private final EvaluationTarget target;
+    private final List<String> policyIds;
+    private final ApplicantGenerator applicants;
+    private final long seed;
+    private final boolean openLoop;
+    private final int threads;
+    private final int rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+
+    private LoadDriver(EvaluationTarget target, List<String> policyIds, ApplicantGenerator applicants, long seed,
+                       boolean openLoop, int threads, int rate, long warmupNanos, long durationNanos) {
+        this.target = target;
+        this.policyIds = policyIds;
+        this.applicants = applicants;
+        this.seed = seed;
+        this.openLoop = openLoop;
+        this.threads = threads;
+        this.rate = rate;
+        this.warmupNanos = warmupNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    // What one thread measured
+    private static final class Result {
+        final Histogram latencies = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        long requests;
+        long errors;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options == null) {
+            System.err.print(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        GeneratorSpec defaults = GeneratorSpec.builder().build();
+        GeneratorSpec spec = GeneratorSpec.builder()
+                .seed(Long.parseLong(options.getOrDefault("seed", String.valueOf(defaults.getSeed()))))
+                .rules(intOption(options, "rules", defaults.getRules()))
+                .policies(intOption(options, "policies", defaults.getPolicies()))
+                .thresholdDocuments(intOption(options, "threshold-documents", defaults.getThresholdDocuments()))
+                .listDocuments(intOption(options, "list-documents", defaults.getListDocuments()))
+                .listSize(intOption(options, "list-size", defaults.getListSize()))
+                .build();
+        TraceLevel traceLevel = TraceLevel.valueOf(options.getOrDefault("trace-level", "NONE"));
+        boolean openLoop = "open".equals(options.getOrDefault("mode", "closed"));
+        int threads = intOption(options, "threads", openLoop ? 64 : Runtime.getRuntime().availableProcessors());
+        int rate = intOption(options, "rate", 1000);
+        String targetOption = options.getOrDefault("target", "in-process");
+
+        try (EvaluationTarget target = "in-process".equals(targetOption)
+                ? new InProcessTarget(spec, traceLevel)
+                : new HttpTarget(targetOption, traceLevel)) {
+            String prefix = options.getOrDefault("policy-prefix", "");
+            List<String> policyIds = target.policyIds().stream().filter(id -> id.startsWith(prefix)).toList();
+            if (policyIds.isEmpty()) {
+                throw new IllegalStateException("No policies to evaluate at " + target.describe());
+            }
+
+            LoadDriver driver = new LoadDriver(target, policyIds, new ApplicantGenerator(spec), spec.getSeed(),
+                    openLoop, threads, rate, TimeUnit.SECONDS.toNanos(intOption(options, "warmup", 10)),
+                    TimeUnit.SECONDS.toNanos(intOption(options, "duration", 30)));
+            Result total = driver.run();
+            driver.report(total, System.out);
+            if (options.containsKey("histogram")) {
+                try (PrintStream out = new PrintStream(options.get("histogram"))) {
+                    total.latencies.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Cannot write histogram: " + e.getMessage(), e);
+        }
+    }
+
+    private Result run() throws InterruptedException {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        AtomicLong nextSlot = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+
+        List<Result> results = new ArrayList<>(threads);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Result result = new Result();
+            results.add(result);
+            int index = i;
+            Thread worker = new Thread(() -> {
+                if (openLoop) {
+                    openLoop(index, start, measureFrom, end, nextSlot, intervalNanos, result);
+                } else {
+                    closedLoop(index, start, measureFrom, end, result);
+                }
+            }, "load-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Result total = new Result();
+        for (Result result : results) {
+            total.latencies.add(result.latencies);
+            total.requests += result.requests;
+            total.errors += result.errors;
+        }
+        return total;
+    }
+
+    private void closedLoop(int index, long start, long measureFrom, long end, Result result) {
+        Random random = new Random(seed + index);
+        String userId = "load-" + index;
+        waitUntil(start);
+        while (true) {
+            Map<String, Object> attributes = applicants.next(random);
+            String policyId = policyIds.get(random.nextInt(policyIds.size()));
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return;
+            }
+            boolean succeeded = target.evaluate(policyId, userId, attributes);
+            if (sent >= measureFrom) {
+                record(result, System.nanoTime() - sent, succeeded);
+            }
+        }
+    }
+
+    private void openLoop(int index, long start, long measureFrom, long end, AtomicLong nextSlot, long intervalNanos,
+                          Result result) {
+        Random random = new Random(seed + index);
+        String userId = "load-" + index;
+        while (true) {
+            long due = start + nextSlot.getAndIncrement() * intervalNanos;
+            // Requests due before the end but never sent are reported as a backlog rather than sent late
+            if (due >= end || System.nanoTime() >= end) {
+                return;
+            }
+            Map<String, Object> attributes = applicants.next(random);
+            String policyId = policyIds.get(random.nextInt(policyIds.size()));
+            waitUntil(due);
+            boolean succeeded = target.evaluate(policyId, userId, attributes);
+            if (due >= measureFrom) {
+                record(result, System.nanoTime() - due, succeeded);
+            }
+        }
+    }
+
+    private static void record(Result result, long latencyNanos, boolean succeeded) {
+        result.latencies.recordValue(Math.min(latencyNanos, result.latencies.getHighestTrackableValue()));
+        result.requests++;
+        if (!succeeded) {
+            result.errors++;
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void report(Result total, PrintStream out) {
+        double seconds = durationNanos / 1e9;
+        Histogram latencies = total.latencies;
+        out.println();
+        out.printf("Target:      %s%n", target.describe());
+        out.printf("Load:        %s, %d policies, %d threads%n",
+                openLoop ? "open loop at " + rate + " req/s" : "closed loop", policyIds.size(), threads);
+        out.printf("Measured:    %.1f s after %.1f s warm-up%n", seconds, warmupNanos / 1e9);
+        out.printf("Requests:    %d (%d errors)%n", total.requests, total.errors);
+        out.printf("Throughput:  %.1f req/s%n", total.requests / seconds);
+        if (openLoop) {
+            long expected = (long) (seconds * rate);
+            out.printf("Backlog:     %d of %d due requests not sent%n", Math.max(0, expected - total.requests),
+                    expected);
+        }
+        out.printf("Latency us:  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  p99.99 %.1f  max %.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getValueAtPercentile(99.99) / 1000.0, latencies.getMaxValue() / 1000.0);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0 || !OPTIONS.contains(arg.substring(2, equals))) {
+                return null;
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
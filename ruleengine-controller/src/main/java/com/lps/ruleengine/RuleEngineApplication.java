@@ -2,8 +2,10 @@ package com.lps.ruleengine;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.lps.ruleengine")
+@EnableScheduling
 public class RuleEngineApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,36 @@
+package com.lps.ruleengine.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class EvaluationExecutorConfig {
+
+    /**
+     * Bounded pool used to evaluate the policies of a bulk request concurrently.
+     * When the queue is full a policy is rejected rather than evaluated on the request thread, where the bulk deadline
+     * could not be enforced; the bulk request reports it as an error of that policy.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService policyEvaluationExecutor(
+            @Value("${ruleengine.evaluation.multi-policy.threads:0}") int threads,
+            @Value("${ruleengine.evaluation.multi-policy.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "policy-eval-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,81 @@
+package com.lps.ruleengine.config;
+
+import com.lps.ruleengine.generator.GeneratedRuleBase;
+import com.lps.ruleengine.generator.GeneratorSpec;
+import com.lps.ruleengine.generator.RuleBaseGenerator;
+import com.lps.ruleengine.repository.DocumentRepository;
+import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.repository.RuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds a synthetic rule base of production scale next to the sample data, for load tests and capacity planning.
+ * Runs after the sample data and before the warm-up, so the generated policies are compiled and warm before the
+ * instance accepts traffic. Skipped when the generated rule base is already in the database.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class GeneratedDataInitializer implements CommandLineRunner {
+
+    private final RuleBaseGenerator ruleBaseGenerator;
+    private final DocumentRepository documentRepository;
+    private final RuleRepository ruleRepository;
+    private final PolicyRepository policyRepository;
+    private final boolean enabled;
+    private final GeneratorSpec spec;
+
+    public GeneratedDataInitializer(RuleBaseGenerator ruleBaseGenerator, DocumentRepository documentRepository,
+                                    RuleRepository ruleRepository, PolicyRepository policyRepository,
+                                    @Value("${ruleengine.generator.enabled:false}") boolean enabled,
+                                    @Value("${ruleengine.generator.seed:42}") long seed,
+                                    @Value("${ruleengine.generator.rules:20000}") int rules,
+                                    @Value("${ruleengine.generator.policies:2000}") int policies,
+                                    @Value("${ruleengine.generator.threshold-documents:100}") int thresholdDocuments,
+                                    @Value("${ruleengine.generator.list-documents:20}") int listDocuments,
+                                    @Value("${ruleengine.generator.list-size:10000}") int listSize) {
+        this.ruleBaseGenerator = ruleBaseGenerator;
+        this.documentRepository = documentRepository;
+        this.ruleRepository = ruleRepository;
+        this.policyRepository = policyRepository;
+        this.enabled = enabled;
+        this.spec = GeneratorSpec.builder()
+                .seed(seed)
+                .rules(rules)
+                .policies(policies)
+                .thresholdDocuments(thresholdDocuments)
+                .listDocuments(listDocuments)
+                .listSize(listSize)
+                .build();
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        GeneratedRuleBase generated = ruleBaseGenerator.generate(spec);
+        if (generated.getPolicies().isEmpty()) {
+            return;
+        }
+        String firstPolicyId = generated.getPolicyIds().get(0);
+        if (policyRepository.existsByPolicyId(firstPolicyId)) {
+            log.info("Generated rule base already present ({} exists), not seeding it again", firstPolicyId);
+            return;
+        }
+
+        long start = System.nanoTime();
+        documentRepository.saveAll(generated.getDocuments());
+        ruleRepository.saveAll(generated.getRules());
+        policyRepository.saveAll(generated.getPolicies());
+        log.info("Seeded {} generated documents, {} rules and {} policies in {} ms",
+                generated.getDocuments().size(), generated.getRules().size(), generated.getPolicies().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
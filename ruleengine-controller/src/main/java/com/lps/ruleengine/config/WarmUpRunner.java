@@ -0,0 +1,159 @@
+package com.lps.ruleengine.config;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.engine.CompiledPolicy;
+import com.lps.ruleengine.engine.CompiledPolicyRegistry;
+import com.lps.ruleengine.engine.EvaluationMetrics;
+import com.lps.ruleengine.engine.PortfolioGraph;
+import com.lps.ruleengine.engine.RuleBase;
+import com.lps.ruleengine.engine.RuleBaseSnapshot;
+import com.lps.ruleengine.engine.RuleNode;
+import com.lps.ruleengine.engine.RuleStatistics;
+import com.lps.ruleengine.engine.SyntheticAttributes;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IRuleEvaluationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets the engine ready for traffic after the sample data is in place: loads the rule base in bulk, compiles every
+ * active policy, then runs synthetic evaluations of each one so the JIT compiles the evaluation paths. The instance
+ * reports itself as refusing traffic until this is done, so a load balancer watching the readiness probe sends
+ * requests only to warm instances.
+ * The synthetic evaluations leave nothing behind: evaluation metrics are paused while they run, their branch
+ * statistics are discarded and the policies are compiled again, so tiering, layout and metrics start from real traffic.
+ */
+@Component
+@Order(3)
+@Slf4j
+public class WarmUpRunner implements CommandLineRunner {
+
+    // Fixed so that every instance warms up on the same applicants
+    private static final long SEED = 42;
+    private static final TraceLevel[] TRACE_LEVELS = TraceLevel.values();
+
+    private final RuleBase ruleBase;
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
+    private final IRuleEvaluationService ruleEvaluationService;
+    private final RuleStatistics ruleStatistics;
+    private final EvaluationMetrics evaluationMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+
+    public WarmUpRunner(RuleBase ruleBase, CompiledPolicyRegistry compiledPolicyRegistry,
+                        IRuleEvaluationService ruleEvaluationService, RuleStatistics ruleStatistics,
+                        EvaluationMetrics evaluationMetrics,
+                        ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                        @Value("${ruleengine.warmup.enabled:true}") boolean enabled,
+                        @Value("${ruleengine.warmup.iterations:2000}") int iterations) {
+        this.ruleBase = ruleBase;
+        this.compiledPolicyRegistry = compiledPolicyRegistry;
+        this.ruleEvaluationService = ruleEvaluationService;
+        this.ruleStatistics = ruleStatistics;
+        this.evaluationMetrics = evaluationMetrics;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        evaluationMetrics.pause();
+        try {
+            warmUp();
+        } catch (Exception e) {
+            // A cold instance still answers correctly, so a failed warm-up must not keep it out of rotation
+            log.error("Warm-up failed, accepting traffic cold: {}", e.getMessage(), e);
+        } finally {
+            evaluationMetrics.resume();
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("ruleengine.warmup.duration")
+                    .description("Time from the start of the warm-up until the instance accepted traffic")
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Warm-up completed in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        RuleBaseSnapshot snapshot = ruleBase.current();
+        // Compiles every active policy from the snapshot, then merges them
+        PortfolioGraph portfolio = compiledPolicyRegistry.getPortfolio();
+        log.info("Loaded {} rules and {} policies and compiled {} active policies in {} ms",
+                snapshot.getRules().size(), snapshot.getPolicies().size(), portfolio.getPolicyIds().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        List<Policy> activePolicies = snapshot.getPolicies().stream()
+                .filter(Policy::getIsActive)
+                .sorted(Comparator.comparing(Policy::getPolicyId))
+                .toList();
+        Random random = new Random(SEED);
+        for (Policy policy : activePolicies) {
+            warmUp(compiledPolicyRegistry.getPolicy(policy.getPolicyId()), snapshot, random);
+        }
+
+        // Drop what the synthetic applicants taught the engine; live traffic must drive tiering and layout.
+        // Metrics resume first so the counters of the recompiled rules feed their outcome meters again
+        evaluationMetrics.resume();
+        for (Rule rule : snapshot.getRules()) {
+            ruleStatistics.reset(rule.getRuleId());
+        }
+        compiledPolicyRegistry.invalidateAll();
+        compiledPolicyRegistry.getPortfolio();
+    }
+
+    private void warmUp(CompiledPolicy policy, RuleBaseSnapshot snapshot, Random random) {
+        SyntheticAttributes applicants = SyntheticAttributes.forGraph(policy.getGraph(), snapshot);
+
+        long start = System.nanoTime();
+        EvaluationResponse first = ruleEvaluationService.evaluatePolicy(policy, "warmup", applicants.next(random),
+                TraceLevel.FULL);
+        long firstNanos = System.nanoTime() - start;
+        Timer.builder("ruleengine.warmup.first.evaluation")
+                .description("Latency of a policy's first evaluation after startup")
+                .tag("policy", evaluationMetrics.policyTag(policy.getPolicyId()))
+                .register(meterRegistry)
+                .record(firstNanos, TimeUnit.NANOSECONDS);
+
+        if (first.getErrorMessage() != null || policy.getGraph().getNodes().stream().anyMatch(RuleNode::isFailure)) {
+            // Every applicant reaching a missing or inactive rule would log the same error again
+            log.warn("Policy {} reaches a rule that cannot be evaluated, skipping its warm-up load "
+                    + "(first evaluation {} us)", policy.getPolicyId(), TimeUnit.NANOSECONDS.toMicros(firstNanos));
+            return;
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ruleEvaluationService.evaluatePolicy(policy, "warmup", applicants.next(random),
+                    TRACE_LEVELS[i % TRACE_LEVELS.length]);
+        }
+        log.info("Policy {}: first evaluation {} us, {} warm-up evaluations over attributes {} in {} ms",
+                policy.getPolicyId(), TimeUnit.NANOSECONDS.toMicros(firstNanos), iterations,
+                applicants.getAttributes(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -1,6 +1,7 @@
 package com.lps.ruleengine.controller;
 
 import com.lps.ruleengine.dto.CreateDocumentRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
 import com.lps.ruleengine.model.Document;
 import com.lps.ruleengine.service.IDocumentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -89,6 +90,15 @@ public class DocumentController {
         }
     }
 
+    @Operation(summary = "Get document dependents", description = "Returns the rules referencing a document and the rules and policies that reach them, i.e. those a change to the document affects")
+    @GetMapping("/{documentId}/dependents")
+    public ResponseEntity<DependentsResponse> getDocumentDependents(
+            @Parameter(description = "Document ID") @PathVariable String documentId) {
+        return documentService.getDependents(documentId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Get recent documents", description = "Retrieves recently created documents")
     @GetMapping("/recent")
     public ResponseEntity<List<Document>> getRecentDocuments() {
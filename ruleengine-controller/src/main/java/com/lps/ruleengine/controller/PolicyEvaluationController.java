@@ -1,7 +1,12 @@
 package com.lps.ruleengine.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lps.ruleengine.dto.EvaluationRequest;
 import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.dto.ResidualPolicyRequest;
+import com.lps.ruleengine.dto.ResidualPolicyResponse;
+import com.lps.ruleengine.dto.SessionUpdateRequest;
 import com.lps.ruleengine.service.IPolicyEvaluationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,9 +14,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 @RestController
@@ -22,6 +32,7 @@ import java.util.Map;
 public class PolicyEvaluationController {
 
     private final IPolicyEvaluationService policyEvaluationService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
         summary = "Evaluate a policy", 
@@ -37,7 +48,7 @@ public class PolicyEvaluationController {
         
         try {
             EvaluationResponse response = policyEvaluationService.evaluatePolicy(
-                    policyId, request.getUserId(), request.getUserAttributes());
+                    policyId, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -60,7 +71,7 @@ public class PolicyEvaluationController {
         
         try {
             EvaluationResponse response = policyEvaluationService.evaluateRule(
-                    ruleId, request.getUserId(), request.getUserAttributes());
+                    ruleId, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -84,7 +95,7 @@ public class PolicyEvaluationController {
         
         try {
             Map<String, EvaluationResponse> responses = policyEvaluationService.evaluateMultiplePolicies(
-                    policyIds, request.getUserId(), request.getUserAttributes());
+                    policyIds, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
             
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
@@ -92,4 +103,185 @@ public class PolicyEvaluationController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(
+        summary = "Portfolio evaluation", 
+        description = "Evaluates every active policy for the same user, highest priority first, to present all " +
+                     "eligible products. Rules shared between policies are evaluated only once."
+    )
+    @PostMapping("/portfolio")
+    public ResponseEntity<Map<String, EvaluationResponse>> evaluatePortfolio(
+            @Valid @RequestBody EvaluationRequest request) {
+        
+        log.info("Portfolio evaluation request for user: {}", request.getUserId());
+        
+        try {
+            Map<String, EvaluationResponse> responses = policyEvaluationService.evaluatePortfolio(
+                    request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
+            
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            log.error("Error in portfolio evaluation for user {}: {}", request.getUserId(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+        summary = "Create a residual policy", 
+        description = "Partially evaluates a policy for attribute values that are the same on every request " +
+                     "(e.g. a channel partner's city and product). Rules decidable from the fixed values are " +
+                     "folded away; the residual is cached and rebuilt when its rules or documents change version."
+    )
+    @PostMapping("/policies/{policyId}/residuals")
+    public ResponseEntity<ResidualPolicyResponse> createResidualPolicy(
+            @Parameter(description = "Policy ID to specialize") @PathVariable String policyId,
+            @Valid @RequestBody ResidualPolicyRequest request) {
+        
+        log.info("Residual policy request for: {}", policyId);
+        
+        try {
+            ResidualPolicyResponse response = policyEvaluationService.createResidualPolicy(
+                    policyId, request.getFixedAttributes());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error creating residual of policy {}: {}", policyId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+        summary = "Evaluate a residual policy", 
+        description = "Evaluates a residual policy against the attributes that vary per request. " +
+                     "The fixed values the residual was created with take precedence over request attributes."
+    )
+    @PostMapping("/residuals/{residualId}")
+    public ResponseEntity<EvaluationResponse> evaluateResidualPolicy(
+            @Parameter(description = "Residual ID returned when the residual was created") @PathVariable String residualId,
+            @Valid @RequestBody EvaluationRequest request) {
+        
+        log.info("Residual policy evaluation request for: {} by user: {}", residualId, request.getUserId());
+        
+        try {
+            EvaluationResponse response = policyEvaluationService.evaluateResidualPolicy(
+                    residualId, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error evaluating residual policy {}: {}", residualId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+        summary = "Start an evaluation session", 
+        description = "Evaluates a policy in full and keeps the applicant's attributes, path and per-rule results " +
+                     "so later attribute changes re-evaluate only the affected part of the path. " +
+                     "Replaces any open session of the same user and policy."
+    )
+    @PostMapping("/sessions/{policyId}")
+    public ResponseEntity<EvaluationResponse> startSession(
+            @Parameter(description = "Policy ID to evaluate") @PathVariable String policyId,
+            @Valid @RequestBody EvaluationRequest request) {
+        
+        log.info("Session start request for policy: {} by user: {}", policyId, request.getUserId());
+        
+        try {
+            EvaluationResponse response = policyEvaluationService.startSession(
+                    policyId, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error starting session of policy {}: {}", policyId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(
+        summary = "Update an evaluation session", 
+        description = "Applies changed attributes to an open session and re-evaluates from the first rule on the " +
+                     "previous path that reads one of them. A null value removes the attribute."
+    )
+    @PatchMapping("/sessions/{policyId}/{userId}")
+    public ResponseEntity<EvaluationResponse> updateSession(
+            @Parameter(description = "Policy ID of the session") @PathVariable String policyId,
+            @Parameter(description = "User ID of the session") @PathVariable String userId,
+            @Valid @RequestBody SessionUpdateRequest request) {
+        
+        log.info("Session update request for policy: {} by user: {}", policyId, userId);
+        
+        try {
+            EvaluationResponse response = policyEvaluationService.updateSession(
+                    policyId, userId, request.getChangedAttributes(), request.getTraceLevel());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error updating session of policy {} for user {}: {}", policyId, userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "End an evaluation session", description = "Discards the session of a user and policy")
+    @DeleteMapping("/sessions/{policyId}/{userId}")
+    public ResponseEntity<Void> endSession(
+            @Parameter(description = "Policy ID of the session") @PathVariable String policyId,
+            @Parameter(description = "User ID of the session") @PathVariable String userId) {
+        return policyEvaluationService.endSession(policyId, userId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(
+        summary = "Decision cache statistics", 
+        description = "Returns whether the decision cache is enabled, its size, and hit, miss and eviction counts."
+    )
+    @GetMapping("/cache/decisions/stats")
+    public ResponseEntity<Map<String, Object>> getDecisionCacheStats() {
+        return ResponseEntity.ok(policyEvaluationService.getDecisionCacheStats());
+    }
+
+    @Operation(
+        summary = "Batch policy evaluation", 
+        description = "Evaluates many users against one policy in a single call. " +
+                     "Accepts a JSON array or an NDJSON stream of {userId, userAttributes} and streams one " +
+                     "NDJSON result line per user, in input order, without buffering the whole response."
+    )
+    @PostMapping(value = "/policies/{policyId}/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> evaluatePolicyBatch(
+            @Parameter(description = "Policy ID to evaluate") @PathVariable String policyId,
+            @Parameter(description = "Evaluate users column-wise without execution traces")
+            @RequestParam(defaultValue = "false") boolean vectorized,
+            InputStream requestBody) {
+        
+        log.info("Batch evaluation request for policy: {}, vectorized: {}", policyId, vectorized);
+        
+        IPolicyEvaluationService.BatchEvaluator batch;
+        try {
+            batch = policyEvaluationService.prepareBatch(policyId, vectorized);
+        } catch (Exception e) {
+            log.error("Error preparing batch evaluation for policy {}: {}", policyId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            try (MappingIterator<EvaluationRequest> requests =
+                         objectMapper.readerFor(EvaluationRequest.class).readValues(requestBody)) {
+                batch.evaluate(requests, response -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(response));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            outputStream.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
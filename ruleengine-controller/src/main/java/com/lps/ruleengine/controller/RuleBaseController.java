@@ -0,0 +1,41 @@
+package com.lps.ruleengine.controller;
+
+import com.lps.ruleengine.dto.RuleBaseFileResponse;
+import com.lps.ruleengine.service.IRuleBaseFileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/rule-base")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Rule Base", description = "APIs for the binary rule base file loaded at startup")
+public class RuleBaseController {
+
+    private final IRuleBaseFileService ruleBaseFileService;
+
+    @Operation(summary = "Export the rule base file", description = "Writes every rule, document and policy to the file configured as ruleengine.rule-base-file.path; instances starting while the database is unchanged load it instead of querying the database")
+    @PostMapping("/file")
+    public ResponseEntity<RuleBaseFileResponse> exportFile() {
+        log.info("Exporting rule base file");
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(ruleBaseFileService.exportFile());
+        } catch (Exception e) {
+            log.error("Error exporting rule base file: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Describe the rule base file", description = "Verifies the configured rule base file's checksum and reports its contents and whether it is current")
+    @GetMapping("/file")
+    public ResponseEntity<RuleBaseFileResponse> getFile() {
+        return ruleBaseFileService.getFile()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
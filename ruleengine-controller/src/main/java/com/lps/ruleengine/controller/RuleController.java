@@ -1,6 +1,7 @@
 package com.lps.ruleengine.controller;
 
 import com.lps.ruleengine.dto.CreateRuleRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
 import com.lps.ruleengine.dto.EvaluationRequest;
 import com.lps.ruleengine.dto.EvaluationResponse;
 import com.lps.ruleengine.model.Rule;
@@ -17,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -126,7 +128,7 @@ public class RuleController {
         log.info("Evaluating rule: {} for user: {}", ruleId, request.getUserId());
         try {
             EvaluationResponse response = ruleEvaluationService.evaluateRule(
-                    ruleId, request.getUserId(), request.getUserAttributes());
+                    ruleId, request.getUserId(), request.getUserAttributes(), request.getTraceLevel());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error evaluating rule: {}", e.getMessage());
@@ -134,6 +136,24 @@ public class RuleController {
         }
     }
 
+    @Operation(summary = "Get rule branch statistics", description = "Returns how often a rule evaluated true, false or with an error, and its mean evaluation time")
+    @GetMapping("/{ruleId}/stats")
+    public ResponseEntity<Map<String, Object>> getRuleStatistics(
+            @Parameter(description = "Rule ID") @PathVariable String ruleId) {
+        return ruleService.getRuleStatistics(ruleId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Get rule dependents", description = "Returns the rules and policies whose evaluation can reach a rule, i.e. those a change to it affects")
+    @GetMapping("/{ruleId}/dependents")
+    public ResponseEntity<DependentsResponse> getRuleDependents(
+            @Parameter(description = "Rule ID") @PathVariable String ruleId) {
+        return ruleService.getDependents(ruleId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Search rules by expression", description = "Searches for rules containing a keyword in their expression")
     @GetMapping("/search")
     public ResponseEntity<List<Rule>> searchRules(
@@ -0,0 +1,114 @@
+package com.lps.ruleengine;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Random single-attribute edits of an open session of the sample standard loan policy: every session result must
+ * match a full evaluation of the edited attributes, and only the rules from the first one reading the edited
+ * attribute may be evaluated again.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"ruleengine.warmup.enabled=false", "spring.jpa.show-sql=false"})
+class EvaluationSessionTest {
+
+    private static final String POLICY_ID = "policy_standard_loan";
+    private static final int EDITS = 300;
+
+    // Attribute each rule of the policy reads
+    private static final Map<String, String> READS = Map.of(
+            "rule_age_check", "age",
+            "rule_city_check", "city",
+            "rule_income_check", "income",
+            "rule_amount_check", "loanAmount",
+            "rule_high_amount_check", "age");
+
+    // Values on both sides of every threshold, and null to remove the attribute
+    private static final Map<String, List<Object>> VALUES = Map.of(
+            "age", Arrays.asList(16, 30, 70, null),
+            "city", Arrays.asList("Delhi", "Mumbai", "Paris", null),
+            "income", Arrays.asList(10000, 50000, 80000, null),
+            "loanAmount", Arrays.asList(100000, 900000, null));
+
+    @Autowired
+    private IPolicyEvaluationService policyEvaluationService;
+
+    @Test
+    void randomSingleAttributeEditsMatchFullEvaluation() {
+        Random random = new Random(17);
+        List<String> attributeNames = VALUES.keySet().stream().sorted().toList();
+        Map<String, Object> attributes = new HashMap<>(Map.of(
+                "age", 30, "city", "Delhi", "income", 50000, "loanAmount", 100000));
+
+        EvaluationResponse previous = policyEvaluationService.startSession(POLICY_ID, "session-test", attributes,
+                TraceLevel.PATH_IDS);
+        assertThat(previous.getErrorMessage()).isNull();
+        int evaluatedRules = 0;
+        int fullEvaluationRules = 0;
+
+        for (int edit = 0; edit < EDITS; edit++) {
+            String name = attributeNames.get(random.nextInt(attributeNames.size()));
+            Object value = otherValue(name, attributes.get(name), random);
+            Map<String, Object> change = new HashMap<>();
+            change.put(name, value);
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+
+            EvaluationResponse session = policyEvaluationService.updateSession(POLICY_ID, "session-test", change,
+                    TraceLevel.PATH_IDS);
+            EvaluationResponse full = policyEvaluationService.evaluatePolicy(POLICY_ID, "session-test",
+                    new HashMap<>(attributes), TraceLevel.PATH_IDS);
+
+            String description = "edit " + edit + ": " + name + " = " + value + " on " + attributes;
+            assertThat(session.getErrorMessage()).as(description).isNull();
+            assertThat(session.getResult()).as(description).isEqualTo(full.getResult());
+            assertThat(session.getPath()).as(description).isEqualTo(full.getPath());
+            assertThat(session.getEvaluatedRuleCount()).as(description)
+                    .isEqualTo(expectedEvaluatedRules(previous.getPath(), full.getPath(), name));
+
+            evaluatedRules += session.getEvaluatedRuleCount();
+            fullEvaluationRules += full.getPath().size();
+            previous = session;
+        }
+
+        // Each edit re-evaluates only the tail of the path, so the sessions evaluate fewer rules than full evaluations
+        assertThat(evaluatedRules).isLessThan(fullEvaluationRules);
+        assertThat(policyEvaluationService.endSession(POLICY_ID, "session-test")).isTrue();
+    }
+
+    private static Object otherValue(String name, Object current, Random random) {
+        List<Object> candidates = VALUES.get(name).stream()
+                .filter(value -> !Objects.equals(value, current))
+                .toList();
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    /**
+     * Rules from the first one on the previous path reading the changed attribute to the end of the new path; the
+     * rules before it take the same branches, so both paths share them.
+     */
+    private static int expectedEvaluatedRules(List<String> previousPath, List<String> newPath, String changed) {
+        for (int i = 0; i < previousPath.size(); i++) {
+            if (changed.equals(READS.get(previousPath.get(i)))) {
+                return newPath.size() - i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,310 @@
+package com.lps.ruleengine;
+
+import com.lps.ruleengine.dto.CreateDocumentRequest;
+import com.lps.ruleengine.dto.CreateRuleRequest;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.engine.ChangePublisher;
+import com.lps.ruleengine.engine.RuleBase;
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.repository.RuleRepository;
+import com.lps.ruleengine.service.IDocumentService;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import com.lps.ruleengine.service.IRuleService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Several instances of the application sharing one H2 file database, as in a multi-instance deployment: writes made
+ * through any instance must reach the in-memory rule base of every other one through the change log.
+ */
+class MultiInstanceCoherenceTest {
+
+    private static final long CONVERGENCE_TIMEOUT_MS = 10_000;
+    private static final Map<String, Object> APPLICANT = Map.of(
+            "age", 30, "city", "Delhi", "income", 50000, "loanAmount", 100000);
+
+    @TempDir
+    static Path databaseDirectory;
+
+    private static final List<Node> nodes = new ArrayList<>();
+
+    // One application instance and the beans the test drives it through
+    private record Node(String nodeId, ConfigurableApplicationContext context) {
+
+        IRuleService rules() {
+            return context.getBean(IRuleService.class);
+        }
+
+        IDocumentService documents() {
+            return context.getBean(IDocumentService.class);
+        }
+
+        RuleRepository ruleRepository() {
+            return context.getBean(RuleRepository.class);
+        }
+
+        ChangePublisher changePublisher() {
+            return context.getBean(ChangePublisher.class);
+        }
+
+        Rule heldRule(String ruleId) {
+            return context.getBean(RuleBase.class).current().getRule(ruleId);
+        }
+
+        EvaluationResponse evaluate(String policyId) {
+            return context.getBean(IPolicyEvaluationService.class)
+                    .evaluatePolicy(policyId, "coherence", APPLICANT, TraceLevel.NONE);
+        }
+
+        EvaluationResponse evaluateRule(String ruleId) {
+            return context.getBean(IPolicyEvaluationService.class)
+                    .evaluateRule(ruleId, "coherence", APPLICANT, TraceLevel.NONE);
+        }
+    }
+
+    @BeforeAll
+    static void startInstances() {
+        String url = "jdbc:h2:file:" + databaseDirectory.resolve("ruleengine").toAbsolutePath();
+        for (String nodeId : List.of("node-a", "node-b", "node-c")) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(RuleEngineApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=" + url,
+                            // The first instance creates the schema; the others must not drop it
+                            "spring.jpa.hibernate.ddl-auto=update",
+                            "spring.jpa.show-sql=false",
+                            "ruleengine.cluster.node-id=" + nodeId,
+                            "ruleengine.cluster.change-log.poll-interval-ms=50",
+                            "ruleengine.warmup.enabled=false")
+                    .run();
+            nodes.add(new Node(nodeId, context));
+        }
+        // Loads each instance's rule base, which starts its change log polling
+        for (Node node : nodes) {
+            assertThat(node.evaluate("policy_standard_loan").getResult()).isTrue();
+        }
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        nodes.forEach(node -> node.context().close());
+        nodes.clear();
+    }
+
+    @Test
+    void updateOnOneInstanceReachesTheOthers() {
+        Node writer = nodes.get(0);
+        Rule income = writer.ruleRepository().findByRuleId("rule_income_check").orElseThrow();
+
+        // The reference document supplies the threshold, so flip the comparison to turn the applicant down
+        writer.rules().updateRule("rule_income_check", requestFrom(income, "income < 25000"));
+
+        awaitConverged("rule_income_check");
+        for (Node node : nodes) {
+            assertThat(node.heldRule("rule_income_check").getExpression()).isEqualTo("income < 25000");
+        }
+        awaitDecision("policy_standard_loan", false);
+
+        writer.rules().updateRule("rule_income_check", requestFrom(
+                writer.ruleRepository().findByRuleId("rule_income_check").orElseThrow(), income.getExpression()));
+        awaitConverged("rule_income_check");
+        awaitDecision("policy_standard_loan", true);
+    }
+
+    @Test
+    void createAndDeleteReachTheOtherInstances() {
+        nodes.get(0).documents().createDocument(CreateDocumentRequest.builder()
+                .documentId("doc_coherence_age")
+                .documentValue("21")
+                .valueType(Document.ValueType.INTEGER)
+                .build());
+        nodes.get(1).rules().createRule(CreateRuleRequest.builder()
+                .ruleId("rule_coherence")
+                .expression("age >= 21")
+                .referenceId("doc_coherence_age")
+                .onTrueType(Rule.OutcomeType.VALUE)
+                .onTrueValue("true")
+                .onFalseType(Rule.OutcomeType.VALUE)
+                .onFalseValue("false")
+                .build());
+
+        awaitConverged("rule_coherence");
+        // Created entities are inserted, not merged, and start at version 0
+        assertThat(nodes.get(0).ruleRepository().findByRuleId("rule_coherence").orElseThrow().getVersion())
+                .isZero();
+        for (Node node : nodes) {
+            assertThat(node.evaluateRule("rule_coherence").getResult()).as(node.nodeId()).isTrue();
+        }
+
+        nodes.get(2).rules().deleteRule("rule_coherence");
+
+        awaitConverged("rule_coherence");
+        for (Node node : nodes) {
+            assertThat(node.heldRule("rule_coherence")).as(node.nodeId()).isNull();
+            assertThat(node.evaluateRule("rule_coherence").getErrorMessage()).as(node.nodeId())
+                    .startsWith("Rule not found");
+        }
+    }
+
+    @Test
+    void staleWriteFailsInsteadOfOverwritingAConcurrentOne() {
+        Node first = nodes.get(0);
+        Node second = nodes.get(1);
+        // The first instance reads the rule, then the second one writes it
+        Rule stale = first.ruleRepository().findByRuleId("rule_amount_check").orElseThrow();
+        second.rules().updateRule("rule_amount_check", requestFrom(stale, "loanAmount < 400000"));
+
+        stale.setExpression("loanAmount < 300000");
+        assertThatThrownBy(() -> first.changePublisher().saveRule(stale))
+                .hasMessageStartingWith("Rule was changed concurrently");
+
+        awaitConverged("rule_amount_check");
+        for (Node node : nodes) {
+            assertThat(node.heldRule("rule_amount_check").getExpression()).as(node.nodeId())
+                    .isEqualTo("loanAmount < 400000");
+        }
+    }
+
+    @Test
+    void unparseableStoredRuleDoesNotStopLaterChanges() {
+        Node writer = nodes.get(0);
+        // Saved past the service's validation, like a rule stored before the parser rejected its expression
+        writer.changePublisher().saveRule(Rule.builder()
+                .ruleId("rule_unparseable")
+                .expression("age >= 18 AND")
+                .onTrueType(Rule.OutcomeType.VALUE)
+                .onTrueValue("true")
+                .onFalseType(Rule.OutcomeType.VALUE)
+                .onFalseValue("false")
+                .isActive(true)
+                .build());
+
+        awaitConverged("rule_unparseable");
+        for (Node node : nodes) {
+            assertThat(node.evaluateRule("rule_unparseable").getErrorMessage()).as(node.nodeId()).isNotNull();
+        }
+
+        // Changes logged after the unparseable rule still reach every instance
+        Rule simple = writer.ruleRepository().findByRuleId("rule_simple_approve").orElseThrow();
+        writer.rules().updateRule("rule_simple_approve", requestFrom(simple, "age >= 21"));
+        awaitConverged("rule_simple_approve");
+
+        nodes.get(1).rules().deleteRule("rule_unparseable");
+        awaitConverged("rule_unparseable");
+    }
+
+    @Test
+    void concurrentWritesFromAllInstancesConverge() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(nodes.size() * 2);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<String> unexpected = new CopyOnWriteArrayList<>();
+        List<Future<?>> pending = new ArrayList<>();
+        for (int w = 0; w < nodes.size() * 2; w++) {
+            Node node = nodes.get(w % nodes.size());
+            int writer = w;
+            pending.add(writers.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        Rule current = node.ruleRepository().findByRuleId("rule_high_amount_check").orElseThrow();
+                        node.rules().updateRule("rule_high_amount_check",
+                                requestFrom(current, "age <= " + (60 + writer * 100 + i)));
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Losing a race to another writer is expected; the winner's write must reach everyone
+                        if (!String.valueOf(e.getMessage()).startsWith("Rule was changed concurrently")) {
+                            unexpected.add(e.toString());
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        writers.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isPositive();
+        awaitConverged("rule_high_amount_check");
+    }
+
+    private static CreateRuleRequest requestFrom(Rule rule, String expression) {
+        return CreateRuleRequest.builder()
+                .ruleId(rule.getRuleId())
+                .expression(expression)
+                .referenceId(rule.getReferenceId())
+                .onTrueType(rule.getOnTrueType())
+                .onTrueValue(rule.getOnTrueValue())
+                .onFalseType(rule.getOnFalseType())
+                .onFalseValue(rule.getOnFalseValue())
+                .description(rule.getDescription())
+                .build();
+    }
+
+    /**
+     * Waits until every instance holds the rule as the database has it: same version and expression, or absent.
+     */
+    private static void awaitConverged(String ruleId) {
+        await(() -> {
+            Rule stored = nodes.get(0).ruleRepository().findByRuleId(ruleId).orElse(null);
+            return nodes.stream().allMatch(node -> sameRule(node.heldRule(ruleId), stored));
+        }, "every instance to hold the stored version of " + ruleId);
+    }
+
+    /**
+     * Waits until every instance decides the policy as expected; a change reaches the rule base snapshot just before
+     * the compiled policies depending on it are dropped.
+     */
+    private static void awaitDecision(String policyId, boolean expected) {
+        await(() -> nodes.stream()
+                        .allMatch(node -> Boolean.valueOf(expected).equals(node.evaluate(policyId).getResult())),
+                "every instance to decide " + policyId + " as " + expected);
+    }
+
+    private static boolean sameRule(Rule held, Rule stored) {
+        if (held == null || stored == null) {
+            return held == stored;
+        }
+        return Objects.equals(held.getVersion(), stored.getVersion())
+                && Objects.equals(held.getExpression(), stored.getExpression());
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for " + description);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.lps.ruleengine;
+
+import com.lps.ruleengine.dto.CreatePolicyRequest;
+import com.lps.ruleengine.dto.CreateRuleRequest;
+import com.lps.ruleengine.dto.EvaluationRequest;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.service.IPolicyEvaluationService;
+import com.lps.ruleengine.service.IPolicyService;
+import com.lps.ruleengine.service.IRuleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vectorized batch evaluation, which runs {@code ColumnarEvaluator} over slices of each chunk, must decide every
+ * row exactly as row-by-row evaluation of the policy does: same result, same error. The generated rows mix numbers
+ * of several types, numeric strings, other strings and missing attributes, so rows split between the numeric
+ * comparison kernel and the dictionary-encoded columns.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"ruleengine.warmup.enabled=false", "spring.jpa.show-sql=false",
+                "ruleengine.evaluation.batch.vectorized-slice-size=100"})
+class VectorizedBatchEquivalenceTest {
+
+    private static final int ROWS = 2_500;
+
+    private static final List<Object> AGES = Arrays.asList(16, 17, 18, 18.0, 18.5, 30, 65, 65.0, 66, 90L,
+            "30", "abc", -1, null);
+    private static final List<Object> CITIES = Arrays.asList("Delhi", "Mumbai", "Paris", "delhi", "Delhi ", "",
+            560001, null);
+    private static final List<Object> INCOMES = Arrays.asList(10000, 24999.99, 25000, 25000.0, 50000, "25000",
+            80000L, null);
+    private static final List<Object> LOAN_AMOUNTS = Arrays.asList(100000, 499999, 500000, 500000.0, 900000,
+            "cheap", null);
+    private static final List<Object> SEGMENTS = Arrays.asList("retail", "sme", "corporate", 560001, 560001.0,
+            "560001", "Retail", null);
+    private static final List<Object> REGIONS = Arrays.asList("north", "south", "North", 7, null);
+    private static final List<Object> SCORES = Arrays.asList(650, 700, 700.0, 701, 820.5, "750", "n/a", null);
+    private static final List<Object> CUSTOMERS = Arrays.asList(true, false, "true", "FALSE", "yes", null);
+
+    @Autowired
+    private IPolicyEvaluationService policyEvaluationService;
+
+    @Autowired
+    private IRuleService ruleService;
+
+    @Autowired
+    private IPolicyService policyService;
+
+    @Test
+    void standardLoanPolicyDecidesEveryRowLikeRowByRowEvaluation() {
+        assertEquivalent("policy_standard_loan", generateRows(new Random(7)));
+    }
+
+    @Test
+    void inlineListStringAndBooleanConditionsDecideEveryRowLikeRowByRowEvaluation() {
+        createMixedPolicy();
+        assertEquivalent("policy_columnar_mix", generateRows(new Random(11)));
+    }
+
+    private void assertEquivalent(String policyId, List<EvaluationRequest> requests) {
+        List<EvaluationResponse> vectorized = new ArrayList<>();
+        long evaluated = policyEvaluationService.prepareBatch(policyId, true)
+                .evaluate(requests.iterator(), vectorized::add);
+
+        assertThat(evaluated).isEqualTo(requests.size());
+        int errors = 0;
+        for (int row = 0; row < requests.size(); row++) {
+            EvaluationRequest request = requests.get(row);
+            EvaluationResponse expected = policyEvaluationService.evaluatePolicy(policyId, request.getUserId(),
+                    request.getUserAttributes(), TraceLevel.NONE);
+            EvaluationResponse actual = vectorized.get(row);
+
+            String description = "row " + row + ": " + request.getUserAttributes();
+            assertThat(actual.getUserId()).as(description).isEqualTo(request.getUserId());
+            assertThat(actual.getResult()).as(description).isEqualTo(expected.getResult());
+            assertThat(actual.getErrorMessage()).as(description).isEqualTo(expected.getErrorMessage());
+            errors += expected.getErrorMessage() != null ? 1 : 0;
+        }
+        // Both decisions and errors are exercised
+        assertThat(vectorized).anyMatch(response -> Boolean.TRUE.equals(response.getResult()));
+        assertThat(vectorized).anyMatch(response -> Boolean.FALSE.equals(response.getResult()));
+        if (policyId.equals("policy_columnar_mix")) {
+            assertThat(errors).isPositive();
+        }
+    }
+
+    private static List<EvaluationRequest> generateRows(Random random) {
+        List<EvaluationRequest> requests = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            Map<String, Object> attributes = new HashMap<>();
+            put(attributes, "age", AGES, random);
+            put(attributes, "city", CITIES, random);
+            put(attributes, "income", INCOMES, random);
+            put(attributes, "loanAmount", LOAN_AMOUNTS, random);
+            put(attributes, "segment", SEGMENTS, random);
+            put(attributes, "region", REGIONS, random);
+            put(attributes, "score", SCORES, random);
+            put(attributes, "isExistingCustomer", CUSTOMERS, random);
+            requests.add(EvaluationRequest.builder()
+                    .userId("user-" + row)
+                    .userAttributes(attributes)
+                    .traceLevel(TraceLevel.NONE)
+                    .build());
+        }
+        return requests;
+    }
+
+    // A null value leaves the attribute out of the row
+    private static void put(Map<String, Object> attributes, String name, List<Object> values, Random random) {
+        Object value = values.get(random.nextInt(values.size()));
+        if (value != null) {
+            attributes.put(name, value);
+        }
+    }
+
+    /**
+     * segment IN an inline list; members go on to the score check, others to a string equality on region that
+     * joins the same score check; low scores fall through to a boolean attribute, which fails when missing.
+     */
+    private void createMixedPolicy() {
+        createRule("rule_mix_customer", "isExistingCustomer", null, null);
+        createRule("rule_mix_score", "score > 700", null, "rule_mix_customer");
+        createRule("rule_mix_region", "region == 'north'", "rule_mix_score", null);
+        createRule("rule_mix_segment", "segment IN ['retail', 'sme', 560001]", "rule_mix_score", "rule_mix_region");
+        policyService.createPolicy(CreatePolicyRequest.builder()
+                .policyId("policy_columnar_mix")
+                .policyName("Columnar mix")
+                .rootRuleId("rule_mix_segment")
+                .ruleIds(Set.of("rule_mix_segment", "rule_mix_region", "rule_mix_score", "rule_mix_customer"))
+                .priority(1)
+                .build());
+    }
+
+    private void createRule(String ruleId, String expression, String onTrueRuleId, String onFalseRuleId) {
+        ruleService.createRule(CreateRuleRequest.builder()
+                .ruleId(ruleId)
+                .expression(expression)
+                .onTrueType(onTrueRuleId != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE)
+                .onTrueValue(onTrueRuleId != null ? onTrueRuleId : "true")
+                .onFalseType(onFalseRuleId != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE)
+                .onFalseValue(onFalseRuleId != null ? onFalseRuleId : "false")
+                .build());
+    }
+}
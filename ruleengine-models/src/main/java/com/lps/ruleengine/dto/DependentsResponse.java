@@ -0,0 +1,26 @@
+package com.lps.ruleengine.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rules and policies whose decisions depend on a document or rule")
+public class DependentsResponse {
+
+    @Schema(description = "The document or rule the dependents were looked up for")
+    private String id;
+
+    @Schema(description = "Rules that use it directly: rules referencing the document, or rules branching to the rule")
+    private Set<String> directRuleIds;
+
+    @Schema(description = "Every rule from which evaluation can reach it, including the direct ones")
+    private Set<String> ruleIds;
+
+    @Schema(description = "Policies whose root rule can reach it, active or not")
+    private Set<String> policyIds;
+}
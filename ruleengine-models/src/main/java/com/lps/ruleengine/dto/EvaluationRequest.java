@@ -24,4 +24,12 @@ public class EvaluationRequest {
 
     @Schema(description = "Optional context information")
     private Map<String, Object> context;
+
+    @Builder.Default
+    @Schema(description = "Execution trace detail: NONE, PATH_IDS (ordered rule ids only) or FULL", example = "FULL")
+    private TraceLevel traceLevel = TraceLevel.FULL;
+
+    public enum TraceLevel {
+        NONE, PATH_IDS, FULL
+    }
 }
@@ -1,5 +1,6 @@
 package com.lps.ruleengine.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -28,6 +29,20 @@ public class EvaluationResponse {
     @Schema(description = "Evaluation trace showing which rules were executed")
     private List<ExecutionTrace> executionTrace;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Ordered ids of the rules that were executed; omitted when traceLevel is NONE")
+    private List<String> path;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Rules whose condition this call evaluated; only set for session evaluations, where rules " +
+            "before the first one reading a changed attribute are reused from the previous evaluation")
+    private Integer evaluatedRuleCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Version of the rule base snapshot the evaluated rules and documents were read from; " +
+            "omitted when evaluation failed before a policy or rule was compiled")
+    private Long snapshotVersion;
+
     @Schema(description = "Time when evaluation was performed")
     private LocalDateTime evaluatedAt;
 
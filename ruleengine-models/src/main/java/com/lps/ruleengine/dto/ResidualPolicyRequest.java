@@ -0,0 +1,20 @@
+package com.lps.ruleengine.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to specialize a policy for attribute values that are the same on every evaluation")
+public class ResidualPolicyRequest {
+
+    @NotEmpty(message = "Fixed attributes cannot be empty")
+    @Schema(description = "Attribute values shared by every evaluation of the residual policy",
+            example = "{\"city\": \"Mumbai\", \"product\": \"personal_loan\"}")
+    private Map<String, Object> fixedAttributes;
+}
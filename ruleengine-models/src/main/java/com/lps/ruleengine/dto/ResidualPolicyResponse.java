@@ -0,0 +1,43 @@
+package com.lps.ruleengine.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A policy specialized for fixed attribute values")
+public class ResidualPolicyResponse {
+
+    @Schema(description = "Identifier to evaluate the residual policy with; the same policy and fixed values always yield the same id")
+    private String residualId;
+
+    @Schema(description = "Policy the residual was built from")
+    private String policyId;
+
+    @Schema(description = "Attribute values folded into the residual policy")
+    private Map<String, Object> fixedAttributes;
+
+    @Schema(description = "Versions of the policy, rules and documents the residual was built from")
+    private String versionStamp;
+
+    @Schema(description = "First rule evaluated by the residual policy; null when the fixed values decide the policy")
+    private String rootRuleId;
+
+    @Schema(description = "Rules still evaluated per request")
+    private List<String> remainingRuleIds;
+
+    @Schema(description = "Rules decided by the fixed values and removed from the graph")
+    private List<String> foldedRuleIds;
+
+    @Schema(description = "Decision of the policy when the fixed values alone decide it, otherwise null")
+    private Boolean decidedResult;
+
+    @Schema(description = "Time when the residual policy was built")
+    private LocalDateTime builtAt;
+}
@@ -0,0 +1,52 @@
+package com.lps.ruleengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Binary rule base file used for fast startup")
+public class RuleBaseFileResponse {
+
+    @Schema(description = "Location of the file", example = "./data/rulebase.bin")
+    private String path;
+
+    @Schema(description = "Whether the file is readable and its checksum matches")
+    private Boolean valid;
+
+    @Schema(description = "Why the file cannot be used; only set when it is not valid")
+    private String error;
+
+    @Schema(description = "Version of the file format")
+    private Integer formatVersion;
+
+    @Schema(description = "Change log epoch the file was exported at")
+    private Long changeEpoch;
+
+    @Schema(description = "Whether the database is still at the file's change epoch and content fingerprint, so the "
+            + "next startup would load it")
+    private Boolean current;
+
+    private LocalDateTime createdAt;
+
+    private Integer ruleCount;
+
+    private Integer documentCount;
+
+    private Integer policyCount;
+
+    @Schema(description = "File size in bytes")
+    private Long sizeBytes;
+
+    @Schema(description = "CRC32 of the file body, in hex")
+    private String checksum;
+
+    @Schema(description = "Digest of the ids, versions and update times of the exported entities, in hex")
+    private String contentFingerprint;
+}
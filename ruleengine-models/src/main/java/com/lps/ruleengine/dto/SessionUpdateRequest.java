@@ -0,0 +1,24 @@
+package com.lps.ruleengine.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Attributes an applicant changed since the last evaluation of their session")
+public class SessionUpdateRequest {
+
+    @NotEmpty(message = "Changed attributes cannot be empty")
+    @Schema(description = "New values of the changed attributes; a null value removes the attribute",
+            example = "{\"income\": 42000}")
+    private Map<String, Object> changedAttributes;
+
+    @Builder.Default
+    @Schema(description = "Execution trace detail: NONE, PATH_IDS (ordered rule ids only) or FULL", example = "FULL")
+    private EvaluationRequest.TraceLevel traceLevel = EvaluationRequest.TraceLevel.FULL;
+}
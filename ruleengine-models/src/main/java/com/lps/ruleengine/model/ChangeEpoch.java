@@ -0,0 +1,26 @@
+package com.lps.ruleengine.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Cluster-wide epoch counter. Incrementing it locks the row until the write's transaction commits, so epochs become
+ * visible to other instances in the order they were handed out.
+ */
+@Entity
+@Table(name = "change_epoch")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ChangeEpoch {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "epoch_value", nullable = false)
+    private Long value;
+}
@@ -0,0 +1,62 @@
+package com.lps.ruleengine.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest change of one rule, document or policy, shared by every instance using the database.
+ * Each write moves its entity's row to a new, higher epoch; instances poll for rows above the last epoch they applied.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+    @Index(name = "idx_change_log_epoch", columnList = "epoch")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ChangeLogEntry {
+
+    /**
+     * Entity type and id, e.g. {@code RULE:rule_age_check}.
+     */
+    @Id
+    @Column(name = "change_key")
+    private String changeKey;
+
+    @Column(name = "entity_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private String entityId;
+
+    @Column(name = "epoch", nullable = false)
+    private Long epoch;
+
+    @Column(name = "deleted")
+    private Boolean deleted;
+
+    /**
+     * Instance that made the write.
+     */
+    @Column(name = "origin_node")
+    private String originNode;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public enum EntityType {
+        RULE,
+        DOCUMENT,
+        POLICY
+    }
+
+    public static String keyOf(EntityType entityType, String entityId) {
+        return entityType + ":" + entityId;
+    }
+}
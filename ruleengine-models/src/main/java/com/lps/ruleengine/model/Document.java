@@ -2,6 +2,8 @@ package com.lps.ruleengine.model;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -20,6 +22,12 @@ import java.util.List;
 @ToString
 public class Document {
 
+    // Shared, thread-safe JSON codecs; building an ObjectMapper per call is far more expensive than decoding
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader LIST_READER = MAPPER.readerFor(List.class);
+    private static final ObjectReader OBJECT_READER = MAPPER.readerFor(Object.class);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
     @Id
     @Column(name = "document_id")
     private String documentId;
@@ -39,9 +47,11 @@ public class Document {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by every update; a save carrying an older version fails instead of overwriting a concurrent write.
+    // Null until first saved, which marks the entity as new so it is persisted rather than merged; starts at 0
+    @Version
     @Column(name = "version")
-    @Builder.Default
-    private Integer version = 1;
+    private Integer version;
 
     public enum ValueType {
         STRING,
@@ -62,14 +72,8 @@ public class Document {
                 case INTEGER -> Integer.parseInt(documentValue);
                 case DOUBLE -> Double.parseDouble(documentValue);
                 case BOOLEAN -> Boolean.parseBoolean(documentValue);
-                case LIST -> {
-                    ObjectMapper mapper = new ObjectMapper();
-                    yield mapper.readValue(documentValue, List.class);
-                }
-                case OBJECT -> {
-                    ObjectMapper mapper = new ObjectMapper();
-                    yield mapper.readValue(documentValue, Object.class);
-                }
+                case LIST -> LIST_READER.readValue(documentValue);
+                case OBJECT -> OBJECT_READER.readValue(documentValue);
             };
         } catch (JsonProcessingException | NumberFormatException e) {
             throw new RuntimeException("Failed to convert document value: " + e.getMessage(), e);
@@ -97,16 +101,14 @@ public class Document {
             type = ValueType.BOOLEAN;
         } else if (value instanceof List) {
             try {
-                ObjectMapper mapper = new ObjectMapper();
-                stringValue = mapper.writeValueAsString(value);
+                stringValue = WRITER.writeValueAsString(value);
                 type = ValueType.LIST;
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Failed to serialize list value", e);
             }
         } else {
             try {
-                ObjectMapper mapper = new ObjectMapper();
-                stringValue = mapper.writeValueAsString(value);
+                stringValue = WRITER.writeValueAsString(value);
                 type = ValueType.OBJECT;
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Failed to serialize object value", e);
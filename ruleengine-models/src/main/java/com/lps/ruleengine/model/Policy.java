@@ -55,9 +55,11 @@ public class Policy {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by every update; a save carrying an older version fails instead of overwriting a concurrent write.
+    // Null until first saved, which marks the entity as new so it is persisted rather than merged; starts at 0
+    @Version
     @Column(name = "version")
-    @Builder.Default
-    private Integer version = 1;
+    private Integer version;
 
     // Business helper methods
     public boolean containsRule(String ruleId) {
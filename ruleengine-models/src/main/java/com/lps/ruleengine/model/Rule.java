@@ -9,7 +9,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rules")
+@Table(name = "rules", indexes = {
+    @Index(name = "idx_rules_reference_id", columnList = "reference_id"),
+    @Index(name = "idx_rules_on_true_value", columnList = "on_true_value"),
+    @Index(name = "idx_rules_on_false_value", columnList = "on_false_value")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -57,9 +61,11 @@ public class Rule {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by every update; a save carrying an older version fails instead of overwriting a concurrent write.
+    // Null until first saved, which marks the entity as new so it is persisted rather than merged; starts at 0
+    @Version
     @Column(name = "version")
-    @Builder.Default
-    private Integer version = 1;
+    private Integer version;
 
     public enum OutcomeType {
         RULE,   // Points to another rule
@@ -0,0 +1,16 @@
+package com.lps.ruleengine.repository;
+
+import com.lps.ruleengine.model.ChangeEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeEpochRepository extends JpaRepository<ChangeEpoch, String> {
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ChangeEpoch e SET e.value = e.value + 1 WHERE e.name = :name")
+    int increment(@Param("name") String name);
+}
@@ -0,0 +1,17 @@
+package com.lps.ruleengine.repository;
+
+import com.lps.ruleengine.model.ChangeLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, String> {
+
+    List<ChangeLogEntry> findByEpochGreaterThanOrderByEpochAsc(Long epoch);
+
+    @Query("SELECT COALESCE(MAX(c.epoch), 0) FROM ChangeLogEntry c")
+    long findMaxEpoch();
+}
@@ -21,4 +21,7 @@ public interface DocumentRepository extends JpaRepository<Document, String> {
     List<Document> findTop10ByOrderByCreatedAtDesc();
 
     boolean existsByDocumentId(String documentId);
+
+    @Query("SELECT d.documentId AS id, d.version AS version, d.updatedAt AS updatedAt FROM Document d")
+    List<EntityStamp> findAllStamps();
 }
@@ -0,0 +1,15 @@
+package com.lps.ruleengine.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity and revision of a stored rule, document or policy, read without loading the entity.
+ */
+public interface EntityStamp {
+
+    String getId();
+
+    Integer getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
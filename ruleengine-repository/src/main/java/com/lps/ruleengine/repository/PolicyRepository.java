@@ -34,4 +34,7 @@ public interface PolicyRepository extends JpaRepository<Policy, String> {
     long countActivePolicies();
 
     List<Policy> findByOrderByPriorityDesc();
+
+    @Query("SELECT p.policyId AS id, p.version AS version, p.updatedAt AS updatedAt FROM Policy p")
+    List<EntityStamp> findAllStamps();
 }
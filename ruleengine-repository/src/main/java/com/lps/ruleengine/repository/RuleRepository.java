@@ -31,4 +31,7 @@ public interface RuleRepository extends JpaRepository<Rule, String> {
 
     @Query("SELECT COUNT(r) FROM Rule r WHERE r.isActive = true")
     long countActiveRules();
+
+    @Query("SELECT r.ruleId AS id, r.version AS version, r.updatedAt AS updatedAt FROM Rule r")
+    List<EntityStamp> findAllStamps();
 }
@@ -0,0 +1,28 @@
+package com.lps.ruleengine.adaptor;
+
+import com.lps.ruleengine.dto.DependentsResponse;
+import com.lps.ruleengine.engine.DependencyIndex;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptor class for DependentsResponse builder patterns.
+ */
+@Component
+public class DependencyAdaptor {
+
+    /**
+     * Creates a DependentsResponse listing the dependents of a document or rule.
+     *
+     * @param id the document or rule identifier
+     * @param dependents the dependents from the dependency index
+     * @return DependentsResponse built from the dependents
+     */
+    public DependentsResponse createDependentsResponse(String id, DependencyIndex.Dependents dependents) {
+        return DependentsResponse.builder()
+                .id(id)
+                .directRuleIds(dependents.directRuleIds())
+                .ruleIds(dependents.ruleIds())
+                .policyIds(dependents.policyIds())
+                .build();
+    }
+}
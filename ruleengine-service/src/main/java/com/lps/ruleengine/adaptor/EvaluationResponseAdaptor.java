@@ -35,6 +35,44 @@ public class EvaluationResponseAdaptor {
                 .build();
     }
 
+    /**
+     * Creates a successful EvaluationResponse with the ordered ids of the executed rules.
+     *
+     * @param result the evaluation result
+     * @param userId the user ID
+     * @param evaluatedId the evaluated entity ID (rule/policy)
+     * @param evaluationType the type of evaluation (RULE/POLICY)
+     * @param executionTrace the execution trace
+     * @param path the executed rule ids, or null when not traced
+     * @return EvaluationResponse entity built from parameters
+     */
+    public EvaluationResponse createSuccessResponse(boolean result, String userId, String evaluatedId,
+                                                   String evaluationType, List<EvaluationResponse.ExecutionTrace> executionTrace,
+                                                   List<String> path) {
+        EvaluationResponse response = createSuccessResponse(result, userId, evaluatedId, evaluationType, executionTrace);
+        response.setPath(path);
+        return response;
+    }
+
+    /**
+     * Creates an error EvaluationResponse with the ordered ids of the rules executed before the failure.
+     *
+     * @param userId the user ID
+     * @param evaluatedId the evaluated entity ID (rule/policy)
+     * @param evaluationType the type of evaluation (RULE/POLICY)
+     * @param executionTrace the execution trace
+     * @param path the executed rule ids, or null when not traced
+     * @param errorMessage the error message
+     * @return EvaluationResponse entity built from parameters
+     */
+    public EvaluationResponse createErrorResponse(String userId, String evaluatedId,
+                                                 String evaluationType, List<EvaluationResponse.ExecutionTrace> executionTrace,
+                                                 List<String> path, String errorMessage) {
+        EvaluationResponse response = createErrorResponse(userId, evaluatedId, evaluationType, executionTrace, errorMessage);
+        response.setPath(path);
+        return response;
+    }
+
     /**
      * Creates an error EvaluationResponse.
      *
@@ -0,0 +1,32 @@
+package com.lps.ruleengine.adaptor;
+
+import com.lps.ruleengine.dto.ResidualPolicyResponse;
+import com.lps.ruleengine.engine.ResidualPolicy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptor class for ResidualPolicyResponse builder patterns.
+ */
+@Component
+public class ResidualPolicyAdaptor {
+
+    /**
+     * Creates a ResidualPolicyResponse describing a residual policy.
+     *
+     * @param residual the residual policy
+     * @return ResidualPolicyResponse built from the residual
+     */
+    public ResidualPolicyResponse createResidualPolicyResponse(ResidualPolicy residual) {
+        return ResidualPolicyResponse.builder()
+                .residualId(residual.getResidualId())
+                .policyId(residual.getPolicyId())
+                .fixedAttributes(residual.getFixedAttributes())
+                .versionStamp(residual.getVersionStamp())
+                .rootRuleId(residual.isDecided() ? null : residual.getGraph().getRoot().getRuleId())
+                .remainingRuleIds(residual.getRemainingRuleIds())
+                .foldedRuleIds(residual.getFoldedRuleIds())
+                .decidedResult(residual.getDecidedResult())
+                .builtAt(residual.getBuiltAt())
+                .build();
+    }
+}
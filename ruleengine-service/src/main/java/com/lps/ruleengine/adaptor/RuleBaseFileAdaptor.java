@@ -0,0 +1,59 @@
+package com.lps.ruleengine.adaptor;
+
+import com.lps.ruleengine.dto.RuleBaseFileResponse;
+import com.lps.ruleengine.engine.RuleBaseFile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Adaptor class for RuleBaseFileResponse builder patterns.
+ */
+@Component
+public class RuleBaseFileAdaptor {
+
+    /**
+     * Creates a RuleBaseFileResponse describing a valid rule base file.
+     *
+     * @param path the file location
+     * @param header the file's header
+     * @param current whether the file holds what the database holds now
+     * @return RuleBaseFileResponse built from the header
+     */
+    public RuleBaseFileResponse createRuleBaseFileResponse(Path path, RuleBaseFile.Header header, boolean current) {
+        return RuleBaseFileResponse.builder()
+                .path(path.toString())
+                .valid(true)
+                .formatVersion(header.formatVersion())
+                .changeEpoch(header.changeEpoch())
+                .current(current)
+                .createdAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(header.createdAtMillis()),
+                        ZoneId.systemDefault()))
+                .ruleCount(header.ruleCount())
+                .documentCount(header.documentCount())
+                .policyCount(header.policyCount())
+                .sizeBytes(header.fileLength())
+                .checksum(String.format("%08x", header.checksum()))
+                .contentFingerprint(header.contentFingerprint())
+                .build();
+    }
+
+    /**
+     * Creates a RuleBaseFileResponse for a file that cannot be used.
+     *
+     * @param path the file location
+     * @param error why the file cannot be used
+     * @return RuleBaseFileResponse marked invalid
+     */
+    public RuleBaseFileResponse createInvalidRuleBaseFileResponse(Path path, String error) {
+        return RuleBaseFileResponse.builder()
+                .path(path.toString())
+                .valid(false)
+                .current(false)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.ParsedExpressionCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit and miss counts and hit ratios of the engine's caches, read from the caches' own counters when the registry
+ * is scraped. Bound by the registry once the caches exist, apart from {@link EvaluationMetrics}: the compiler records
+ * rule outcomes through that one, so it cannot depend on the compiled policy registry in turn.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
+    private final DecisionCache decisionCache;
+    private final ReferenceValueCache referenceValueCache;
+    private final ParsedExpressionCache parsedExpressionCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "compiled-policies", compiledPolicyRegistry, CompiledPolicyRegistry::getHitCount,
+                CompiledPolicyRegistry::getMissCount);
+        bind(registry, "decisions", decisionCache, DecisionCache::getHitCount, DecisionCache::getMissCount);
+        bind(registry, "reference-values", referenceValueCache, ReferenceValueCache::getHitCount,
+                ReferenceValueCache::getMissCount);
+        bind(registry, "parsed-expressions", parsedExpressionCache, ParsedExpressionCache::getHitCount,
+                ParsedExpressionCache::getMissCount);
+    }
+
+    private static <T> void bind(MeterRegistry registry, String cache, T target, ToLongFunction<T> hits,
+                                 ToLongFunction<T> misses) {
+        FunctionCounter.builder("ruleengine.cache.requests", target, value -> hits.applyAsLong(value))
+                .description("Cache lookups by result")
+                .tag("cache", cache)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ruleengine.cache.requests", target, value -> misses.applyAsLong(value))
+                .description("Cache lookups by result")
+                .tag("cache", cache)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("ruleengine.cache.hit.ratio", target, value -> {
+                    long hitCount = hits.applyAsLong(value);
+                    long total = hitCount + misses.applyAsLong(value);
+                    return total == 0 ? 0.0 : (double) hitCount / total;
+                })
+                .description("Share of cache lookups served from the cache since startup")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.ChangeEpoch;
+import com.lps.ruleengine.model.ChangeLogEntry;
+import com.lps.ruleengine.model.ChangeLogEntry.EntityType;
+import com.lps.ruleengine.repository.ChangeEpochRepository;
+import com.lps.ruleengine.repository.ChangeLogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The change log shared by every instance using the same database: one row per rule, document and policy, holding
+ * the epoch of its latest write. Epochs come from a single counter row that each write increments in the same
+ * transaction as the entity write and its log row, so writers are serialized on it and a reader that sees epoch N has
+ * also seen every epoch below it.
+ */
+@Component
+@Slf4j
+public class ChangeLog {
+
+    private static final String COUNTER = "global";
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeEpochRepository changeEpochRepository;
+
+    /**
+     * Identifies this instance in the rows it writes.
+     */
+    @Getter
+    private final String nodeId;
+
+    public ChangeLog(ChangeLogRepository changeLogRepository, ChangeEpochRepository changeEpochRepository,
+                     @Value("${ruleengine.cluster.node-id:${random.uuid}}") String nodeId) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeEpochRepository = changeEpochRepository;
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    void createCounter() {
+        if (changeEpochRepository.existsById(COUNTER)) {
+            return;
+        }
+        try {
+            changeEpochRepository.save(ChangeEpoch.builder().name(COUNTER).value(0L).build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Change epoch counter was created by another instance");
+        }
+    }
+
+    /**
+     * Performs an entity write and records it under the next epoch, in one transaction. The epoch counter is
+     * incremented before the entity is written, so its row lock serializes writers: concurrent writes commit in epoch
+     * order, the latest log row of an entity always names the write the database holds, and a write that fails
+     * records nothing.
+     *
+     * @param entityType the kind of entity written
+     * @param entityId the entity identifier
+     * @param deleted whether the entity is deleted
+     * @param write saves or deletes the entity
+     * @return what the write returned
+     */
+    @Transactional
+    public <T> T write(EntityType entityType, String entityId, boolean deleted, Supplier<T> write) {
+        changeEpochRepository.increment(COUNTER);
+        long epoch = changeEpochRepository.findById(COUNTER)
+                .orElseThrow(() -> new RuntimeException("Change epoch counter missing"))
+                .getValue();
+        T written = write.get();
+        changeLogRepository.save(ChangeLogEntry.builder()
+                .changeKey(ChangeLogEntry.keyOf(entityType, entityId))
+                .entityType(entityType)
+                .entityId(entityId)
+                .epoch(epoch)
+                .deleted(deleted)
+                .originNode(nodeId)
+                .changedAt(LocalDateTime.now())
+                .build());
+        log.debug("Recorded change of {} {} at epoch {}", entityType, entityId, epoch);
+        return written;
+    }
+
+    /**
+     * Returns the entities written after an epoch, oldest first; an entity written several times appears once, with
+     * its latest epoch.
+     *
+     * @param epoch the last epoch already applied
+     * @return the changes
+     */
+    public List<ChangeLogEntry> changesAfter(long epoch) {
+        return changeLogRepository.findByEpochGreaterThanOrderByEpochAsc(epoch);
+    }
+
+    /**
+     * @return the epoch of the latest committed write, 0 if nothing was written yet
+     */
+    public long currentEpoch() {
+        return changeLogRepository.findMaxEpoch();
+    }
+}
@@ -0,0 +1,59 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.ChangeLogEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps this instance coherent with writes made by other instances sharing the database, by polling the
+ * {@link ChangeLog} for epochs above the last one applied. Nothing is polled until the rule base is first loaded;
+ * everything cached in memory derives from it, and the load itself reads the latest state.
+ */
+@Component
+@ConditionalOnProperty(name = "ruleengine.cluster.change-log.polling-enabled", havingValue = "true",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeLogPoller {
+
+    private final ChangeLog changeLog;
+    private final ChangePublisher changePublisher;
+    private final RuleBase ruleBase;
+
+    // Only touched by the scheduler thread; -1 until the rule base is loaded
+    private long appliedEpoch = -1;
+
+    @Scheduled(fixedDelayString = "${ruleengine.cluster.change-log.poll-interval-ms:1000}")
+    public void poll() {
+        if (appliedEpoch < 0) {
+            if (!ruleBase.isLoaded()) {
+                return;
+            }
+            appliedEpoch = ruleBase.getLoadedEpoch();
+        }
+
+        List<ChangeLogEntry> changes;
+        try {
+            changes = changeLog.changesAfter(appliedEpoch);
+        } catch (Exception e) {
+            log.warn("Polling the change log failed: {}", e.getMessage());
+            return;
+        }
+        for (ChangeLogEntry change : changes) {
+            // Writes made here are only checked against the database; they were applied when they were made
+            try {
+                changePublisher.applyLogged(change);
+            } catch (RuntimeException e) {
+                // Retrying would fail the same way on every poll and hold back every later change
+                log.error("Failed to apply {} {} at epoch {}, skipping it: {}", change.getEntityType(),
+                        change.getEntityId(), change.getEpoch(), e.getMessage(), e);
+            }
+            appliedEpoch = change.getEpoch();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.ParsedExpressionCache;
+import com.lps.ruleengine.model.ChangeLogEntry;
+import com.lps.ruleengine.model.ChangeLogEntry.EntityType;
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.repository.DocumentRepository;
+import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.repository.RuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Persists rule, document and policy writes and applies them to this instance's in-memory state: the rule base
+ * snapshot, dependency index, parsed expressions, decoded documents and compiled policies. Each write is recorded in
+ * the shared {@link ChangeLog} in the same transaction, and applied here only once that transaction committed; writes
+ * made by other instances arrive through {@link ChangeLogPoller}. Entities are versioned, so a save based on a stale
+ * read fails instead of overwriting a concurrent write.
+ * Changes are applied one at a time, so a remote change read from the database cannot overtake a local one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangePublisher {
+
+    private final RuleBase ruleBase;
+    private final DependencyIndex dependencyIndex;
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
+    private final ParsedExpressionCache parsedExpressionCache;
+    private final ReferenceValueCache referenceValueCache;
+    private final RuleStatistics ruleStatistics;
+    private final ChangeLog changeLog;
+    private final RuleRepository ruleRepository;
+    private final DocumentRepository documentRepository;
+    private final PolicyRepository policyRepository;
+
+    public Rule saveRule(Rule rule) {
+        Rule saved = write(EntityType.RULE, rule.getRuleId(), false, () -> ruleRepository.save(rule));
+        applyRule(saved.getRuleId(), saved);
+        return saved;
+    }
+
+    public void deleteRule(String ruleId) {
+        write(EntityType.RULE, ruleId, true, () -> {
+            ruleRepository.deleteById(ruleId);
+            return null;
+        });
+        applyRule(ruleId, null);
+    }
+
+    public Document saveDocument(Document document) {
+        Document saved = write(EntityType.DOCUMENT, document.getDocumentId(), false,
+                () -> documentRepository.save(document));
+        applyDocument(saved.getDocumentId(), saved);
+        return saved;
+    }
+
+    public void deleteDocument(String documentId) {
+        write(EntityType.DOCUMENT, documentId, true, () -> {
+            documentRepository.deleteById(documentId);
+            return null;
+        });
+        applyDocument(documentId, null);
+    }
+
+    public Policy savePolicy(Policy policy) {
+        Policy saved = write(EntityType.POLICY, policy.getPolicyId(), false, () -> policyRepository.save(policy));
+        applyPolicy(saved.getPolicyId(), saved);
+        return saved;
+    }
+
+    public void deletePolicy(String policyId) {
+        write(EntityType.POLICY, policyId, true, () -> {
+            policyRepository.deleteById(policyId);
+            return null;
+        });
+        applyPolicy(policyId, null);
+    }
+
+    private <T> T write(EntityType entityType, String entityId, boolean deleted, Supplier<T> persist) {
+        try {
+            return changeLog.write(entityType, entityId, deleted, persist);
+        } catch (OptimisticLockingFailureException e) {
+            String kind = switch (entityType) {
+                case RULE -> "Rule";
+                case DOCUMENT -> "Document";
+                case POLICY -> "Policy";
+            };
+            throw new RuntimeException(kind + " was changed concurrently, reload it and try again: " + entityId, e);
+        }
+    }
+
+    /**
+     * Applies a write recorded in the change log, reading the entity's current state from the database.
+     * Writes made by this instance were applied when they were made, so they are applied again only when the entity
+     * held in memory is not the version in the database, e.g. when two local writes of it were applied out of order.
+     *
+     * @param change the change log row of the write
+     */
+    public synchronized void applyLogged(ChangeLogEntry change) {
+        String id = change.getEntityId();
+        boolean local = changeLog.getNodeId().equals(change.getOriginNode());
+        RuleBaseSnapshot held = ruleBase.current();
+        switch (change.getEntityType()) {
+            case RULE -> {
+                Rule rule = ruleRepository.findByRuleId(id).orElse(null);
+                if (!local || !sameVersion(held.getRule(id), rule, Rule::getVersion)) {
+                    logApplied(change, local);
+                    applyRule(id, rule);
+                }
+            }
+            case DOCUMENT -> {
+                Document document = documentRepository.findByDocumentId(id).orElse(null);
+                if (!local || !sameVersion(held.getDocument(id), document, Document::getVersion)) {
+                    logApplied(change, local);
+                    applyDocument(id, document);
+                }
+            }
+            case POLICY -> {
+                Policy policy = policyRepository.findByPolicyId(id).orElse(null);
+                if (!local || !sameVersion(held.getPolicy(id), policy, Policy::getVersion)) {
+                    logApplied(change, local);
+                    applyPolicy(id, policy);
+                }
+            }
+        }
+    }
+
+    private static <T> boolean sameVersion(T held, T stored, Function<T, Integer> version) {
+        return held == null
+                ? stored == null
+                : stored != null && Objects.equals(version.apply(held), version.apply(stored));
+    }
+
+    private static void logApplied(ChangeLogEntry change, boolean local) {
+        if (local) {
+            log.info("Reapplying {} {} written here at epoch {}, memory held another version", change.getEntityType(),
+                    change.getEntityId(), change.getEpoch());
+        } else {
+            log.info("Applying {} {} changed by instance {} at epoch {}", change.getEntityType(),
+                    change.getEntityId(), change.getOriginNode(), change.getEpoch());
+        }
+    }
+
+    /**
+     * @param rule the saved rule, or null if it was deleted
+     */
+    private synchronized void applyRule(String ruleId, Rule rule) {
+        Rule previous = ruleBase.current().getRule(ruleId);
+        if (rule != null) {
+            parsedExpressionCache.put(rule);
+            ruleBase.ruleSaved(rule);
+            dependencyIndex.ruleSaved(rule);
+        } else {
+            parsedExpressionCache.evict(ruleId);
+            ruleBase.ruleDeleted(ruleId);
+            dependencyIndex.ruleDeleted(ruleId);
+        }
+        // Outcomes of the old condition say nothing about a new one
+        if (previous != null && (rule == null || !Objects.equals(previous.getExpression(), rule.getExpression()))) {
+            ruleStatistics.reset(ruleId);
+        }
+        compiledPolicyRegistry.invalidateRule(ruleId);
+    }
+
+    private synchronized void applyDocument(String documentId, Document document) {
+        if (document != null) {
+            ruleBase.documentSaved(document);
+        } else {
+            ruleBase.documentDeleted(documentId);
+        }
+        referenceValueCache.invalidate(documentId);
+        compiledPolicyRegistry.invalidateDocument(documentId);
+    }
+
+    private synchronized void applyPolicy(String policyId, Policy policy) {
+        if (policy != null) {
+            ruleBase.policySaved(policy);
+            dependencyIndex.policySaved(policy);
+        } else {
+            ruleBase.policyDeleted(policyId);
+            dependencyIndex.policyDeleted(policyId);
+        }
+        compiledPolicyRegistry.invalidatePolicy(policyId);
+    }
+}
@@ -0,0 +1,71 @@
+package com.lps.ruleengine.engine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiled, evaluation-ready form of an active {@link com.lps.ruleengine.model.Policy}.
+ */
+@Getter
+public final class CompiledPolicy {
+
+    private final String policyId;
+    private final String policyName;
+    private final Integer version;
+    private final DecisionGraph graph;
+
+    /**
+     * Versions of the policy and of every rule and document it was compiled from.
+     */
+    private final String versionStamp;
+
+    // Tiering state: evaluations are counted until the specialized graph is published
+    @Getter(AccessLevel.NONE)
+    private final LongAdder evaluationCount = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<DecisionGraph> specializedGraph = new AtomicReference<>();
+
+    CompiledPolicy(String policyId, String policyName, Integer version, DecisionGraph graph, String versionStamp) {
+        this.policyId = policyId;
+        this.policyName = policyName;
+        this.version = version;
+        this.graph = graph;
+        this.versionStamp = versionStamp;
+    }
+
+    /**
+     * Counts an interpreted evaluation.
+     *
+     * @return the number of evaluations recorded so far
+     */
+    long recordEvaluation() {
+        evaluationCount.increment();
+        return evaluationCount.sum();
+    }
+
+    DecisionGraph getSpecializedGraph() {
+        return specializedGraph.get();
+    }
+
+    /**
+     * Publishes the specialized graph unless another thread already did.
+     */
+    DecisionGraph promote(DecisionGraph specialized) {
+        return specializedGraph.compareAndSet(null, specialized) ? specialized : specializedGraph.get();
+    }
+
+    public boolean isSpecialized() {
+        return specializedGraph.get() != null;
+    }
+
+    public long getSnapshotVersion() {
+        return graph.getSnapshotVersion();
+    }
+
+    public String getRootRuleId() {
+        return graph.getRoot().getRuleId();
+    }
+}
@@ -0,0 +1,249 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.model.Policy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds compiled policies and rule graphs so evaluations run without persistence calls. Each entry is compiled from
+ * a single {@link RuleBaseSnapshot}, so its decisions never mix rules or documents from before and after a write.
+ * Entries are compiled lazily on first use. A rule, policy or document write drops only the entries the
+ * {@link DependencyIndex} says can depend on it; the rest stay compiled.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompiledPolicyRegistry {
+
+    private final RuleBase ruleBase;
+    private final PolicyCompiler policyCompiler;
+    private final DecisionCache decisionCache;
+    private final DependencyIndex dependencyIndex;
+
+    private final Map<String, CompiledPolicy> policies = new ConcurrentHashMap<>();
+    private final Map<String, DecisionGraph> ruleGraphs = new ConcurrentHashMap<>();
+    private final AtomicReference<PortfolioGraph> portfolio = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Bumped on every invalidation so that a compilation racing with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the compiled form of an active policy, compiling it from the current rule base snapshot on first use.
+     *
+     * @param policyId the policy identifier
+     * @return the compiled policy
+     * @throws RuntimeException if policy not found or inactive
+     */
+    public CompiledPolicy getPolicy(String policyId) {
+        CompiledPolicy compiled = policies.get(policyId);
+        if (compiled != null) {
+            hits.increment();
+            return compiled;
+        }
+        misses.increment();
+
+        long observedGeneration = generation.get();
+        compiled = compile(ruleBase.current(), policyId);
+        if (generation.get() == observedGeneration) {
+            CompiledPolicy existing = policies.putIfAbsent(policyId, compiled);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Number of policy lookups served compiled.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of policy lookups that had to compile the policy.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Compiles every active policy among the given ids that is not cached yet, all from the same snapshot.
+     * Missing and inactive policies are skipped; {@link #getPolicy(String)} reports them when they are requested.
+     *
+     * @param policyIds the policy identifiers
+     */
+    public void preload(Collection<String> policyIds) {
+        List<String> missing = policyIds.stream()
+                .filter(policyId -> !policies.containsKey(policyId))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long observedGeneration = generation.get();
+        RuleBaseSnapshot snapshot = ruleBase.current();
+        for (String policyId : missing) {
+            Policy policy = snapshot.getPolicy(policyId);
+            if (policy == null || !policy.getIsActive()) {
+                continue;
+            }
+            CompiledPolicy compiled = policyCompiler.compilePolicy(policy, snapshot);
+            if (generation.get() == observedGeneration) {
+                policies.putIfAbsent(policyId, compiled);
+            }
+        }
+    }
+
+    /**
+     * Returns every active policy merged into one shared graph, highest priority first, building it on first use.
+     *
+     * @return the portfolio graph
+     */
+    public PortfolioGraph getPortfolio() {
+        PortfolioGraph cached = portfolio.get();
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        RuleBaseSnapshot snapshot = ruleBase.current();
+        List<Policy> activePolicies = snapshot.getPolicies().stream()
+                .filter(Policy::getIsActive)
+                .sorted(Comparator.comparing(Policy::getPriority, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Policy::getPolicyId))
+                .toList();
+        preload(activePolicies.stream().map(Policy::getPolicyId).toList());
+
+        List<CompiledPolicy> compiled = new ArrayList<>(activePolicies.size());
+        for (Policy policy : activePolicies) {
+            compiled.add(getPolicy(policy.getPolicyId()));
+        }
+
+        if (generation.get() != observedGeneration) {
+            // A write landed while cached policies were collected, so they may straddle it; the portfolio shares
+            // nodes by rule id across policies and must not mix rule versions, so compile them all from one snapshot
+            compiled.clear();
+            for (Policy policy : activePolicies) {
+                compiled.add(policyCompiler.compilePolicy(policy, snapshot));
+            }
+        }
+
+        PortfolioGraph built = PortfolioGraph.build(compiled);
+        log.debug("Built portfolio of {} policies with {} distinct rules", compiled.size(), built.getNodeCount());
+        if (generation.get() == observedGeneration) {
+            portfolio.compareAndSet(null, built);
+        }
+        return built;
+    }
+
+    /**
+     * Returns the compiled graph rooted at the given rule, compiling it on first use.
+     *
+     * @param ruleId the root rule identifier
+     * @return the compiled graph
+     */
+    public DecisionGraph getRuleGraph(String ruleId) {
+        DecisionGraph graph = ruleGraphs.get(ruleId);
+        if (graph != null) {
+            return graph;
+        }
+
+        long observedGeneration = generation.get();
+        graph = policyCompiler.compileGraph(ruleId, ruleBase.current());
+        if (generation.get() == observedGeneration) {
+            DecisionGraph existing = ruleGraphs.putIfAbsent(ruleId, graph);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Drops the entries that can depend on a rule: policies and rule graphs from which it is reachable, and the rule's
+     * own graph. Called after a rule is created, updated, activated, deactivated or deleted.
+     *
+     * @param ruleId the written rule
+     */
+    public void invalidateRule(String ruleId) {
+        DependencyIndex.Dependents dependents = dependencyIndex.ofRule(ruleId);
+        Set<String> ruleIds = new HashSet<>(dependents.ruleIds());
+        ruleIds.add(ruleId);
+        invalidate(ruleIds, dependents.policyIds());
+    }
+
+    /**
+     * Drops the entries whose rules reference a document. Called after a document is created, updated or deleted.
+     *
+     * @param documentId the written document
+     */
+    public void invalidateDocument(String documentId) {
+        DependencyIndex.Dependents dependents = dependencyIndex.ofDocument(documentId);
+        invalidate(dependents.ruleIds(), dependents.policyIds());
+    }
+
+    /**
+     * Drops a policy's compiled form and the portfolio. Called after a policy is created, updated, activated,
+     * deactivated or deleted.
+     *
+     * @param policyId the written policy
+     */
+    public void invalidatePolicy(String policyId) {
+        invalidate(Set.of(), Set.of(policyId));
+    }
+
+    private CompiledPolicy compile(RuleBaseSnapshot snapshot, String policyId) {
+        Policy policy = snapshot.getPolicy(policyId);
+        if (policy == null) {
+            throw new EvaluationException(ErrorCause.POLICY_NOT_FOUND, "Policy not found: " + policyId);
+        }
+        if (!policy.getIsActive()) {
+            throw new EvaluationException(ErrorCause.POLICY_INACTIVE, "Policy is inactive: " + policyId);
+        }
+        return policyCompiler.compilePolicy(policy, snapshot);
+    }
+
+    private void invalidate(Collection<String> ruleIds, Collection<String> policyIds) {
+        // Also keeps compilations of unaffected entries in flight from being cached; they are simply compiled again
+        generation.incrementAndGet();
+        ruleIds.forEach(ruleGraphs::remove);
+        if (!policyIds.isEmpty()) {
+            policyIds.forEach(policies::remove);
+            portfolio.set(null);
+            decisionCache.invalidate(policyIds);
+        }
+        log.debug("Invalidated {} rule graphs and policies {}", ruleIds.size(), policyIds);
+    }
+
+    /**
+     * Drops every compiled entry.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        policies.clear();
+        ruleGraphs.clear();
+        portfolio.set(null);
+        // Version stamps already keep stale decisions from matching; clearing also covers a rule or document
+        // deleted and re-created at the same version
+        decisionCache.clear();
+        log.debug("Invalidated compiled policies and rule graphs");
+    }
+}
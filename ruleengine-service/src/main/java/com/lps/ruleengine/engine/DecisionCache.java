@@ -0,0 +1,221 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional memo of policy decisions for repeated evaluations with identical inputs.
+ * Entries are keyed by policy id, the version stamp of the compiled policy and the values of only the attributes
+ * its rules read, so unrelated request fields do not defeat the cache and any rule, policy or document write
+ * produces new keys. Bounded by size (least-recently-used eviction) and time to live; disabled by default.
+ *
+ * <p>Entries are split by key hash over up to {@value #MAX_SEGMENTS} segments, each an access-ordered map under its
+ * own lock, so concurrent evaluations only contend when their keys fall into the same segment. Each segment holds
+ * its share of {@code max-entries} and evicts its own least recently used entry, so eviction order is exact within
+ * a segment and approximate across the cache.</p>
+ */
+@Component
+@Slf4j
+public class DecisionCache {
+
+    /**
+     * Identity of a decision: everything the outcome and its trace depend on.
+     */
+    public record Key(String policyId, String versionStamp, TraceLevel traceLevel, List<Object> attributeValues) {
+    }
+
+    private record Entry(EvaluationResponse response, long expiresAtNanos) {
+    }
+
+    /**
+     * One lock's share of the entries; eviction happens per segment.
+     */
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final int MAX_SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DecisionCache(@Value("${ruleengine.cache.decisions.enabled:false}") boolean enabled,
+                         @Value("${ruleengine.cache.decisions.max-entries:10000}") int maxEntries,
+                         @Value("${ruleengine.cache.decisions.ttl-seconds:60}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        // A power of two no larger than the bound, so every segment holds at least one entry
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxEntries)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // Spread the remainder so the capacities add up to exactly max-entries
+            segments[i] = new Segment(maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds the cache key of an evaluation
+     * @param policy The compiled policy
+     * @param userAttributes The request attributes; only those read by the policy are part of the key
+     * @param traceLevel The requested trace detail
+     * @return The key, or null when the cache is disabled
+     */
+    public Key keyFor(CompiledPolicy policy, Map<String, Object> userAttributes, TraceLevel traceLevel) {
+        if (!enabled) {
+            return null;
+        }
+        List<String> attributes = policy.getGraph().getAttributes();
+        List<Object> values = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            values.add(userAttributes.get(attribute));
+        }
+        return new Key(policy.getPolicyId(), policy.getVersionStamp(), traceLevel != null ? traceLevel : TraceLevel.FULL,
+                values);
+    }
+
+    /**
+     * Returns a memoized decision
+     * @param key The key from {@link #keyFor}, may be null
+     * @return The cached response (with the user and time of the original evaluation), or null on a miss
+     */
+    public EvaluationResponse get(Key key) {
+        if (key == null) {
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() < 0) {
+                segment.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response();
+    }
+
+    /**
+     * Memoizes a decision; failed evaluations are not cached
+     * @param key The key from {@link #keyFor}, may be null
+     * @param response The evaluation response
+     */
+    public void put(Key key, EvaluationResponse response) {
+        if (key == null || response.getErrorMessage() != null) {
+            return;
+        }
+        Entry entry = new Entry(response, System.nanoTime() + ttlNanos);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * Drops the memoized decisions of the given policies. Called after a write the policies depend on; version stamps
+     * already keep stale decisions from matching, this also covers a rule or document deleted and re-created at the
+     * same version.
+     *
+     * @param policyIds The affected policies
+     */
+    public void invalidate(Collection<String> policyIds) {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(key -> policyIds.contains(key.policyId()));
+            }
+        }
+    }
+
+    /**
+     * Drops every memoized decision.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        log.debug("Cleared decision cache");
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * @return Number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that found no valid decision
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Hit, miss and eviction counts and the current size
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+}
@@ -0,0 +1,126 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.AttributeFrame;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable graph of compiled rules reachable from a root rule.
+ * Every attribute read by a single-attribute condition is given a slot, so a request's attributes are
+ * looked up once into an {@link AttributeFrame} instead of once per rule.
+ */
+@Getter
+public final class DecisionGraph {
+
+    private final RuleNode root;
+    private final List<RuleNode> nodes;
+
+    /**
+     * Versions of the rules and documents the graph was compiled from.
+     */
+    private final String versionStamp;
+
+    /**
+     * Version of the {@link RuleBaseSnapshot} the graph was compiled from.
+     */
+    private final long snapshotVersion;
+
+    /**
+     * Every user attribute read by the graph's conditions, in first-use order.
+     */
+    private final List<String> attributes;
+
+    @Getter(AccessLevel.NONE)
+    private final String[] slotAttributes;
+
+    // Attribute-to-rule dependency index: the nodes whose condition reads each attribute
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Set<RuleNode>> readers;
+
+    DecisionGraph(RuleNode root, List<RuleNode> nodes, String versionStamp, long snapshotVersion) {
+        this.root = root;
+        this.nodes = List.copyOf(nodes);
+        this.versionStamp = versionStamp;
+        this.snapshotVersion = snapshotVersion;
+        this.attributes = collectAttributes(this.nodes);
+        this.slotAttributes = assignSlots(this.nodes);
+        this.readers = indexReaders(this.nodes);
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Binds a request's attributes to this graph's slots
+     * @param userAttributes The user attributes to evaluate against
+     * @return The bound attributes
+     */
+    public AttributeFrame bind(Map<String, Object> userAttributes) {
+        return AttributeFrame.bind(slotAttributes, userAttributes);
+    }
+
+    /**
+     * Returns the nodes whose condition reads any of the given attributes
+     * @param attributes The attribute names
+     * @return The reading nodes, compared by identity
+     */
+    public Set<RuleNode> getRulesReading(Collection<String> attributes) {
+        if (attributes.size() == 1) {
+            return readers.getOrDefault(attributes.iterator().next(), Set.of());
+        }
+        Set<RuleNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String attribute : attributes) {
+            nodes.addAll(readers.getOrDefault(attribute, Set.of()));
+        }
+        return nodes;
+    }
+
+    private static Map<String, Set<RuleNode>> indexReaders(List<RuleNode> nodes) {
+        Map<String, Set<RuleNode>> readers = new HashMap<>();
+        for (RuleNode node : nodes) {
+            if (node.isFailure()) {
+                continue;
+            }
+            for (String attribute : node.getCondition().getAttributes()) {
+                readers.computeIfAbsent(attribute, name -> Collections.newSetFromMap(new IdentityHashMap<>())).add(node);
+            }
+        }
+        return readers;
+    }
+
+    private static List<String> collectAttributes(List<RuleNode> nodes) {
+        Set<String> attributes = new LinkedHashSet<>();
+        for (RuleNode node : nodes) {
+            if (!node.isFailure()) {
+                attributes.addAll(node.getCondition().getAttributes());
+            }
+        }
+        return List.copyOf(attributes);
+    }
+
+    private static String[] assignSlots(List<RuleNode> nodes) {
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        for (RuleNode node : nodes) {
+            if (node.isFailure()) {
+                continue;
+            }
+            Set<String> attributes = node.getCondition().getAttributes();
+            if (attributes.size() == 1) {
+                String attribute = attributes.iterator().next();
+                node.assignSlot(slots.computeIfAbsent(attribute, name -> slots.size()));
+            }
+        }
+        return slots.keySet().toArray(new String[0]);
+    }
+}
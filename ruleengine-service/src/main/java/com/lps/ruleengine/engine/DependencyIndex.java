@@ -0,0 +1,208 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-memory reverse dependency graph: document to the rules referencing it, rule to the rules branching to it, and
+ * root rule to the policies starting there. Answers which rules and policies a write can change without walking the
+ * rule tables. Loaded from the current {@link RuleBase} snapshot on first use, then kept current by the rule and
+ * policy services.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DependencyIndex {
+
+    /**
+     * Rules and policies depending on a document or rule, each in id order.
+     *
+     * @param directRuleIds rules referencing the document, or rules branching straight to the rule
+     * @param ruleIds every rule from which evaluation can reach the document or rule, including the direct ones
+     * @param policyIds policies whose root rule is the rule itself or one of {@code ruleIds}
+     */
+    public record Dependents(Set<String> directRuleIds, Set<String> ruleIds, Set<String> policyIds) {
+    }
+
+    private record RuleLinks(String referenceId, List<String> successors) {
+    }
+
+    private final RuleBase ruleBase;
+
+    // Forward links, kept so that an update or delete knows which reverse entries to remove
+    private final Map<String, RuleLinks> ruleLinks = new HashMap<>();
+    private final Map<String, String> policyRoots = new HashMap<>();
+
+    private final Map<String, Set<String>> rulesByDocument = new HashMap<>();
+    private final Map<String, Set<String>> predecessors = new HashMap<>();
+    private final Map<String, Set<String>> policiesByRoot = new HashMap<>();
+
+    private boolean loaded;
+
+    /**
+     * Returns the rules and policies whose decisions depend on a document's value.
+     *
+     * @param documentId the document identifier
+     * @return the dependents; empty if no rule references the document
+     */
+    public synchronized Dependents ofDocument(String documentId) {
+        ensureLoaded();
+        Set<String> direct = new TreeSet<>(rulesByDocument.getOrDefault(documentId, Set.of()));
+        return dependents(direct, Set.of());
+    }
+
+    /**
+     * Returns the rules and policies whose decisions depend on a rule, i.e. those whose evaluation can reach it.
+     * The rule itself is not among the dependent rules, but policies rooted at it are among the policies.
+     *
+     * @param ruleId the rule identifier; need not exist, rules may branch to a rule that is created later
+     * @return the dependents
+     */
+    public synchronized Dependents ofRule(String ruleId) {
+        ensureLoaded();
+        Set<String> direct = new TreeSet<>(predecessors.getOrDefault(ruleId, Set.of()));
+        return dependents(direct, Set.of(ruleId));
+    }
+
+    /**
+     * Records a created or updated rule. Called after the rule is persisted.
+     *
+     * @param rule the saved rule
+     */
+    public synchronized void ruleSaved(Rule rule) {
+        if (!loaded) {
+            return;
+        }
+        unlinkRule(rule.getRuleId());
+        linkRule(rule);
+    }
+
+    /**
+     * Forgets a deleted rule's own links; rules still branching to it keep their links to its id.
+     *
+     * @param ruleId the deleted rule's identifier
+     */
+    public synchronized void ruleDeleted(String ruleId) {
+        if (loaded) {
+            unlinkRule(ruleId);
+        }
+    }
+
+    /**
+     * Records a created or updated policy. Called after the policy is persisted.
+     *
+     * @param policy the saved policy
+     */
+    public synchronized void policySaved(Policy policy) {
+        if (!loaded) {
+            return;
+        }
+        unlinkPolicy(policy.getPolicyId());
+        linkPolicy(policy);
+    }
+
+    /**
+     * Forgets a deleted policy.
+     *
+     * @param policyId the deleted policy's identifier
+     */
+    public synchronized void policyDeleted(String policyId) {
+        if (loaded) {
+            unlinkPolicy(policyId);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        RuleBaseSnapshot snapshot = ruleBase.current();
+        snapshot.getRules().forEach(this::linkRule);
+        snapshot.getPolicies().forEach(this::linkPolicy);
+        loaded = true;
+        log.debug("Loaded dependency index of {} rules and {} policies", ruleLinks.size(), policyRoots.size());
+    }
+
+    /**
+     * Collects every rule that can reach one of the direct rules, then the policies rooted at any of them.
+     */
+    private Dependents dependents(Set<String> direct, Set<String> subject) {
+        Set<String> ruleIds = new TreeSet<>(direct);
+        Deque<String> pending = new ArrayDeque<>(direct);
+        while (!pending.isEmpty()) {
+            for (String predecessor : predecessors.getOrDefault(pending.pop(), Set.of())) {
+                if (ruleIds.add(predecessor)) {
+                    pending.push(predecessor);
+                }
+            }
+        }
+
+        Set<String> policyIds = new TreeSet<>();
+        for (String ruleId : subject) {
+            policyIds.addAll(policiesByRoot.getOrDefault(ruleId, Set.of()));
+        }
+        for (String ruleId : ruleIds) {
+            policyIds.addAll(policiesByRoot.getOrDefault(ruleId, Set.of()));
+        }
+        return new Dependents(Collections.unmodifiableSet(direct), Collections.unmodifiableSet(ruleIds),
+                Collections.unmodifiableSet(policyIds));
+    }
+
+    private void linkRule(Rule rule) {
+        String ruleId = rule.getRuleId();
+        List<String> successors = new ArrayList<>(2);
+        if (rule.getOnTrueType() == Rule.OutcomeType.RULE && rule.getOnTrueValue() != null) {
+            successors.add(rule.getOnTrueValue());
+        }
+        if (rule.getOnFalseType() == Rule.OutcomeType.RULE && rule.getOnFalseValue() != null) {
+            successors.add(rule.getOnFalseValue());
+        }
+        String referenceId = rule.getReferenceId() == null || rule.getReferenceId().isEmpty()
+                ? null : rule.getReferenceId();
+
+        ruleLinks.put(ruleId, new RuleLinks(referenceId, successors));
+        if (referenceId != null) {
+            rulesByDocument.computeIfAbsent(referenceId, id -> new HashSet<>()).add(ruleId);
+        }
+        for (String successor : successors) {
+            predecessors.computeIfAbsent(successor, id -> new HashSet<>()).add(ruleId);
+        }
+    }
+
+    private void unlinkRule(String ruleId) {
+        RuleLinks links = ruleLinks.remove(ruleId);
+        if (links == null) {
+            return;
+        }
+        if (links.referenceId() != null) {
+            removeReverse(rulesByDocument, links.referenceId(), ruleId);
+        }
+        for (String successor : links.successors()) {
+            removeReverse(predecessors, successor, ruleId);
+        }
+    }
+
+    private void linkPolicy(Policy policy) {
+        policyRoots.put(policy.getPolicyId(), policy.getRootRuleId());
+        policiesByRoot.computeIfAbsent(policy.getRootRuleId(), id -> new HashSet<>()).add(policy.getPolicyId());
+    }
+
+    private void unlinkPolicy(String policyId) {
+        String rootRuleId = policyRoots.remove(policyId);
+        if (rootRuleId != null) {
+            removeReverse(policiesByRoot, rootRuleId, policyId);
+        }
+    }
+
+    private static void removeReverse(Map<String, Set<String>> reverse, String key, String value) {
+        Set<String> values = reverse.get(key);
+        if (values != null && values.remove(value) && values.isEmpty()) {
+            reverse.remove(key);
+        }
+    }
+}
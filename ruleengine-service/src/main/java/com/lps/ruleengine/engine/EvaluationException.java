@@ -0,0 +1,29 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import lombok.Getter;
+
+/**
+ * Failure of an evaluation, carrying the cause it is counted under by {@link EvaluationMetrics}.
+ * The message is what the caller sees, e.g. "Rule not found: rule_age_check".
+ */
+@Getter
+public class EvaluationException extends RuntimeException {
+
+    private final ErrorCause errorCause;
+
+    public EvaluationException(ErrorCause errorCause, String message) {
+        super(message);
+        this.errorCause = errorCause;
+    }
+
+    /**
+     * Returns the cause a failure is counted under.
+     *
+     * @param error the failure
+     * @return its cause, or {@link ErrorCause#OTHER} for failures not raised as an {@code EvaluationException}
+     */
+    public static ErrorCause causeOf(Throwable error) {
+        return error instanceof EvaluationException evaluation ? evaluation.getErrorCause() : ErrorCause.OTHER;
+    }
+}
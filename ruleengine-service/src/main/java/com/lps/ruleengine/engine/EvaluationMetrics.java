@@ -0,0 +1,293 @@
+package com.lps.ruleengine.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the evaluation path: latency per policy and evaluation path and per directly evaluated rule,
+ * rule outcomes, chain depth and errors by cause. Cache hit ratios are bound separately by {@link CacheMetrics}.
+ *
+ * <p>Policy and rule ids become tag values only for the first {@code max-policy-tags} policies and
+ * {@code max-rule-tags} rules seen; later ones share the tag value {@value #OTHER}, so a rule base of thousands of
+ * rules keeps the registry bounded. Meters are looked up once and cached, so recording never builds an id.</p>
+ */
+@Component
+@Slf4j
+public class EvaluationMetrics {
+
+    static final String OTHER = "other";
+
+    /**
+     * Why an evaluation failed, set by the code raising the failure through {@link EvaluationException}.
+     */
+    public enum ErrorCause {
+        RULE_NOT_FOUND,
+        RULE_INACTIVE,
+        POLICY_NOT_FOUND,
+        POLICY_INACTIVE,
+        UNSUPPORTED_EXPRESSION,
+        CIRCULAR_DEPENDENCY,
+        MAX_HOPS_EXCEEDED,
+        TIMEOUT,
+        REJECTED,
+        // Failures not raised as an EvaluationException
+        OTHER;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * How a policy was evaluated. Bulk evaluations of several policies evaluate each one as a single evaluation;
+     * portfolio evaluations have a timer of their own.
+     */
+    public enum EvaluationPath {
+        // One user, through the decision cache
+        SINGLE,
+        // Batch users evaluated row by row
+        BATCH,
+        // Batch users evaluated column-wise, timed per slice and spread evenly over its rows
+        COLUMNAR,
+        // Opening or updating an evaluation session
+        SESSION,
+        // A residual policy built for fixed attribute values
+        RESIDUAL;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Outcome counters of one rule, or of all rules past the tag limit; held by the rule's {@link RuleCounters}.
+     */
+    public record RuleOutcomes(Counter trues, Counter falses, Counter errors) {
+
+        void record(boolean result) {
+            (result ? trues : falses).increment();
+        }
+
+        void recordError() {
+            errors.increment();
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final BoundedTag policyTag;
+    private final BoundedTag ruleTag;
+    private final Map<EvaluationPath, Map<String, Timer>> policyTimers = new EnumMap<>(EvaluationPath.class);
+    private final Map<String, Timer> ruleTimers = new ConcurrentHashMap<>();
+    private final Map<String, RuleOutcomes> ruleOutcomes = new ConcurrentHashMap<>();
+    private final Map<ErrorCause, Counter> errors = new EnumMap<>(ErrorCause.class);
+    private final Timer portfolioTimer;
+    private final DistributionSummary depth;
+
+    // Set while synthetic evaluations run, e.g. during the startup warm-up
+    private volatile boolean paused;
+
+    public EvaluationMetrics(MeterRegistry registry,
+                             @Value("${ruleengine.metrics.enabled:true}") boolean enabled,
+                             @Value("${ruleengine.metrics.max-policy-tags:100}") int maxPolicyTags,
+                             @Value("${ruleengine.metrics.max-rule-tags:200}") int maxRuleTags,
+                             @Value("${ruleengine.evaluation.max-hops:10000}") int maxHops) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.policyTag = new BoundedTag(maxPolicyTags);
+        this.ruleTag = new BoundedTag(maxRuleTags);
+        for (EvaluationPath path : EvaluationPath.values()) {
+            policyTimers.put(path, new ConcurrentHashMap<>());
+        }
+        for (ErrorCause cause : ErrorCause.values()) {
+            errors.put(cause, Counter.builder("ruleengine.evaluation.errors")
+                    .description("Failed evaluations by cause")
+                    .tag("cause", cause.tagValue())
+                    .register(registry));
+        }
+        this.portfolioTimer = Timer.builder("ruleengine.portfolio.evaluation")
+                .description("Evaluation of every active policy over the shared portfolio graph")
+                .register(registry);
+        this.depth = DistributionSummary.builder("ruleengine.evaluation.depth")
+                .description("Rules walked by one evaluation of a policy or rule chain")
+                .baseUnit("rules")
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) Math.max(1, maxHops))
+                .register(registry);
+    }
+
+    /**
+     * Stops recording until {@link #resume()}, so synthetic evaluations do not show up as traffic. Rule counters
+     * created meanwhile get no outcome meters, so reset those rules' statistics and recompile them after resuming.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * Returns the tag value a policy is recorded under: its id, or {@value #OTHER} past the tag limit.
+     *
+     * @param policyId the policy identifier
+     * @return the tag value
+     */
+    public String policyTag(String policyId) {
+        return policyTag.valueOf(policyId);
+    }
+
+    /**
+     * Records the latency of an evaluation of a policy for one user.
+     *
+     * @param policyId the policy identifier
+     * @param path how the policy was evaluated
+     * @param elapsedNanos time the evaluation took
+     */
+    public void recordPolicyEvaluation(String policyId, EvaluationPath path, long elapsedNanos) {
+        recordPolicyEvaluations(policyId, path, 1, elapsedNanos);
+    }
+
+    /**
+     * Records evaluations of a policy for several users made together, each taking an equal share of the time.
+     *
+     * @param policyId the policy identifier
+     * @param path how the policy was evaluated
+     * @param users the number of users evaluated
+     * @param elapsedNanos time the evaluations took together
+     */
+    public void recordPolicyEvaluations(String policyId, EvaluationPath path, int users, long elapsedNanos) {
+        if (enabled && !paused && users > 0) {
+            Timer timer = policyTimers.get(path).computeIfAbsent(policyTag.valueOf(policyId),
+                    tag -> Timer.builder("ruleengine.policy.evaluation")
+                            .description("Evaluation of a policy for one user")
+                            .tag("policy", tag)
+                            .tag("path", path.tagValue())
+                            .register(registry));
+            long share = elapsedNanos / users;
+            for (int i = 0; i < users; i++) {
+                timer.record(share, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Records the latency of a direct evaluation of the chain rooted at a rule.
+     *
+     * @param ruleId the root rule identifier
+     * @param elapsedNanos time the evaluation took
+     */
+    public void recordRuleEvaluation(String ruleId, long elapsedNanos) {
+        if (enabled && !paused) {
+            Timer timer = ruleTimers.computeIfAbsent(ruleTag.valueOf(ruleId),
+                    tag -> Timer.builder("ruleengine.rule.evaluation")
+                            .description("Direct evaluation of the chain rooted at a rule for one user")
+                            .tag("rule", tag)
+                            .register(registry));
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the latency of a portfolio evaluation.
+     *
+     * @param elapsedNanos time the evaluation took
+     */
+    public void recordPortfolioEvaluation(long elapsedNanos) {
+        if (enabled && !paused) {
+            portfolioTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records how many rules an evaluation walked before reaching a value.
+     *
+     * @param rules the number of rules on the path
+     */
+    public void recordDepth(int rules) {
+        if (enabled && !paused) {
+            depth.record(rules);
+        }
+    }
+
+    /**
+     * Counts a failed evaluation.
+     *
+     * @param cause why the evaluation failed
+     */
+    public void recordError(ErrorCause cause) {
+        if (enabled && !paused) {
+            errors.get(cause).increment();
+        }
+    }
+
+    /**
+     * Returns the outcome counters a rule's compiled nodes record into.
+     *
+     * @param ruleId the rule identifier
+     * @return the rule's outcome counters, or null when metrics are disabled
+     */
+    public RuleOutcomes ruleOutcomes(String ruleId) {
+        if (!enabled || paused) {
+            return null;
+        }
+        return ruleOutcomes.computeIfAbsent(ruleTag.valueOf(ruleId), tag -> new RuleOutcomes(
+                ruleOutcomeCounter(tag, "true"), ruleOutcomeCounter(tag, "false"), ruleOutcomeCounter(tag, "error")));
+    }
+
+    private Counter ruleOutcomeCounter(String rule, String outcome) {
+        return Counter.builder("ruleengine.rule.outcomes")
+                .description("Rule condition evaluations by outcome")
+                .tag("rule", rule)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Admits the first {@code limit} distinct ids as tag values and maps every later one to {@value #OTHER}.
+     */
+    static final class BoundedTag {
+
+        private final int limit;
+        private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+
+        BoundedTag(int limit) {
+            this.limit = limit;
+        }
+
+        String valueOf(String id) {
+            if (id == null) {
+                return OTHER;
+            }
+            if (admitted.contains(id)) {
+                return id;
+            }
+            if (admitted.size() >= limit) {
+                return OTHER;
+            }
+            synchronized (admitted) {
+                if (admitted.size() < limit) {
+                    admitted.add(id);
+                    if (admitted.size() == limit) {
+                        log.info("Metric tag limit of {} ids reached, later ids are tagged \"{}\"", limit, OTHER);
+                    }
+                    return id;
+                }
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.lps.ruleengine.engine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State kept between evaluations of one policy for one applicant: the applicant's current attributes and the path
+ * of the last evaluation with each rule's result. When a few attributes change, evaluation resumes from the first
+ * rule on that path that reads one of them; the rules before it would take the same branches again.
+ * Not thread-safe; callers synchronize on the session.
+ */
+@Getter
+public final class EvaluationSession {
+
+    private final String policyId;
+    private final String userId;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    /**
+     * The graph the path was walked on and the version stamp of the policy it was compiled from.
+     */
+    private DecisionGraph graph;
+    private String versionStamp;
+
+    @Getter(AccessLevel.NONE)
+    private final List<RuleNode> path = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final BitSet results = new BitSet();
+
+    /**
+     * Decision of the last evaluation, or null if it ended in an error at the rule after the path.
+     */
+    private Boolean result;
+    private String errorMessage;
+
+    @Getter(AccessLevel.NONE)
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    EvaluationSession(String policyId, String userId) {
+        this.policyId = policyId;
+        this.userId = userId;
+    }
+
+    /**
+     * Applies an attribute delta; a null value removes the attribute.
+     *
+     * @param changes the changed attributes
+     */
+    public void applyChanges(Map<String, Object> changes) {
+        changes.forEach((name, value) -> {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        });
+    }
+
+    /**
+     * Starts over on a (re)compiled graph; the next evaluation walks it from the root.
+     */
+    public void reset(DecisionGraph graph, String versionStamp) {
+        this.graph = graph;
+        this.versionStamp = versionStamp;
+        path.clear();
+        results.clear();
+        result = null;
+        errorMessage = null;
+    }
+
+    /**
+     * Finds where evaluation must resume after the given attributes changed, using the graph's attribute-to-rule
+     * index.
+     *
+     * @param changedAttributes the names of the changed attributes
+     * @return the index on the path of the first rule that reads a changed attribute, the path length if the last
+     * evaluation failed after the path, or -1 if the last decision still holds
+     */
+    public int resumeIndex(Set<String> changedAttributes) {
+        Set<RuleNode> affected = graph.getRulesReading(changedAttributes);
+        if (!affected.isEmpty()) {
+            for (int i = 0; i < path.size(); i++) {
+                if (affected.contains(path.get(i))) {
+                    return i;
+                }
+            }
+        }
+        return result == null ? path.size() : -1;
+    }
+
+    public int getPathLength() {
+        return path.size();
+    }
+
+    public RuleNode getPathNode(int index) {
+        return path.get(index);
+    }
+
+    public boolean getPathResult(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Returns the rule evaluated after the first {@code length} steps of the path.
+     */
+    public RuleNode nodeAfter(int length) {
+        return length == 0 ? graph.getRoot() : path.get(length - 1).getNext(results.get(length - 1));
+    }
+
+    /**
+     * Drops the steps from {@code length} on, before evaluation resumes there.
+     */
+    public void truncatePath(int length) {
+        path.subList(length, path.size()).clear();
+        results.clear(length, Math.max(length, results.length()));
+    }
+
+    public void recordStep(RuleNode node, boolean stepResult) {
+        results.set(path.size(), stepResult);
+        path.add(node);
+    }
+
+    public void complete(boolean decision) {
+        this.result = decision;
+        this.errorMessage = null;
+    }
+
+    public void fail(String message) {
+        this.result = null;
+        this.errorMessage = message;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    boolean isExpired(long now, long ttlMillis) {
+        return now - lastAccessMillis > ttlMillis;
+    }
+}
@@ -0,0 +1,88 @@
+package com.lps.ruleengine.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Open {@link EvaluationSession}s keyed by policy and user.
+ * Bounded with least-recently-used eviction; sessions idle for longer than the configured time are dropped.
+ */
+@Component
+@Slf4j
+public class EvaluationSessionStore {
+
+    private record Key(String policyId, String userId) {
+    }
+
+    private final long ttlMillis;
+    private final Map<Key, EvaluationSession> sessions;
+
+    public EvaluationSessionStore(@Value("${ruleengine.sessions.max-entries:10000}") int maxEntries,
+                                  @Value("${ruleengine.sessions.ttl-seconds:1800}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, EvaluationSession> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Opens a new session, replacing any open session of the same user and policy.
+     *
+     * @param policyId the policy identifier
+     * @param userId the user identifier
+     * @return the new, empty session
+     */
+    public EvaluationSession open(String policyId, String userId) {
+        EvaluationSession session = new EvaluationSession(policyId, userId);
+        synchronized (sessions) {
+            sessions.put(new Key(policyId, userId), session);
+        }
+        return session;
+    }
+
+    /**
+     * Returns the open session of a user and policy.
+     *
+     * @param policyId the policy identifier
+     * @param userId the user identifier
+     * @return the session
+     * @throws RuntimeException if no session is open or it expired
+     */
+    public EvaluationSession get(String policyId, String userId) {
+        Key key = new Key(policyId, userId);
+        EvaluationSession session;
+        synchronized (sessions) {
+            session = sessions.get(key);
+            if (session != null && session.isExpired(System.currentTimeMillis(), ttlMillis)) {
+                sessions.remove(key);
+                log.debug("Evaluation session of user {} for policy {} expired", userId, policyId);
+                session = null;
+            }
+        }
+        if (session == null) {
+            throw new RuntimeException("Evaluation session not found for user: " + userId + ", policy: " + policyId);
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Closes the session of a user and policy, if one is open.
+     *
+     * @param policyId the policy identifier
+     * @param userId the user identifier
+     * @return true if a session was closed
+     */
+    public boolean close(String policyId, String userId) {
+        synchronized (sessions) {
+            return sessions.remove(new Key(policyId, userId)) != null;
+        }
+    }
+}
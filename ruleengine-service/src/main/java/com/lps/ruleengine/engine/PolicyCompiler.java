@@ -0,0 +1,490 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.engine.expression.Expression;
+import com.lps.ruleengine.engine.expression.ExpressionSpecializer;
+import com.lps.ruleengine.engine.expression.InExpression;
+import com.lps.ruleengine.engine.expression.JunctionExpression;
+import com.lps.ruleengine.engine.expression.NotExpression;
+import com.lps.ruleengine.engine.expression.ParsedExpressionCache;
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Builds {@link DecisionGraph}s from a {@link RuleBaseSnapshot}.
+ * Every rule and document of a compilation comes from the same snapshot, and no repository is touched.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyCompiler {
+
+    private static final boolean[] BRANCHES = {true, false};
+
+    private final ParsedExpressionCache parsedExpressionCache;
+    private final ReferenceValueCache referenceValueCache;
+    private final RuleStatistics ruleStatistics;
+
+    /**
+     * Compiles a policy starting from its root rule.
+     *
+     * @param policy the policy to compile
+     * @param snapshot the rule base to read rules and documents from
+     * @return the compiled policy
+     */
+    public CompiledPolicy compilePolicy(Policy policy, RuleBaseSnapshot snapshot) {
+        DecisionGraph graph = compile(policy.getRootRuleId(), snapshot);
+        return new CompiledPolicy(policy.getPolicyId(), policy.getPolicyName(), policy.getVersion(), graph,
+                policy.getPolicyId() + "@" + policy.getVersion() + ";" + graph.getVersionStamp());
+    }
+
+    /**
+     * Compiles the graph of rules reachable from the given rule.
+     *
+     * @param rootRuleId the rule to start from
+     * @param snapshot the rule base to read rules and documents from
+     * @return the compiled graph
+     */
+    public DecisionGraph compileGraph(String rootRuleId, RuleBaseSnapshot snapshot) {
+        return compile(rootRuleId, snapshot);
+    }
+
+    private DecisionGraph compile(String rootRuleId, RuleBaseSnapshot snapshot) {
+        log.debug("Compiling decision graph from root rule: {} at snapshot {}", rootRuleId, snapshot.getVersion());
+
+        Map<String, Rule> rules = new HashMap<>();
+        List<Rule> reachable = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(rootRuleId);
+        while (!pending.isEmpty()) {
+            String ruleId = pending.pop();
+            if (!seen.add(ruleId)) {
+                continue;
+            }
+            Rule rule = snapshot.getRule(ruleId);
+            if (rule == null) {
+                continue;
+            }
+            rules.put(ruleId, rule);
+            if (!rule.getIsActive()) {
+                continue;
+            }
+            reachable.add(rule);
+            if (rule.getOnTrueType() == Rule.OutcomeType.RULE) {
+                pending.push(rule.getOnTrueRuleId());
+            }
+            if (rule.getOnFalseType() == Rule.OutcomeType.RULE) {
+                pending.push(rule.getOnFalseRuleId());
+            }
+        }
+
+        Map<String, Document> documents = referencedDocuments(reachable, snapshot);
+
+        // Create every node first so that successor links can be wired in a second pass
+        Map<String, RuleNode> nodes = new LinkedHashMap<>();
+        for (String ruleId : seen) {
+            Rule rule = rules.get(ruleId);
+            if (rule == null) {
+                nodes.put(ruleId, RuleNode.failure(ruleId, ErrorCause.RULE_NOT_FOUND, "Rule not found: " + ruleId));
+            } else if (!rule.getIsActive()) {
+                nodes.put(ruleId, RuleNode.failure(ruleId, ErrorCause.RULE_INACTIVE, "Rule is inactive: " + ruleId));
+            } else {
+                Expression condition = parsedExpressionCache.get(rule);
+                RuleNode node = new RuleNode(ruleId, rule.getExpression(), condition, rule.getReferenceId(),
+                        resolveReferenceValue(condition, documents.get(rule.getReferenceId())));
+                node.attachCounters(ruleStatistics.countersFor(ruleId));
+                nodes.put(ruleId, node);
+            }
+        }
+
+        for (Rule rule : reachable) {
+            RuleNode node = nodes.get(rule.getRuleId());
+            if (rule.getOnTrueType() == Rule.OutcomeType.RULE) {
+                node.linkOnTrue(nodes.get(rule.getOnTrueRuleId()));
+            } else {
+                node.terminateOnTrue(rule.getOnTrueValueAsBoolean());
+            }
+            if (rule.getOnFalseType() == Rule.OutcomeType.RULE) {
+                node.linkOnFalse(nodes.get(rule.getOnFalseRuleId()));
+            } else {
+                node.terminateOnFalse(rule.getOnFalseValueAsBoolean());
+            }
+        }
+
+        return new DecisionGraph(nodes.get(rootRuleId), new ArrayList<>(nodes.values()),
+                versionStamp(seen, rules, documents), snapshot.getVersion());
+    }
+
+    /**
+     * Describes the versions of every rule and document a graph was built from, e.g.
+     * {@code rule_age@2,rule_city@1;allowedCities@3}. Any write to one of them yields a different stamp.
+     */
+    private String versionStamp(Collection<String> ruleIds, Map<String, Rule> rules, Map<String, Document> documents) {
+        StringJoiner ruleVersions = new StringJoiner(",");
+        for (String ruleId : ruleIds) {
+            Rule rule = rules.get(ruleId);
+            ruleVersions.add(ruleId + "@" + (rule == null ? "-" : rule.getIsActive() ? rule.getVersion() : "inactive"));
+        }
+        StringJoiner documentVersions = new StringJoiner(",");
+        new TreeMap<>(documents).forEach((documentId, document) ->
+                documentVersions.add(documentId + "@" + document.getVersion()));
+        return ruleVersions + ";" + documentVersions;
+    }
+
+    /**
+     * Builds the specialized tier of a compiled graph: same shape, but every condition is rewritten with its
+     * reference value bound in so that numeric checks run as primitive comparisons.
+     *
+     * @param graph the interpreted graph
+     * @return a new graph with specialized conditions
+     */
+    public DecisionGraph specialize(DecisionGraph graph) {
+        Map<RuleNode, RuleNode> copies = new IdentityHashMap<>();
+        for (RuleNode node : graph.getNodes()) {
+            copies.put(node, node.isFailure() ? node.withCondition(null)
+                    : node.withCondition(ExpressionSpecializer.specialize(node.getCondition(), node.getReferenceValue())));
+        }
+
+        for (RuleNode node : graph.getNodes()) {
+            RuleNode copy = copies.get(node);
+            if (node.getOnTrueNode() != null) {
+                copy.linkOnTrue(copies.get(node.getOnTrueNode()));
+            } else {
+                copy.terminateOnTrue(node.isOnTrueValue());
+            }
+            if (node.getOnFalseNode() != null) {
+                copy.linkOnFalse(copies.get(node.getOnFalseNode()));
+            } else {
+                copy.terminateOnFalse(node.isOnFalseValue());
+            }
+        }
+
+        List<RuleNode> nodes = new ArrayList<>();
+        graph.getNodes().forEach(node -> nodes.add(copies.get(node)));
+        return new DecisionGraph(copies.get(graph.getRoot()), nodes, graph.getVersionStamp(),
+                graph.getSnapshotVersion());
+    }
+
+    /**
+     * Lays out a graph according to the branch statistics of its rules.
+     * <p>
+     * A chain of rules that each end evaluation with the same decision on one branch and continue to the next
+     * rule on the other (e.g. a sequence of checks that each reject on failure) computes the same decision in any
+     * order. Once every rule of such a chain has enough recorded outcomes, the chain is reordered so the rules
+     * most likely to end it, per unit of evaluation time, run first. The node list is then ordered along the most
+     * frequently taken branches, which also gives the attributes of the hot path the lowest frame slots.
+     * <p>
+     * Rules whose condition can fail keep their position and the others only move between them, so an evaluation
+     * raises an error exactly when the written graph would.
+     *
+     * @param graph the graph to lay out
+     * @return a new graph with the same decisions
+     */
+    public DecisionGraph layout(DecisionGraph graph) {
+        // Count incoming links; the root also counts its entry so it always starts a chain
+        Map<RuleNode, Integer> predecessors = new IdentityHashMap<>();
+        predecessors.merge(graph.getRoot(), 1, Integer::sum);
+        for (RuleNode node : graph.getNodes()) {
+            for (boolean branch : BRANCHES) {
+                if (node.getNext(branch) != null) {
+                    predecessors.merge(node.getNext(branch), 1, Integer::sum);
+                }
+            }
+        }
+
+        // Chains are found from their first rule, which a walk from the root always reaches before the others
+        Set<RuleNode> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<RuleNode, Continuation> continuations = new IdentityHashMap<>();
+        Map<RuleNode, RuleNode> entries = new IdentityHashMap<>();
+        for (RuleNode node : walk(graph.getRoot(), node -> true)) {
+            if (claimed.contains(node)) {
+                continue;
+            }
+            for (boolean branch : BRANCHES) {
+                List<RuleNode> chain = collectChain(node, branch, predecessors, claimed);
+                if (chain.size() < 2) {
+                    continue;
+                }
+                claimed.addAll(chain);
+                List<RuleNode> ranked = rankChain(chain, branch);
+                if (ranked != chain) {
+                    RuleNode last = chain.get(chain.size() - 1);
+                    for (int i = 0; i < ranked.size(); i++) {
+                        continuations.put(ranked.get(i), i + 1 < ranked.size()
+                                ? new Continuation(branch, ranked.get(i + 1), false, true)
+                                : new Continuation(branch, last.getNext(branch), last.getTerminalValue(branch), false));
+                    }
+                    entries.put(chain.get(0), ranked.get(0));
+                    log.debug("Reordered rule chain {} to {}", ruleIds(chain), ruleIds(ranked));
+                }
+                break;
+            }
+        }
+
+        Map<RuleNode, RuleNode> copies = new IdentityHashMap<>();
+        graph.getNodes().forEach(node -> copies.put(node, node.copy()));
+        for (RuleNode node : graph.getNodes()) {
+            Continuation continuation = continuations.get(node);
+            for (boolean branch : BRANCHES) {
+                RuleNode next = node.getNext(branch);
+                boolean value = node.getTerminalValue(branch);
+                boolean internal = false;
+                if (continuation != null && continuation.branch() == branch) {
+                    next = continuation.next();
+                    value = continuation.value();
+                    internal = continuation.internal();
+                }
+                // Links into a reordered chain enter at its new first rule
+                RuleNode target = next == null ? null : copies.get(internal ? next : entries.getOrDefault(next, next));
+                link(copies.get(node), branch, target, value);
+            }
+        }
+
+        RuleNode root = copies.get(entries.getOrDefault(graph.getRoot(), graph.getRoot()));
+        List<RuleNode> nodes = walk(root, this::isHotBranch);
+        return new DecisionGraph(root, nodes, graph.getVersionStamp(), graph.getSnapshotVersion());
+    }
+
+    /**
+     * Where a reordered chain member continues on its chain branch: the next member ({@code internal}), or the
+     * chain's original exit.
+     */
+    private record Continuation(boolean branch, RuleNode next, boolean value, boolean internal) {
+    }
+
+    /**
+     * Collects the chain starting at a node that continues on {@code branch} and ends evaluation with one shared
+     * decision on the other branch. Every member after the first must be reachable only from its predecessor.
+     */
+    private static List<RuleNode> collectChain(RuleNode first, boolean branch, Map<RuleNode, Integer> predecessors,
+                                               Set<RuleNode> claimed) {
+        List<RuleNode> chain = new ArrayList<>();
+        Set<RuleNode> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        RuleNode current = first;
+        while (current != null && !current.isFailure() && !claimed.contains(current) && !members.contains(current)
+                && current.getNext(!branch) == null
+                && (chain.isEmpty() || (predecessors.get(current) == 1
+                        && current.getTerminalValue(!branch) == first.getTerminalValue(!branch)))) {
+            chain.add(current);
+            members.add(current);
+            current = current.getNext(branch);
+        }
+        return chain;
+    }
+
+    /**
+     * Orders a chain by expected cost per exit, cheapest first: the condition's static cost estimate divided by the
+     * recorded rate at which the rule ends the chain. Measured times are too noisy at sub-microsecond scale to rank
+     * by, so they are only reported. Returns the same list when any member has too few outcomes recorded or the
+     * order would not change.
+     */
+    private List<RuleNode> rankChain(List<RuleNode> chain, boolean branch) {
+        Map<RuleNode, Double> rank = new IdentityHashMap<>();
+        for (RuleNode node : chain) {
+            RuleCounters counters = node.getCounters();
+            if (!ruleStatistics.hasProfile(counters)) {
+                return chain;
+            }
+            rank.put(node, node.getCondition().estimatedCost() / counters.getBranchRate(!branch));
+        }
+
+        // Rules that can fail stay in place; the others are sorted within the runs between them
+        List<RuleNode> ranked = new ArrayList<>(chain);
+        int start = 0;
+        for (int i = 0; i <= ranked.size(); i++) {
+            if (i == ranked.size() || ranked.get(i).getCondition().canFail()) {
+                ranked.subList(start, i).sort(Comparator.comparingDouble(rank::get));
+                start = i + 1;
+            }
+        }
+        return ranked.equals(chain) ? chain : ranked;
+    }
+
+    /**
+     * Partially evaluates a compiled policy against attribute values that are fixed for every request.
+     * Each rule whose condition reads only fixed attributes is evaluated once here and links into it are redirected
+     * to the branch it takes, so the rule disappears from the graph along with rules no longer reachable. Rules
+     * whose evaluation fails are kept so that the error is raised when a request reaches them. The remaining graph
+     * is specialized and laid out like a hot policy.
+     *
+     * @param policy the compiled policy
+     * @param residualId the identifier of the residual
+     * @param fixedAttributes the attribute values shared by every request
+     * @return the residual policy
+     * @throws RuntimeException if the fixed values lead around a cycle of rules
+     */
+    public ResidualPolicy residualize(CompiledPolicy policy, String residualId, Map<String, Object> fixedAttributes) {
+        DecisionGraph graph = policy.getGraph();
+        Map<RuleNode, Boolean> decided = new IdentityHashMap<>();
+        for (RuleNode node : graph.getNodes()) {
+            if (node.isFailure()) {
+                continue;
+            }
+            Set<String> attributes = node.getCondition().getAttributes();
+            if (attributes.isEmpty() || !fixedAttributes.keySet().containsAll(attributes)) {
+                continue;
+            }
+            try {
+                decided.put(node, node.getCondition().evaluate(fixedAttributes, node.getReferenceValue()));
+            } catch (RuntimeException e) {
+                log.debug("Rule {} kept in residual of {}: {}", node.getRuleId(), policy.getPolicyId(), e.getMessage());
+            }
+        }
+
+        Map<RuleNode, RuleNode> copies = new IdentityHashMap<>();
+        for (RuleNode node : graph.getNodes()) {
+            if (!decided.containsKey(node)) {
+                copies.put(node, node.copy());
+            }
+        }
+        for (RuleNode node : graph.getNodes()) {
+            if (decided.containsKey(node)) {
+                continue;
+            }
+            for (boolean branch : BRANCHES) {
+                Target target = skipDecided(node.getNext(branch), node.getTerminalValue(branch), decided);
+                link(copies.get(node), branch, target.node() == null ? null : copies.get(target.node()), target.value());
+            }
+        }
+
+        Target entry = skipDecided(graph.getRoot(), false, decided);
+        DecisionGraph residual = null;
+        if (entry.node() != null) {
+            RuleNode root = copies.get(entry.node());
+            residual = layout(specialize(new DecisionGraph(root, walk(root, node -> true), graph.getVersionStamp(),
+                    graph.getSnapshotVersion())));
+        }
+
+        Set<String> remaining = residual == null ? Set.of() : new HashSet<>(ruleIds(residual.getNodes()));
+        List<String> folded = graph.getNodes().stream()
+                .map(RuleNode::getRuleId)
+                .filter(ruleId -> !remaining.contains(ruleId))
+                .toList();
+        log.debug("Residual {} of policy {} keeps {} rules, folded {}", residualId, policy.getPolicyId(),
+                remaining.size(), folded);
+        return new ResidualPolicy(residualId, policy.getPolicyId(), fixedAttributes, policy.getVersionStamp(),
+                policy.getSnapshotVersion(), residual, residual == null ? entry.value() : null, folded);
+    }
+
+    /**
+     * Where evaluation continues once links through decided rules are followed: a rule, or a terminal value.
+     */
+    private record Target(RuleNode node, boolean value) {
+    }
+
+    private static Target skipDecided(RuleNode next, boolean value, Map<RuleNode, Boolean> decided) {
+        int hops = 0;
+        while (next != null && decided.containsKey(next)) {
+            if (++hops > decided.size()) {
+                throw new EvaluationException(ErrorCause.CIRCULAR_DEPENDENCY,
+                        "Circular dependency detected in rules: " + next.getRuleId());
+            }
+            boolean result = decided.get(next);
+            value = next.getTerminalValue(result);
+            next = next.getNext(result);
+        }
+        return new Target(next, value);
+    }
+
+    private boolean isHotBranch(RuleNode node) {
+        RuleCounters counters = node.getCounters();
+        return counters == null || counters.getBranchRate(true) >= 0.5;
+    }
+
+    /**
+     * Lists the nodes reachable from a root depth-first, following the branch chosen by {@code preferred} before
+     * the other one.
+     */
+    private static List<RuleNode> walk(RuleNode root, Predicate<RuleNode> preferred) {
+        List<RuleNode> ordered = new ArrayList<>();
+        Set<RuleNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<RuleNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            RuleNode node = pending.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            ordered.add(node);
+            boolean hot = preferred.test(node);
+            if (node.getNext(!hot) != null) {
+                pending.push(node.getNext(!hot));
+            }
+            if (node.getNext(hot) != null) {
+                pending.push(node.getNext(hot));
+            }
+        }
+        return ordered;
+    }
+
+    private static void link(RuleNode node, boolean branch, RuleNode next, boolean value) {
+        if (branch) {
+            if (next != null) {
+                node.linkOnTrue(next);
+            } else {
+                node.terminateOnTrue(value);
+            }
+        } else if (next != null) {
+            node.linkOnFalse(next);
+        } else {
+            node.terminateOnFalse(value);
+        }
+    }
+
+    private static List<String> ruleIds(List<RuleNode> nodes) {
+        return nodes.stream().map(RuleNode::getRuleId).toList();
+    }
+
+    private static Map<String, Document> referencedDocuments(List<Rule> rules, RuleBaseSnapshot snapshot) {
+        Map<String, Document> documents = new HashMap<>();
+        for (Rule rule : rules) {
+            if (rule.getReferenceId() != null && !rule.getReferenceId().isEmpty()) {
+                Document document = snapshot.getDocument(rule.getReferenceId());
+                if (document != null) {
+                    documents.put(document.getDocumentId(), document);
+                }
+            }
+        }
+        return documents;
+    }
+
+    private Object resolveReferenceValue(Expression condition, Document document) {
+        if (document == null) {
+            return null;
+        }
+        // IN checks probe the pre-built hash index instead of scanning the decoded list
+        if (readsReferenceAsList(condition)) {
+            Object members = referenceValueCache.getMembershipSet(document);
+            if (members != null) {
+                return members;
+            }
+        }
+        return referenceValueCache.getTypedValue(document);
+    }
+
+    /**
+     * True when every part of the condition that reads the reference document is an IN check.
+     */
+    private static boolean readsReferenceAsList(Expression condition) {
+        if (condition instanceof InExpression) {
+            return true;
+        }
+        if (condition instanceof NotExpression not) {
+            return readsReferenceAsList(not.getOperand());
+        }
+        if (condition instanceof JunctionExpression junction) {
+            return junction.getOperands().stream()
+                    .filter(Expression::usesReference)
+                    .allMatch(PolicyCompiler::readsReferenceAsList);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.AttributeFrame;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * All active policies merged into one graph in which every distinct rule appears once.
+ * Nodes are addressed by index so that an evaluation can memoize each rule's outcome in a flat array and
+ * policies sharing a rule evaluate it only once per applicant.
+ */
+public final class PortfolioGraph {
+
+    @Getter
+    private final List<String> policyIds;
+    private final int[] roots;
+    private final long[] snapshotVersions;
+    private final RuleNode[] nodes;
+    private final int[] onTrue;
+    private final int[] onFalse;
+    private final int[] slots;
+    private final String[] slotAttributes;
+
+    private PortfolioGraph(List<String> policyIds, int[] roots, long[] snapshotVersions, RuleNode[] nodes,
+                           int[] onTrue, int[] onFalse, int[] slots, String[] slotAttributes) {
+        this.policyIds = policyIds;
+        this.roots = roots;
+        this.snapshotVersions = snapshotVersions;
+        this.nodes = nodes;
+        this.onTrue = onTrue;
+        this.onFalse = onFalse;
+        this.slots = slots;
+        this.slotAttributes = slotAttributes;
+    }
+
+    /**
+     * Merges compiled policies, sharing nodes by rule id.
+     *
+     * @param policies the compiled policies, in the order their outcomes should be reported
+     * @return the merged graph
+     */
+    static PortfolioGraph build(List<CompiledPolicy> policies) {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<RuleNode> distinct = new ArrayList<>();
+        for (CompiledPolicy policy : policies) {
+            for (RuleNode node : policy.getGraph().getNodes()) {
+                if (!indexes.containsKey(node.getRuleId())) {
+                    indexes.put(node.getRuleId(), distinct.size());
+                    distinct.add(node);
+                }
+            }
+        }
+
+        int count = distinct.size();
+        int[] onTrue = new int[count];
+        int[] onFalse = new int[count];
+        int[] slots = new int[count];
+        Map<String, Integer> slotIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            RuleNode node = distinct.get(i);
+            onTrue[i] = node.getOnTrueNode() != null ? indexes.get(node.getOnTrueNode().getRuleId()) : -1;
+            onFalse[i] = node.getOnFalseNode() != null ? indexes.get(node.getOnFalseNode().getRuleId()) : -1;
+            slots[i] = -1;
+            if (!node.isFailure()) {
+                Set<String> attributes = node.getCondition().getAttributes();
+                if (attributes.size() == 1) {
+                    String attribute = attributes.iterator().next();
+                    slots[i] = slotIndexes.computeIfAbsent(attribute, name -> slotIndexes.size());
+                }
+            }
+        }
+
+        List<String> policyIds = new ArrayList<>(policies.size());
+        int[] roots = new int[policies.size()];
+        long[] snapshotVersions = new long[policies.size()];
+        for (int p = 0; p < policies.size(); p++) {
+            policyIds.add(policies.get(p).getPolicyId());
+            roots[p] = indexes.get(policies.get(p).getGraph().getRoot().getRuleId());
+            snapshotVersions[p] = policies.get(p).getSnapshotVersion();
+        }
+
+        return new PortfolioGraph(List.copyOf(policyIds), roots, snapshotVersions, distinct.toArray(new RuleNode[0]),
+                onTrue, onFalse, slots, slotIndexes.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * @return the number of distinct rules across all policies
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    public int getRoot(int policyIndex) {
+        return roots[policyIndex];
+    }
+
+    /**
+     * @return the version of the rule base snapshot the policy at the given index was compiled from
+     */
+    public long getSnapshotVersion(int policyIndex) {
+        return snapshotVersions[policyIndex];
+    }
+
+    public RuleNode getNode(int index) {
+        return nodes[index];
+    }
+
+    public int getSlot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * @return the index of the rule evaluated next, or -1 if the outcome is the node's terminal value
+     */
+    public int next(int index, boolean result) {
+        return result ? onTrue[index] : onFalse[index];
+    }
+
+    /**
+     * Binds a request's attributes to the portfolio's slots
+     * @param userAttributes The user attributes to evaluate against
+     * @return The bound attributes
+     */
+    public AttributeFrame bind(Map<String, Object> userAttributes) {
+        return AttributeFrame.bind(slotAttributes, userAttributes);
+    }
+}
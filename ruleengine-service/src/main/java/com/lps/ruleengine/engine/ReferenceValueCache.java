@@ -0,0 +1,119 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.MembershipSet;
+import com.lps.ruleengine.model.Document;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decoded, typed document values keyed by document id and version.
+ * Large LIST/OBJECT documents are decoded once per version instead of on every compilation,
+ * and LIST documents get their {@link MembershipSet} index built at the same time.
+ * Bounded with least-recently-used eviction; {@link ChangePublisher} invalidates entries on every document write.
+ */
+@Component
+@Slf4j
+public class ReferenceValueCache {
+
+    private record Entry(Integer version, Object value, MembershipSet members) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ReferenceValueCache(@Value("${ruleengine.cache.reference-values.max-entries:1000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the decoded value of a document, decoding it only if this version is not cached.
+     *
+     * @param document the document to decode
+     * @return the typed document value
+     */
+    public Object getTypedValue(Document document) {
+        return getEntry(document).value();
+    }
+
+    /**
+     * Returns the membership index of a LIST document.
+     *
+     * @param document the document to index
+     * @return the membership index, or null if the document is not a list
+     */
+    public MembershipSet getMembershipSet(Document document) {
+        return getEntry(document).members();
+    }
+
+    /**
+     * Caches a document value that was decoded elsewhere, e.g. read from a rule base file.
+     *
+     * @param document the document the value belongs to
+     * @param value the typed document value
+     */
+    public void prime(Document document, Object value) {
+        MembershipSet members = value instanceof List<?> list ? MembershipSet.of(list) : null;
+        synchronized (entries) {
+            entries.put(document.getDocumentId(), new Entry(document.getVersion(), value, members));
+        }
+    }
+
+    private Entry getEntry(Document document) {
+        synchronized (entries) {
+            Entry entry = entries.get(document.getDocumentId());
+            if (entry != null && Objects.equals(entry.version(), document.getVersion())) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+
+        // Decode outside the lock; a concurrent decode of the same version is harmless
+        Object value = document.getTypedValue();
+        MembershipSet members = value instanceof List<?> list ? MembershipSet.of(list) : null;
+        Entry entry = new Entry(document.getVersion(), value, members);
+        synchronized (entries) {
+            entries.put(document.getDocumentId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Number of lookups served from the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that had to decode the document.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Drops the cached value of a document that was created, updated or deleted.
+     *
+     * @param documentId the document identifier
+     */
+    public void invalidate(String documentId) {
+        synchronized (entries) {
+            entries.remove(documentId);
+        }
+        log.debug("Invalidated cached reference value: {}", documentId);
+    }
+}
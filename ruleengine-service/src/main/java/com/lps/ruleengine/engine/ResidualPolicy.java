@@ -0,0 +1,78 @@
+package com.lps.ruleengine.engine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled policy partially evaluated against attribute values that are the same on every request, e.g. the
+ * city and product of a channel partner. Rules decidable from the fixed values alone are folded away and their
+ * predecessors link straight to the branch they would take, so each request only walks the remaining rules.
+ */
+@Getter
+public final class ResidualPolicy {
+
+    private final String residualId;
+    private final String policyId;
+    private final Map<String, Object> fixedAttributes;
+
+    /**
+     * Version stamp of the compiled policy the residual was built from; a different stamp means it is stale.
+     */
+    private final String versionStamp;
+
+    /**
+     * Version of the rule base snapshot the policy was compiled from.
+     */
+    private final long snapshotVersion;
+
+    /**
+     * The remaining rules, or null when the fixed values decide the policy on their own.
+     */
+    private final DecisionGraph graph;
+
+    /**
+     * The policy's decision when {@link #graph} is null.
+     */
+    private final Boolean decidedResult;
+
+    private final List<String> foldedRuleIds;
+
+    @Getter(AccessLevel.NONE)
+    private final boolean readsFixedAttributes;
+
+    private final LocalDateTime builtAt = LocalDateTime.now();
+
+    ResidualPolicy(String residualId, String policyId, Map<String, Object> fixedAttributes, String versionStamp,
+                   long snapshotVersion, DecisionGraph graph, Boolean decidedResult, List<String> foldedRuleIds) {
+        this.residualId = residualId;
+        this.policyId = policyId;
+        this.fixedAttributes = Collections.unmodifiableMap(fixedAttributes);
+        this.versionStamp = versionStamp;
+        this.snapshotVersion = snapshotVersion;
+        this.graph = graph;
+        this.decidedResult = decidedResult;
+        this.foldedRuleIds = List.copyOf(foldedRuleIds);
+        this.readsFixedAttributes = graph != null
+                && graph.getAttributes().stream().anyMatch(fixedAttributes::containsKey);
+    }
+
+    /**
+     * Whether rules left in the graph still read a fixed attribute, so requests must be merged with the fixed values.
+     */
+    public boolean readsFixedAttributes() {
+        return readsFixedAttributes;
+    }
+
+    public boolean isDecided() {
+        return graph == null;
+    }
+
+    public List<String> getRemainingRuleIds() {
+        return graph == null ? List.of() : graph.getNodes().stream().map(RuleNode::getRuleId).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.lps.ruleengine.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Residual policies built for fixed attribute values, keyed by a residual id derived from the policy id and the
+ * fixed values. A residual stays valid while its policy compiles to the same version stamp; once a rule, policy or
+ * document it was built from changes version, it is rebuilt from the same fixed values on its next use.
+ * Bounded with least-recently-used eviction.
+ */
+@Component
+@Slf4j
+public class ResidualPolicyRegistry {
+
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
+    private final PolicyCompiler policyCompiler;
+    private final Map<String, ResidualPolicy> residuals;
+
+    public ResidualPolicyRegistry(CompiledPolicyRegistry compiledPolicyRegistry, PolicyCompiler policyCompiler,
+                                  @Value("${ruleengine.residuals.max-entries:1000}") int maxEntries) {
+        this.compiledPolicyRegistry = compiledPolicyRegistry;
+        this.policyCompiler = policyCompiler;
+        this.residuals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResidualPolicy> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the residual of a policy for the given fixed values, building it unless a current one is cached.
+     *
+     * @param policyId the policy identifier
+     * @param fixedAttributes the attribute values shared by every request
+     * @return the residual policy
+     * @throws RuntimeException if policy not found or inactive
+     */
+    public ResidualPolicy getOrCreate(String policyId, Map<String, Object> fixedAttributes) {
+        String residualId = residualId(policyId, fixedAttributes);
+        CompiledPolicy policy = compiledPolicyRegistry.getPolicy(policyId);
+        ResidualPolicy residual = lookup(residualId);
+        if (residual != null && residual.getVersionStamp().equals(policy.getVersionStamp())) {
+            return residual;
+        }
+        return build(policy, residualId, new LinkedHashMap<>(fixedAttributes));
+    }
+
+    /**
+     * Returns a residual by id, rebuilding it first if the policy, rules or documents it was built from changed.
+     *
+     * @param residualId the residual identifier
+     * @return the current residual policy
+     * @throws RuntimeException if the residual is unknown or its policy no longer exists or is inactive
+     */
+    public ResidualPolicy get(String residualId) {
+        ResidualPolicy residual = lookup(residualId);
+        if (residual == null) {
+            throw new RuntimeException("Residual policy not found: " + residualId);
+        }
+
+        CompiledPolicy policy = compiledPolicyRegistry.getPolicy(residual.getPolicyId());
+        if (residual.getVersionStamp().equals(policy.getVersionStamp())) {
+            return residual;
+        }
+        log.info("Residual {} of policy {} is stale, rebuilding", residualId, residual.getPolicyId());
+        return build(policy, residualId, residual.getFixedAttributes());
+    }
+
+    private ResidualPolicy lookup(String residualId) {
+        synchronized (residuals) {
+            return residuals.get(residualId);
+        }
+    }
+
+    private ResidualPolicy build(CompiledPolicy policy, String residualId, Map<String, Object> fixedAttributes) {
+        // Built outside the lock; a concurrent build of the same residual is harmless
+        ResidualPolicy residual = policyCompiler.residualize(policy, residualId, fixedAttributes);
+        synchronized (residuals) {
+            residuals.put(residualId, residual);
+        }
+        return residual;
+    }
+
+    /**
+     * Derives a stable id from the policy id and the fixed values, independent of attribute order.
+     */
+    private static String residualId(String policyId, Map<String, Object> fixedAttributes) {
+        String canonical = policyId + "|" + new TreeMap<>(fixedAttributes);
+        return UUID.nameUUIDFromBytes(canonical.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.repository.DocumentRepository;
+import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.repository.RuleRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current {@link RuleBaseSnapshot}. Readers take the reference without locking; the rule, policy and
+ * document services publish each persisted write as a new snapshot, one writer at a time, so readers are never
+ * blocked and never see a write half applied. Loaded on first use, from the {@link RuleBaseFileStore} file when it
+ * is up to date and from the repositories otherwise; data seeded directly through the repositories before that is
+ * part of the load. Writes made by other instances are published by the
+ * {@link ChangeLogPoller} from the change log epoch read at load time on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RuleBase {
+
+    private final RuleRepository ruleRepository;
+    private final DocumentRepository documentRepository;
+    private final PolicyRepository policyRepository;
+    private final ChangeLog changeLog;
+    private final RuleBaseFileStore ruleBaseFileStore;
+
+    private final AtomicReference<RuleBaseSnapshot> current = new AtomicReference<>();
+
+    /**
+     * Change log epoch read just before the first snapshot was loaded; every write up to it is in the snapshot.
+     */
+    @Getter
+    private volatile long loadedEpoch;
+
+    /**
+     * Returns the latest published snapshot, loading the first one if needed.
+     *
+     * @return the current snapshot
+     */
+    public RuleBaseSnapshot current() {
+        RuleBaseSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : load();
+    }
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    public void ruleSaved(Rule rule) {
+        publish(snapshot -> snapshot.withRule(rule));
+    }
+
+    public void ruleDeleted(String ruleId) {
+        publish(snapshot -> snapshot.withoutRule(ruleId));
+    }
+
+    public void documentSaved(Document document) {
+        publish(snapshot -> snapshot.withDocument(document));
+    }
+
+    public void documentDeleted(String documentId) {
+        publish(snapshot -> snapshot.withoutDocument(documentId));
+    }
+
+    public void policySaved(Policy policy) {
+        publish(snapshot -> snapshot.withPolicy(policy));
+    }
+
+    public void policyDeleted(String policyId) {
+        publish(snapshot -> snapshot.withoutPolicy(policyId));
+    }
+
+    private synchronized RuleBaseSnapshot load() {
+        RuleBaseSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            long start = System.nanoTime();
+            // Entities are committed before their change log row, so reading the epoch first never skips a write
+            loadedEpoch = changeLog.currentEpoch();
+            snapshot = ruleBaseFileStore.load(loadedEpoch)
+                    .orElseGet(() -> RuleBaseSnapshot.of(1, ruleRepository.findAll(), documentRepository.findAll(),
+                            policyRepository.findAll()));
+            current.set(snapshot);
+            log.info("Loaded rule base snapshot of {} rules and {} policies at change epoch {} in {} ms",
+                    snapshot.getRules().size(), snapshot.getPolicies().size(), loadedEpoch,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Applies a persisted write to the current snapshot and publishes the result. Before the first load there is
+     * nothing to update; the load reads the write from the database.
+     */
+    private synchronized void publish(UnaryOperator<RuleBaseSnapshot> write) {
+        RuleBaseSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return;
+        }
+        RuleBaseSnapshot next = write.apply(snapshot);
+        current.set(next);
+        log.debug("Published rule base snapshot version {}", next.getVersion());
+    }
+}
@@ -0,0 +1,612 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import com.lps.ruleengine.repository.EntityStamp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file holding a complete rule base: every rule, document and policy, plus the decoded elements of LIST
+ * documents. Read through a read-only memory mapping, so instances on one host share the file's pages, and
+ * decoded without SQL or JSON: records are fixed width and refer to a table of distinct strings, each decoded once.
+ *
+ * <pre>
+ * header (80 bytes)  magic, format version, counts, change epoch, body length, CRC32 of the body,
+ *                    content fingerprint
+ * string offsets     int[stringCount + 1], byte offsets into the string data
+ * string data        UTF-8
+ * rules              {@value #RULE_BYTES} bytes each
+ * documents          {@value #DOCUMENT_BYTES} bytes each
+ * policies           {@value #POLICY_BYTES} bytes each
+ * policy rule ids    int[policyRuleIdCount], string indexes
+ * lists              per LIST document: element count, then a tag byte and value per element
+ * </pre>
+ * Strings are referenced by index, -1 for null. Numbers are big-endian; timestamps are UTC epoch nanoseconds.
+ */
+public final class RuleBaseFile {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final long MAGIC = 0x5242415345463031L; // "RBASEF01"
+    private static final int HEADER_BYTES = 80;
+    private static final int FINGERPRINT_BYTES = 16;
+    private static final int RULE_BYTES = 47;
+    private static final int DOCUMENT_BYTES = 33;
+    private static final int POLICY_BYTES = 49;
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_TRUE = 5;
+    private static final byte TAG_FALSE = 6;
+
+    /**
+     * Describes a rule base file without decoding its records.
+     *
+     * @param changeEpoch change log epoch read before the entities were exported; every write up to it is included
+     * @param bodyLength bytes after the header
+     * @param checksum CRC32 of the body
+     * @param contentFingerprint {@link #fingerprint} of the exported entities, in hex
+     */
+    public record Header(int formatVersion, long changeEpoch, long createdAtMillis, int ruleCount, int documentCount,
+                         int policyCount, int stringCount, int policyRuleIdCount, long bodyLength, long checksum,
+                         String contentFingerprint) {
+
+        public long fileLength() {
+            return HEADER_BYTES + bodyLength;
+        }
+    }
+
+    /**
+     * Decoded contents of a rule base file.
+     *
+     * @param decodedLists elements of each LIST document whose elements are all scalars, by document id
+     */
+    public record Contents(Header header, List<Rule> rules, List<Document> documents, List<Policy> policies,
+                           Map<String, List<Object>> decodedLists) {
+    }
+
+    private RuleBaseFile() {
+    }
+
+    /**
+     * Writes a rule base to a file. The file is written next to the target and moved into place, so instances that
+     * map the previous file keep reading it intact.
+     *
+     * @param snapshot the rule base to write
+     * @param changeEpoch the change log epoch read before the snapshot's entities were read
+     * @param decodedLists decoded values of LIST documents, by document id; others are stored as text only
+     * @param path the file to write
+     * @return the header of the written file
+     */
+    public static Header write(RuleBaseSnapshot snapshot, long changeEpoch, Map<String, List<?>> decodedLists,
+                               Path path) {
+        StringTable strings = new StringTable();
+        try {
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+            DataOutputStream records = new DataOutputStream(recordBytes);
+            ByteArrayOutputStream listBytes = new ByteArrayOutputStream();
+            DataOutputStream lists = new DataOutputStream(listBytes);
+            List<Integer> policyRuleIds = new ArrayList<>();
+
+            Collection<Rule> rules = snapshot.getRules();
+            for (Rule rule : rules) {
+                records.writeInt(strings.indexOf(rule.getRuleId()));
+                records.writeInt(strings.indexOf(rule.getExpression()));
+                records.writeInt(strings.indexOf(rule.getReferenceId()));
+                records.writeByte(ordinal(rule.getOnTrueType()));
+                records.writeInt(strings.indexOf(rule.getOnTrueValue()));
+                records.writeByte(ordinal(rule.getOnFalseType()));
+                records.writeInt(strings.indexOf(rule.getOnFalseValue()));
+                records.writeInt(strings.indexOf(rule.getDescription()));
+                records.writeByte(flag(rule.getIsActive()));
+                records.writeInt(integer(rule.getVersion()));
+                records.writeLong(time(rule.getCreatedAt()));
+                records.writeLong(time(rule.getUpdatedAt()));
+            }
+
+            Collection<Document> documents = snapshot.getDocuments();
+            for (Document document : documents) {
+                records.writeInt(strings.indexOf(document.getDocumentId()));
+                records.writeInt(strings.indexOf(document.getDocumentValue()));
+                records.writeByte(ordinal(document.getValueType()));
+                records.writeInt(integer(document.getVersion()));
+                records.writeLong(time(document.getCreatedAt()));
+                records.writeLong(time(document.getUpdatedAt()));
+                List<?> elements = decodedLists.get(document.getDocumentId());
+                if (elements != null && elements.stream().allMatch(RuleBaseFile::isScalar)) {
+                    records.writeInt(lists.size());
+                    writeList(elements, lists, strings);
+                } else {
+                    records.writeInt(-1);
+                }
+            }
+
+            Collection<Policy> policies = snapshot.getPolicies();
+            for (Policy policy : policies) {
+                records.writeInt(strings.indexOf(policy.getPolicyId()));
+                records.writeInt(strings.indexOf(policy.getPolicyName()));
+                records.writeInt(strings.indexOf(policy.getDescription()));
+                records.writeInt(strings.indexOf(policy.getRootRuleId()));
+                records.writeByte(flag(policy.getIsActive()));
+                records.writeInt(integer(policy.getPriority()));
+                records.writeInt(integer(policy.getVersion()));
+                records.writeLong(time(policy.getCreatedAt()));
+                records.writeLong(time(policy.getUpdatedAt()));
+                records.writeInt(policyRuleIds.size());
+                if (policy.getRuleIds() != null) {
+                    records.writeInt(policy.getRuleIds().size());
+                    policy.getRuleIds().forEach(ruleId -> policyRuleIds.add(strings.indexOf(ruleId)));
+                } else {
+                    records.writeInt(-1);
+                }
+            }
+
+            byte[] stringData = strings.data();
+            int bodyLength = 4 * (strings.size() + 1) + stringData.length + recordBytes.size()
+                    + 4 * policyRuleIds.size() + listBytes.size();
+            ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+            file.position(HEADER_BYTES);
+            for (int offset : strings.offsets()) {
+                file.putInt(offset);
+            }
+            file.put(stringData);
+            file.put(recordBytes.toByteArray());
+            for (int ruleId : policyRuleIds) {
+                file.putInt(ruleId);
+            }
+            file.put(listBytes.toByteArray());
+
+            CRC32 crc = new CRC32();
+            crc.update(file.array(), HEADER_BYTES, bodyLength);
+            Header header = new Header(FORMAT_VERSION, changeEpoch, System.currentTimeMillis(), rules.size(),
+                    documents.size(), policies.size(), strings.size(), policyRuleIds.size(), bodyLength,
+                    crc.getValue(), fingerprint(stamps(rules, Rule::getRuleId, Rule::getVersion, Rule::getUpdatedAt),
+                            stamps(documents, Document::getDocumentId, Document::getVersion,
+                                    Document::getUpdatedAt),
+                            stamps(policies, Policy::getPolicyId, Policy::getVersion, Policy::getUpdatedAt)));
+            writeHeader(header, file);
+
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(temporary, file.array());
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return header;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write rule base file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Digests the id, version and update time of every rule, document and policy, independent of their order.
+     * Every write bumps an entity's version, so a database holds the same contents as a file exactly when their
+     * fingerprints match, even after it was recreated with the same number of different entities.
+     *
+     * @param rules stamps of the rules
+     * @param documents stamps of the documents
+     * @param policies stamps of the policies
+     * @return the leading {@value #FINGERPRINT_BYTES} bytes of a SHA-256 digest, in hex
+     */
+    public static String fingerprint(Collection<? extends EntityStamp> rules,
+                                     Collection<? extends EntityStamp> documents,
+                                     Collection<? extends EntityStamp> policies) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(12);
+        for (Collection<? extends EntityStamp> table : List.of(rules, documents, policies)) {
+            List<? extends EntityStamp> sorted = table.stream()
+                    .sorted(Comparator.comparing(EntityStamp::getId))
+                    .toList();
+            digest.update(entry.clear().putInt(sorted.size()).flip());
+            for (EntityStamp stamp : sorted) {
+                byte[] id = stamp.getId().getBytes(StandardCharsets.UTF_8);
+                digest.update(entry.clear().putInt(id.length).flip());
+                digest.update(id);
+                digest.update(entry.clear().putInt(integer(stamp.getVersion())).putLong(time(stamp.getUpdatedAt()))
+                        .flip());
+            }
+        }
+        byte[] hash = digest.digest();
+        return HexFormat.of().formatHex(hash, 0, FINGERPRINT_BYTES);
+    }
+
+    private static <T> List<EntityStamp> stamps(Collection<T> entities, Function<T, String> id,
+                                                Function<T, Integer> version, Function<T, LocalDateTime> updatedAt) {
+        return entities.stream()
+                .<EntityStamp>map(entity -> new Stamp(id.apply(entity), version.apply(entity), updatedAt.apply(entity)))
+                .toList();
+    }
+
+    private record Stamp(String id, Integer version, LocalDateTime updatedAt) implements EntityStamp {
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getVersion() {
+            return version;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    /**
+     * Reads only the header of a rule base file.
+     *
+     * @param path the file
+     * @return the header
+     * @throws RuntimeException if the file cannot be read or is not a rule base file of this format version
+     */
+    public static Header readHeader(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until the header is complete or the file ends
+            }
+            return parseHeader(buffer.flip(), channel.size(), path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read rule base file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Maps a rule base file read-only, verifies its checksum and decodes it.
+     *
+     * @param path the file
+     * @return the decoded contents
+     * @throws RuntimeException if the file cannot be read, is not a rule base file of this format version, or its
+     *                          checksum does not match
+     */
+    public static Contents read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new RuntimeException("Rule base file " + path + " is too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Header header = parseHeader(buffer.slice(0, (int) Math.min(size, HEADER_BYTES)), size, path);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_BYTES, (int) header.bodyLength()));
+            if (crc.getValue() != header.checksum()) {
+                throw new RuntimeException("Rule base file " + path + " is corrupt: checksum mismatch");
+            }
+            return new Reader(buffer, header).read();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read rule base file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Header parseHeader(ByteBuffer buffer, long fileLength, Path path) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new RuntimeException("Not a rule base file: " + path);
+        }
+        int formatVersion = buffer.getInt(8);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new RuntimeException("Rule base file " + path + " has format version " + formatVersion
+                    + ", expected " + FORMAT_VERSION);
+        }
+        Header header = new Header(formatVersion, buffer.getLong(16), buffer.getLong(24), buffer.getInt(32),
+                buffer.getInt(36), buffer.getInt(40), buffer.getInt(12), buffer.getInt(44), buffer.getLong(48),
+                buffer.getLong(56), HexFormat.of().formatHex(bytes(buffer, 64, FINGERPRINT_BYTES)));
+        if (header.fileLength() != fileLength) {
+            throw new RuntimeException("Rule base file " + path + " is truncated: " + fileLength + " of "
+                    + header.fileLength() + " bytes");
+        }
+        return header;
+    }
+
+    private static void writeHeader(Header header, ByteBuffer file) {
+        file.putLong(0, MAGIC);
+        file.putInt(8, header.formatVersion());
+        file.putInt(12, header.stringCount());
+        file.putLong(16, header.changeEpoch());
+        file.putLong(24, header.createdAtMillis());
+        file.putInt(32, header.ruleCount());
+        file.putInt(36, header.documentCount());
+        file.putInt(40, header.policyCount());
+        file.putInt(44, header.policyRuleIdCount());
+        file.putLong(48, header.bodyLength());
+        file.putLong(56, header.checksum());
+        file.put(64, HexFormat.of().parseHex(header.contentFingerprint()));
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int at, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return bytes;
+    }
+
+    private static void writeList(List<?> elements, DataOutputStream out, StringTable strings) throws IOException {
+        out.writeInt(elements.size());
+        for (Object element : elements) {
+            if (element == null) {
+                out.writeByte(TAG_NULL);
+            } else if (element instanceof String text) {
+                out.writeByte(TAG_STRING);
+                out.writeInt(strings.indexOf(text));
+            } else if (element instanceof Integer value) {
+                out.writeByte(TAG_INT);
+                out.writeInt(value);
+            } else if (element instanceof Long value) {
+                out.writeByte(TAG_LONG);
+                out.writeLong(value);
+            } else if (element instanceof Number value) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(value.doubleValue());
+            } else {
+                out.writeByte((Boolean) element ? TAG_TRUE : TAG_FALSE);
+            }
+        }
+    }
+
+    private static boolean isScalar(Object element) {
+        return element == null || element instanceof String || element instanceof Integer || element instanceof Long
+                || element instanceof Double || element instanceof Float || element instanceof Boolean;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() : -1);
+    }
+
+    private static byte flag(Boolean value) {
+        return (byte) (value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static int integer(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static long time(LocalDateTime value) {
+        if (value == null) {
+            return NULL_TIME;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+
+    /**
+     * Decodes the sections of a mapped file with absolute reads; nothing is copied but the string bytes.
+     */
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final Header header;
+        private final String[] strings;
+        private final int rulesStart;
+        private final int documentsStart;
+        private final int policiesStart;
+        private final int policyRuleIdsStart;
+        private final int listsStart;
+
+        Reader(ByteBuffer buffer, Header header) {
+            this.buffer = buffer;
+            this.header = header;
+            int stringCount = header.stringCount();
+            int stringDataStart = HEADER_BYTES + 4 * (stringCount + 1);
+            this.strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                int from = buffer.getInt(HEADER_BYTES + 4 * i);
+                int to = buffer.getInt(HEADER_BYTES + 4 * (i + 1));
+                byte[] bytes = new byte[to - from];
+                buffer.get(stringDataStart + from, bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            this.rulesStart = stringDataStart + buffer.getInt(HEADER_BYTES + 4 * stringCount);
+            this.documentsStart = rulesStart + header.ruleCount() * RULE_BYTES;
+            this.policiesStart = documentsStart + header.documentCount() * DOCUMENT_BYTES;
+            this.policyRuleIdsStart = policiesStart + header.policyCount() * POLICY_BYTES;
+            this.listsStart = policyRuleIdsStart + 4 * header.policyRuleIdCount();
+        }
+
+        Contents read() {
+            List<Rule> rules = new ArrayList<>(header.ruleCount());
+            for (int i = 0; i < header.ruleCount(); i++) {
+                rules.add(rule(rulesStart + i * RULE_BYTES));
+            }
+            List<Document> documents = new ArrayList<>(header.documentCount());
+            Map<String, List<Object>> decodedLists = new HashMap<>();
+            for (int i = 0; i < header.documentCount(); i++) {
+                int at = documentsStart + i * DOCUMENT_BYTES;
+                Document document = document(at);
+                documents.add(document);
+                int listOffset = buffer.getInt(at + 29);
+                if (listOffset >= 0) {
+                    decodedLists.put(document.getDocumentId(), list(listsStart + listOffset));
+                }
+            }
+            List<Policy> policies = new ArrayList<>(header.policyCount());
+            for (int i = 0; i < header.policyCount(); i++) {
+                policies.add(policy(policiesStart + i * POLICY_BYTES));
+            }
+            return new Contents(header, rules, documents, policies, decodedLists);
+        }
+
+        private Rule rule(int at) {
+            return Rule.builder()
+                    .ruleId(string(at))
+                    .expression(string(at + 4))
+                    .referenceId(string(at + 8))
+                    .onTrueType(outcomeType(buffer.get(at + 12)))
+                    .onTrueValue(string(at + 13))
+                    .onFalseType(outcomeType(buffer.get(at + 17)))
+                    .onFalseValue(string(at + 18))
+                    .description(string(at + 22))
+                    .isActive(flag(buffer.get(at + 26)))
+                    .version(integer(buffer.getInt(at + 27)))
+                    .createdAt(time(buffer.getLong(at + 31)))
+                    .updatedAt(time(buffer.getLong(at + 39)))
+                    .build();
+        }
+
+        private Document document(int at) {
+            byte valueType = buffer.get(at + 8);
+            return Document.builder()
+                    .documentId(string(at))
+                    .documentValue(string(at + 4))
+                    .valueType(valueType >= 0 ? Document.ValueType.values()[valueType] : null)
+                    .version(integer(buffer.getInt(at + 9)))
+                    .createdAt(time(buffer.getLong(at + 13)))
+                    .updatedAt(time(buffer.getLong(at + 21)))
+                    .build();
+        }
+
+        private Policy policy(int at) {
+            int ruleIdsStart = buffer.getInt(at + 41);
+            int ruleIdsCount = buffer.getInt(at + 45);
+            Set<String> ruleIds = null;
+            if (ruleIdsCount >= 0) {
+                ruleIds = new LinkedHashSet<>();
+                for (int i = 0; i < ruleIdsCount; i++) {
+                    ruleIds.add(strings[buffer.getInt(policyRuleIdsStart + 4 * (ruleIdsStart + i))]);
+                }
+            }
+            return Policy.builder()
+                    .policyId(string(at))
+                    .policyName(string(at + 4))
+                    .description(string(at + 8))
+                    .rootRuleId(string(at + 12))
+                    .isActive(flag(buffer.get(at + 16)))
+                    .priority(integer(buffer.getInt(at + 17)))
+                    .version(integer(buffer.getInt(at + 21)))
+                    .createdAt(time(buffer.getLong(at + 25)))
+                    .updatedAt(time(buffer.getLong(at + 33)))
+                    .ruleIds(ruleIds)
+                    .build();
+        }
+
+        private List<Object> list(int at) {
+            int count = buffer.getInt(at);
+            List<Object> elements = new ArrayList<>(count);
+            int position = at + 4;
+            for (int i = 0; i < count; i++) {
+                byte tag = buffer.get(position++);
+                switch (tag) {
+                    case TAG_NULL -> elements.add(null);
+                    case TAG_STRING -> {
+                        elements.add(strings[buffer.getInt(position)]);
+                        position += 4;
+                    }
+                    case TAG_INT -> {
+                        elements.add(buffer.getInt(position));
+                        position += 4;
+                    }
+                    case TAG_LONG -> {
+                        elements.add(buffer.getLong(position));
+                        position += 8;
+                    }
+                    case TAG_DOUBLE -> {
+                        elements.add(buffer.getDouble(position));
+                        position += 8;
+                    }
+                    case TAG_TRUE -> elements.add(true);
+                    case TAG_FALSE -> elements.add(false);
+                    default -> throw new RuntimeException("Unknown list element tag " + tag + " in rule base file");
+                }
+            }
+            return elements;
+        }
+
+        private String string(int at) {
+            int index = buffer.getInt(at);
+            return index >= 0 ? strings[index] : null;
+        }
+
+        private static Rule.OutcomeType outcomeType(byte ordinal) {
+            return ordinal >= 0 ? Rule.OutcomeType.values()[ordinal] : null;
+        }
+
+        private static Boolean flag(byte value) {
+            return value < 0 ? null : value == 1;
+        }
+
+        private static Integer integer(int value) {
+            return value != NULL_INT ? value : null;
+        }
+
+        private static LocalDateTime time(long value) {
+            if (value == NULL_TIME) {
+                return null;
+            }
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                    (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Distinct strings in first-use order, so repeated rule ids and document ids are stored and decoded once.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        int indexOf(String value) {
+            return value == null ? -1 : indexes.computeIfAbsent(value, key -> indexes.size());
+        }
+
+        int size() {
+            return indexes.size();
+        }
+
+        byte[] data() {
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            for (String value : indexes.keySet()) {
+                data.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+            return data.toByteArray();
+        }
+
+        int[] offsets() {
+            int[] offsets = new int[indexes.size() + 1];
+            int i = 0;
+            for (String value : indexes.keySet()) {
+                offsets[i + 1] = offsets[i] + value.getBytes(StandardCharsets.UTF_8).length;
+                i++;
+            }
+            return offsets;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.repository.DocumentRepository;
+import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.repository.RuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the rule base to the configured {@link RuleBaseFile} and loads it back at startup, in place of querying
+ * every rule, document and policy and decoding every LIST document. The file is only used while it is up to date:
+ * its change epoch must equal the database's and its content fingerprint must match one computed from the ids,
+ * versions and update times in the database, otherwise the rule base is loaded from the database as usual.
+ */
+@Component
+@Slf4j
+public class RuleBaseFileStore {
+
+    private final RuleRepository ruleRepository;
+    private final DocumentRepository documentRepository;
+    private final PolicyRepository policyRepository;
+    private final ChangeLog changeLog;
+    private final ReferenceValueCache referenceValueCache;
+
+    // Null when no file is configured
+    private final Path path;
+    private final boolean loadOnStartup;
+
+    public RuleBaseFileStore(RuleRepository ruleRepository, DocumentRepository documentRepository,
+                             PolicyRepository policyRepository, ChangeLog changeLog,
+                             ReferenceValueCache referenceValueCache,
+                             @Value("${ruleengine.rule-base-file.path:}") String path,
+                             @Value("${ruleengine.rule-base-file.load-on-startup:true}") boolean loadOnStartup) {
+        this.ruleRepository = ruleRepository;
+        this.documentRepository = documentRepository;
+        this.policyRepository = policyRepository;
+        this.changeLog = changeLog;
+        this.referenceValueCache = referenceValueCache;
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    public Optional<Path> getPath() {
+        return Optional.ofNullable(path);
+    }
+
+    /**
+     * Writes the rule base as currently stored in the database to the configured file.
+     *
+     * @return the header of the written file
+     * @throws RuntimeException if no file is configured or it cannot be written
+     */
+    public RuleBaseFile.Header export() {
+        if (path == null) {
+            throw new RuntimeException("No rule base file configured (ruleengine.rule-base-file.path)");
+        }
+        // Read before the entities, like a load, so the file never claims a write it does not contain
+        long changeEpoch = changeLog.currentEpoch();
+        RuleBaseSnapshot snapshot = RuleBaseSnapshot.of(1, ruleRepository.findAll(), documentRepository.findAll(),
+                policyRepository.findAll());
+
+        Map<String, List<?>> decodedLists = new HashMap<>();
+        for (Document document : snapshot.getDocuments()) {
+            if (document.getValueType() == Document.ValueType.LIST
+                    && referenceValueCache.getTypedValue(document) instanceof List<?> elements) {
+                decodedLists.put(document.getDocumentId(), elements);
+            }
+        }
+
+        RuleBaseFile.Header header = RuleBaseFile.write(snapshot, changeEpoch, decodedLists, path);
+        log.info("Exported {} rules, {} documents and {} policies at change epoch {} to {} ({} bytes)",
+                header.ruleCount(), header.documentCount(), header.policyCount(), changeEpoch, path,
+                header.fileLength());
+        return header;
+    }
+
+    /**
+     * Tells whether a file holds what the database holds now, so the next startup would load it.
+     *
+     * @param header the file's header
+     * @param changeEpoch the database's current change epoch
+     * @return true if the file is at the database's change epoch and its content fingerprint matches the database's
+     */
+    public boolean isCurrent(RuleBaseFile.Header header, long changeEpoch) {
+        return header.changeEpoch() == changeEpoch && header.contentFingerprint().equals(databaseFingerprint());
+    }
+
+    // Reads three columns per entity, far cheaper than loading the entities the file replaces
+    private String databaseFingerprint() {
+        return RuleBaseFile.fingerprint(ruleRepository.findAllStamps(), documentRepository.findAllStamps(),
+                policyRepository.findAllStamps());
+    }
+
+    /**
+     * Reads and verifies the configured file.
+     *
+     * @return the file's header, or empty if no file is configured or it does not exist
+     * @throws RuntimeException if the file is unreadable, of another format version or corrupt
+     */
+    public Optional<RuleBaseFile.Header> describe() {
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(RuleBaseFile.read(path).header());
+    }
+
+    /**
+     * Loads the rule base from the configured file if it is up to date with the database, and primes the reference
+     * value cache with its decoded lists.
+     *
+     * @param changeEpoch the database's current change epoch
+     * @return the loaded snapshot, or empty if the database must be read instead
+     */
+    Optional<RuleBaseSnapshot> load(long changeEpoch) {
+        if (path == null || !loadOnStartup || !Files.exists(path)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            RuleBaseFile.Header header = RuleBaseFile.readHeader(path);
+            if (header.changeEpoch() != changeEpoch) {
+                log.info("Rule base file {} is at change epoch {} but the database is at {}, loading from the database",
+                        path, header.changeEpoch(), changeEpoch);
+                return Optional.empty();
+            }
+            // The epoch alone does not tell a database recreated with other contents, e.g. another generator seed
+            String fingerprint = databaseFingerprint();
+            if (!header.contentFingerprint().equals(fingerprint)) {
+                log.info("Rule base file {} has content fingerprint {} but the database has {}, loading from the "
+                        + "database", path, header.contentFingerprint(), fingerprint);
+                return Optional.empty();
+            }
+
+            RuleBaseFile.Contents contents = RuleBaseFile.read(path);
+            RuleBaseSnapshot snapshot = RuleBaseSnapshot.of(1, contents.rules(), contents.documents(),
+                    contents.policies());
+            for (Document document : contents.documents()) {
+                List<Object> elements = contents.decodedLists().get(document.getDocumentId());
+                if (elements != null) {
+                    referenceValueCache.prime(document, elements);
+                }
+            }
+            log.info("Loaded rule base file {} ({} bytes) in {} ms", path, header.fileLength(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return Optional.of(snapshot);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring rule base file {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
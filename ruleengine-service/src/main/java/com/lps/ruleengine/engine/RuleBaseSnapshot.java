@@ -0,0 +1,156 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable copy of every rule, document and policy at one version of the rule base.
+ * A compilation reads a single snapshot, so a graph never mixes rules from before and after a write.
+ * Writes produce a new snapshot that shares nothing mutable with the old one; entities are copied on the way in
+ * and must not be modified by readers.
+ */
+public final class RuleBaseSnapshot {
+
+    /**
+     * Incremented on every published write; 1 for the snapshot loaded from the database.
+     */
+    @Getter
+    private final long version;
+
+    private final Map<String, Rule> rules;
+    private final Map<String, Document> documents;
+    private final Map<String, Policy> policies;
+
+    private RuleBaseSnapshot(long version, Map<String, Rule> rules, Map<String, Document> documents,
+                             Map<String, Policy> policies) {
+        this.version = version;
+        this.rules = Collections.unmodifiableMap(rules);
+        this.documents = Collections.unmodifiableMap(documents);
+        this.policies = Collections.unmodifiableMap(policies);
+    }
+
+    static RuleBaseSnapshot of(long version, Iterable<Rule> rules, Iterable<Document> documents,
+                               Iterable<Policy> policies) {
+        Map<String, Rule> ruleMap = new HashMap<>();
+        rules.forEach(rule -> ruleMap.put(rule.getRuleId(), copyOf(rule)));
+        Map<String, Document> documentMap = new HashMap<>();
+        documents.forEach(document -> documentMap.put(document.getDocumentId(), copyOf(document)));
+        Map<String, Policy> policyMap = new HashMap<>();
+        policies.forEach(policy -> policyMap.put(policy.getPolicyId(), copyOf(policy)));
+        return new RuleBaseSnapshot(version, ruleMap, documentMap, policyMap);
+    }
+
+    public Rule getRule(String ruleId) {
+        return rules.get(ruleId);
+    }
+
+    public Document getDocument(String documentId) {
+        return documents.get(documentId);
+    }
+
+    public Policy getPolicy(String policyId) {
+        return policies.get(policyId);
+    }
+
+    public Collection<Rule> getRules() {
+        return rules.values();
+    }
+
+    public Collection<Document> getDocuments() {
+        return documents.values();
+    }
+
+    public Collection<Policy> getPolicies() {
+        return policies.values();
+    }
+
+    RuleBaseSnapshot withRule(Rule rule) {
+        return new RuleBaseSnapshot(version + 1, with(rules, rule.getRuleId(), copyOf(rule)), documents, policies);
+    }
+
+    RuleBaseSnapshot withoutRule(String ruleId) {
+        return new RuleBaseSnapshot(version + 1, without(rules, ruleId), documents, policies);
+    }
+
+    RuleBaseSnapshot withDocument(Document document) {
+        return new RuleBaseSnapshot(version + 1, rules,
+                with(documents, document.getDocumentId(), copyOf(document)), policies);
+    }
+
+    RuleBaseSnapshot withoutDocument(String documentId) {
+        return new RuleBaseSnapshot(version + 1, rules, without(documents, documentId), policies);
+    }
+
+    RuleBaseSnapshot withPolicy(Policy policy) {
+        return new RuleBaseSnapshot(version + 1, rules, documents,
+                with(policies, policy.getPolicyId(), copyOf(policy)));
+    }
+
+    RuleBaseSnapshot withoutPolicy(String policyId) {
+        return new RuleBaseSnapshot(version + 1, rules, documents, without(policies, policyId));
+    }
+
+    // The maps of the other two entity kinds are shared unchanged; only the written kind is copied
+    private static <T> Map<String, T> with(Map<String, T> map, String id, T value) {
+        Map<String, T> copy = new HashMap<>(map);
+        copy.put(id, value);
+        return copy;
+    }
+
+    private static <T> Map<String, T> without(Map<String, T> map, String id) {
+        Map<String, T> copy = new HashMap<>(map);
+        copy.remove(id);
+        return copy;
+    }
+
+    private static Rule copyOf(Rule rule) {
+        return Rule.builder()
+                .ruleId(rule.getRuleId())
+                .expression(rule.getExpression())
+                .referenceId(rule.getReferenceId())
+                .onTrueType(rule.getOnTrueType())
+                .onTrueValue(rule.getOnTrueValue())
+                .onFalseType(rule.getOnFalseType())
+                .onFalseValue(rule.getOnFalseValue())
+                .description(rule.getDescription())
+                .isActive(rule.getIsActive())
+                .createdAt(rule.getCreatedAt())
+                .updatedAt(rule.getUpdatedAt())
+                .version(rule.getVersion())
+                .build();
+    }
+
+    private static Document copyOf(Document document) {
+        return Document.builder()
+                .documentId(document.getDocumentId())
+                .documentValue(document.getDocumentValue())
+                .valueType(document.getValueType())
+                .createdAt(document.getCreatedAt())
+                .updatedAt(document.getUpdatedAt())
+                .version(document.getVersion())
+                .build();
+    }
+
+    private static Policy copyOf(Policy policy) {
+        return Policy.builder()
+                .policyId(policy.getPolicyId())
+                .policyName(policy.getPolicyName())
+                .description(policy.getDescription())
+                .rootRuleId(policy.getRootRuleId())
+                .ruleIds(policy.getRuleIds() != null ? Set.copyOf(policy.getRuleIds()) : null)
+                .isActive(policy.getIsActive())
+                .priority(policy.getPriority())
+                .createdAt(policy.getCreatedAt())
+                .updatedAt(policy.getUpdatedAt())
+                .version(policy.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.lps.ruleengine.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome and timing counters of one rule, shared by every compiled node of that rule.
+ * Counts are striped {@link LongAdder}s so concurrent evaluations never contend; evaluation time is measured on a
+ * sample of evaluations to keep {@link System#nanoTime()} off most hot-path calls. Outcomes are also counted in the
+ * rule's {@link EvaluationMetrics.RuleOutcomes}, which unlike these counts survive a reset of the rule's statistics.
+ */
+public final class RuleCounters {
+
+    // One evaluation in 16 is timed
+    private static final int TIMING_SAMPLE_MASK = 15;
+
+    private final String ruleId;
+    private final LongAdder trueCount = new LongAdder();
+    private final LongAdder falseCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder timedCount = new LongAdder();
+    private final LongAdder timedNanos = new LongAdder();
+    private final EvaluationMetrics.RuleOutcomes outcomes;
+
+    RuleCounters(String ruleId) {
+        this(ruleId, null);
+    }
+
+    RuleCounters(String ruleId, EvaluationMetrics.RuleOutcomes outcomes) {
+        this.ruleId = ruleId;
+        this.outcomes = outcomes;
+    }
+
+    /**
+     * Decides whether the caller should time the evaluation it is about to run.
+     */
+    public boolean sampleTiming() {
+        return (ThreadLocalRandom.current().nextInt() & TIMING_SAMPLE_MASK) == 0;
+    }
+
+    /**
+     * Records an evaluated outcome.
+     *
+     * @param result the condition result
+     * @param elapsedNanos time the evaluation took, or a negative value if it was not timed
+     */
+    public void record(boolean result, long elapsedNanos) {
+        (result ? trueCount : falseCount).increment();
+        if (outcomes != null) {
+            outcomes.record(result);
+        }
+        recordTime(elapsedNanos);
+    }
+
+    /**
+     * Records an evaluation that failed.
+     *
+     * @param elapsedNanos time the evaluation took, or a negative value if it was not timed
+     */
+    public void recordError(long elapsedNanos) {
+        errorCount.increment();
+        if (outcomes != null) {
+            outcomes.recordError();
+        }
+        recordTime(elapsedNanos);
+    }
+
+    private void recordTime(long elapsedNanos) {
+        if (elapsedNanos >= 0) {
+            timedCount.increment();
+            timedNanos.add(elapsedNanos);
+        }
+    }
+
+    public long getTrueCount() {
+        return trueCount.sum();
+    }
+
+    public long getFalseCount() {
+        return falseCount.sum();
+    }
+
+    /**
+     * Number of evaluations that produced an outcome (errors excluded).
+     */
+    public long getDecisions() {
+        return trueCount.sum() + falseCount.sum();
+    }
+
+    /**
+     * Share of decided evaluations that took the given branch, smoothed so that rules with few samples
+     * start out at one half instead of zero or one.
+     *
+     * @param branch the outcome to measure
+     * @return the smoothed probability of that outcome
+     */
+    public double getBranchRate(boolean branch) {
+        long taken = branch ? trueCount.sum() : falseCount.sum();
+        return (taken + 1.0) / (getDecisions() + 2.0);
+    }
+
+    /**
+     * Mean evaluation time over the timed sample, or 0 if nothing was timed yet.
+     */
+    public double getMeanNanos() {
+        long timed = timedCount.sum();
+        return timed == 0 ? 0.0 : (double) timedNanos.sum() / timed;
+    }
+
+    /**
+     * Snapshot of the counters for the statistics endpoint.
+     */
+    public Map<String, Object> toMap() {
+        long trues = trueCount.sum();
+        long falses = falseCount.sum();
+        long decided = trues + falses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ruleId", ruleId);
+        stats.put("evaluations", decided + errorCount.sum());
+        stats.put("trueCount", trues);
+        stats.put("falseCount", falses);
+        stats.put("errorCount", errorCount.sum());
+        stats.put("trueRate", decided == 0 ? 0.0 : (double) trues / decided);
+        stats.put("falseRate", decided == 0 ? 0.0 : (double) falses / decided);
+        stats.put("averageEvaluationNanos", getMeanNanos());
+        stats.put("timedSamples", timedCount.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,109 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Rule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Rejects rule and policy writes that would make a rule graph cyclic.
+ * Validating on every write keeps all persisted graphs acyclic, so evaluation never has to track visited rules.
+ * Successors that do not exist yet are allowed; rules may be created in any order.
+ */
+@Component
+@RequiredArgsConstructor
+public class RuleGraphValidator {
+
+    private final RuleBase ruleBase;
+
+    /**
+     * Checks that saving a rule keeps the graph acyclic.
+     *
+     * @param candidate the rule about to be created or updated
+     * @throws RuntimeException if the rule would be part of a cycle
+     */
+    public void validateRule(Rule candidate) {
+        Map<String, Rule> rules = loadRules();
+        rules.put(candidate.getRuleId(), candidate);
+        checkAcyclic(candidate.getRuleId(), rules);
+    }
+
+    /**
+     * Checks that the graph reachable from a policy's root rule is acyclic.
+     *
+     * @param rootRuleId the policy's root rule
+     * @throws RuntimeException if a cycle is reachable from the root rule
+     */
+    public void validatePolicy(String rootRuleId) {
+        checkAcyclic(rootRuleId, loadRules());
+    }
+
+    private Map<String, Rule> loadRules() {
+        Map<String, Rule> rules = new HashMap<>();
+        for (Rule rule : ruleBase.current().getRules()) {
+            rules.put(rule.getRuleId(), rule);
+        }
+        return rules;
+    }
+
+    /**
+     * Iterative depth-first search, so long programmatically generated chains cannot overflow the stack.
+     */
+    private static void checkAcyclic(String rootRuleId, Map<String, Rule> rules) {
+        // false while a rule is on the current path, true once all of its successors are done
+        Map<String, Boolean> finished = new HashMap<>();
+        Deque<String> path = new ArrayDeque<>();
+        Deque<Iterator<String>> pending = new ArrayDeque<>();
+
+        finished.put(rootRuleId, false);
+        path.push(rootRuleId);
+        pending.push(successors(rules.get(rootRuleId)).iterator());
+
+        while (!pending.isEmpty()) {
+            Iterator<String> successors = pending.peek();
+            if (!successors.hasNext()) {
+                finished.put(path.pop(), true);
+                pending.pop();
+                continue;
+            }
+
+            String next = successors.next();
+            Boolean state = finished.get(next);
+            if (state == null) {
+                finished.put(next, false);
+                path.push(next);
+                pending.push(successors(rules.get(next)).iterator());
+            } else if (!state) {
+                throw new RuntimeException("Circular dependency detected in rules: " + describeCycle(path, next));
+            }
+        }
+    }
+
+    private static String describeCycle(Deque<String> path, String repeated) {
+        StringJoiner cycle = new StringJoiner(" -> ");
+        boolean inCycle = false;
+        for (Iterator<String> it = path.descendingIterator(); it.hasNext(); ) {
+            String ruleId = it.next();
+            inCycle |= ruleId.equals(repeated);
+            if (inCycle) {
+                cycle.add(ruleId);
+            }
+        }
+        return cycle.add(repeated).toString();
+    }
+
+    private static List<String> successors(Rule rule) {
+        if (rule == null) {
+            return List.of();
+        }
+        List<String> successors = new ArrayList<>(2);
+        if (rule.getOnTrueType() == Rule.OutcomeType.RULE && rule.getOnTrueRuleId() != null) {
+            successors.add(rule.getOnTrueRuleId());
+        }
+        if (rule.getOnFalseType() == Rule.OutcomeType.RULE && rule.getOnFalseRuleId() != null) {
+            successors.add(rule.getOnFalseRuleId());
+        }
+        return successors;
+    }
+}
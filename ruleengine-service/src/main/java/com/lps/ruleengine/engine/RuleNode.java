@@ -0,0 +1,148 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.engine.expression.Expression;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Compiled form of a single {@link com.lps.ruleengine.model.Rule}.
+ * Successors are held as direct node pointers and the reference document value is resolved up front,
+ * so walking a compiled graph never touches the repositories.
+ */
+@Getter
+public final class RuleNode {
+
+    private final String ruleId;
+    private final String expression;
+    private final Expression condition;
+    private final String referenceId;
+    private final Object referenceValue;
+
+    /**
+     * Set for rules that could not be compiled (missing or inactive); the evaluator raises it when the node is reached.
+     */
+    private final String failureMessage;
+    private final ErrorCause failureCause;
+
+    // Successors are linked once by the compiler; a null node means the outcome is a terminal value
+    private RuleNode onTrueNode;
+    private boolean onTrueValue;
+    private RuleNode onFalseNode;
+    private boolean onFalseValue;
+
+    // Branch statistics of the rule, shared with every other compiled node of it; null when statistics are disabled
+    private RuleCounters counters;
+
+    // Slot of the condition's attribute in the graph's attribute layout; -1 when it reads zero or several attributes
+    private int slot = -1;
+
+    // Trace descriptions of each outcome ("onTrue: rule_x"), built once when the node is linked
+    @Getter(AccessLevel.NONE)
+    private String onTrueAction = "onTrue: false";
+    @Getter(AccessLevel.NONE)
+    private String onFalseAction = "onFalse: false";
+
+    RuleNode(String ruleId, String expression, Expression condition, String referenceId, Object referenceValue) {
+        this.ruleId = ruleId;
+        this.expression = expression;
+        this.condition = condition;
+        this.referenceId = referenceId;
+        this.referenceValue = referenceValue;
+        this.failureMessage = null;
+        this.failureCause = null;
+    }
+
+    private RuleNode(String ruleId, ErrorCause failureCause, String failureMessage) {
+        this.ruleId = ruleId;
+        this.expression = null;
+        this.condition = null;
+        this.referenceId = null;
+        this.referenceValue = null;
+        this.failureMessage = failureMessage;
+        this.failureCause = failureCause;
+    }
+
+    static RuleNode failure(String ruleId, ErrorCause failureCause, String failureMessage) {
+        return new RuleNode(ruleId, failureCause, failureMessage);
+    }
+
+    /**
+     * Creates an unlinked copy of this node evaluating the given condition instead.
+     */
+    RuleNode withCondition(Expression replacement) {
+        if (isFailure()) {
+            return failure(ruleId, failureCause, failureMessage);
+        }
+        RuleNode copy = new RuleNode(ruleId, expression, replacement, referenceId, referenceValue);
+        copy.counters = counters;
+        return copy;
+    }
+
+    /**
+     * Creates an unlinked copy of this node with the same condition.
+     */
+    RuleNode copy() {
+        return withCondition(condition);
+    }
+
+    void linkOnTrue(RuleNode next) {
+        this.onTrueNode = next;
+        this.onTrueAction = "onTrue: " + next.getRuleId();
+    }
+
+    void terminateOnTrue(boolean value) {
+        this.onTrueValue = value;
+        this.onTrueAction = "onTrue: " + value;
+    }
+
+    void linkOnFalse(RuleNode next) {
+        this.onFalseNode = next;
+        this.onFalseAction = "onFalse: " + next.getRuleId();
+    }
+
+    void terminateOnFalse(boolean value) {
+        this.onFalseValue = value;
+        this.onFalseAction = "onFalse: " + value;
+    }
+
+    void attachCounters(RuleCounters counters) {
+        this.counters = counters;
+    }
+
+    void assignSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Describes where evaluation continues after this node, as shown in the execution trace.
+     */
+    public String getNextAction(boolean result) {
+        return result ? onTrueAction : onFalseAction;
+    }
+
+    /**
+     * Returns the successor on the given branch, or null if that branch ends evaluation.
+     */
+    public RuleNode getNext(boolean result) {
+        return result ? onTrueNode : onFalseNode;
+    }
+
+    /**
+     * Returns the decision on the given branch when it ends evaluation.
+     */
+    public boolean getTerminalValue(boolean result) {
+        return result ? onTrueValue : onFalseValue;
+    }
+
+    public boolean isFailure() {
+        return failureMessage != null;
+    }
+
+    /**
+     * Returns the failure this node raises when it is reached; only for failure nodes.
+     */
+    public EvaluationException failureException() {
+        return new EvaluationException(failureCause, failureMessage);
+    }
+}
@@ -0,0 +1,76 @@
+package com.lps.ruleengine.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-rule branch statistics gathered from live evaluations.
+ * Counters are keyed by rule id so they survive recompilation; compiled nodes hold a direct reference to their
+ * rule's {@link RuleCounters}, so recording an outcome never looks anything up. The counters also feed the rule's
+ * outcome meters in {@link EvaluationMetrics}, so disabling statistics disables those too.
+ * The compiler uses the statistics to lay out hot policies (see {@link PolicyCompiler#layout(DecisionGraph)}).
+ */
+@Component
+@Slf4j
+public class RuleStatistics {
+
+    private final EvaluationMetrics evaluationMetrics;
+    private final boolean enabled;
+    private final long minSamples;
+    private final Map<String, RuleCounters> counters = new ConcurrentHashMap<>();
+
+    public RuleStatistics(EvaluationMetrics evaluationMetrics,
+                          @Value("${ruleengine.statistics.enabled:true}") boolean enabled,
+                          @Value("${ruleengine.statistics.layout.min-samples:100}") long minSamples) {
+        this.evaluationMetrics = evaluationMetrics;
+        this.enabled = enabled;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Returns the counters that compiled nodes of a rule record into.
+     *
+     * @param ruleId the rule identifier
+     * @return the rule's counters, or null when statistics are disabled
+     */
+    public RuleCounters countersFor(String ruleId) {
+        return enabled ? counters.computeIfAbsent(ruleId,
+                id -> new RuleCounters(id, evaluationMetrics.ruleOutcomes(id))) : null;
+    }
+
+    /**
+     * Returns the outcome counts, rates and mean evaluation time recorded for a rule since it was last changed.
+     *
+     * @param ruleId the rule identifier
+     * @return the rule's statistics; all zero if it has not been evaluated
+     */
+    public Map<String, Object> getStats(String ruleId) {
+        RuleCounters ruleCounters = counters.get(ruleId);
+        Map<String, Object> stats = (ruleCounters != null ? ruleCounters : new RuleCounters(ruleId)).toMap();
+        stats.put("enabled", enabled);
+        return stats;
+    }
+
+    /**
+     * True when a rule has produced enough outcomes for its branch rates to drive layout decisions.
+     */
+    public boolean hasProfile(RuleCounters ruleCounters) {
+        return ruleCounters != null && ruleCounters.getDecisions() >= minSamples;
+    }
+
+    /**
+     * Discards the statistics of a rule whose condition was changed or that was deleted.
+     * Nodes compiled before the change keep recording into the discarded counters until they are recompiled.
+     *
+     * @param ruleId the rule identifier
+     */
+    public void reset(String ruleId) {
+        if (counters.remove(ruleId) != null) {
+            log.debug("Reset branch statistics of rule: {}", ruleId);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.engine.expression.BooleanAttributeExpression;
+import com.lps.ruleengine.engine.expression.ComparisonExpression;
+import com.lps.ruleengine.engine.expression.Expression;
+import com.lps.ruleengine.engine.expression.InExpression;
+import com.lps.ruleengine.engine.expression.JunctionExpression;
+import com.lps.ruleengine.engine.expression.NotExpression;
+import com.lps.ruleengine.engine.expression.NumericComparisonExpression;
+import com.lps.ruleengine.engine.expression.StringEqualityExpression;
+import com.lps.ruleengine.model.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates plausible applicants for a compiled graph, e.g. to warm it up before real traffic arrives.
+ * Every attribute the graph reads gets values on both sides of the thresholds and lists it is compared against,
+ * taken from the rules' reference documents or, failing those, from the literals in the expressions, so that
+ * random combinations of them walk most of the graph's branches.
+ */
+public final class SyntheticAttributes {
+
+    private static final String OTHER = "__other__";
+    private static final List<Object> NUMERIC_FALLBACK = List.of(0, 1, 100, 10000, 1000000);
+    private static final List<Object> BOOLEANS = List.of(true, false);
+
+    // Candidate values of each attribute, in first-use order
+    private final Map<String, List<Object>> candidates;
+
+    private SyntheticAttributes(Map<String, List<Object>> candidates) {
+        this.candidates = candidates;
+    }
+
+    /**
+     * Collects candidate values for every attribute read by a graph.
+     *
+     * @param graph the compiled graph
+     * @param snapshot the rule base the graph was compiled from, for the rules' reference documents
+     * @return the generator
+     */
+    public static SyntheticAttributes forGraph(DecisionGraph graph, RuleBaseSnapshot snapshot) {
+        Map<String, Set<Object>> values = new LinkedHashMap<>();
+        for (RuleNode node : graph.getNodes()) {
+            if (node.isFailure()) {
+                continue;
+            }
+            Object reference = referenceValue(node, snapshot);
+            collect(node.getCondition(), reference, values);
+        }
+
+        Map<String, List<Object>> candidates = new LinkedHashMap<>();
+        for (String attribute : graph.getAttributes()) {
+            Set<Object> attributeValues = values.get(attribute);
+            candidates.put(attribute, attributeValues == null || attributeValues.isEmpty()
+                    ? NUMERIC_FALLBACK : List.copyOf(attributeValues));
+        }
+        return new SyntheticAttributes(candidates);
+    }
+
+    /**
+     * Draws one applicant, choosing each attribute's value independently.
+     *
+     * @param random the source of randomness
+     * @return a new, mutable attribute map holding every attribute the graph reads
+     */
+    public Map<String, Object> next(Random random) {
+        Map<String, Object> attributes = new HashMap<>();
+        candidates.forEach((attribute, values) -> attributes.put(attribute, values.get(random.nextInt(values.size()))));
+        return attributes;
+    }
+
+    public Set<String> getAttributes() {
+        return candidates.keySet();
+    }
+
+    private static Object referenceValue(RuleNode node, RuleBaseSnapshot snapshot) {
+        if (node.getReferenceId() == null) {
+            return null;
+        }
+        Document document = snapshot.getDocument(node.getReferenceId());
+        try {
+            return document != null ? document.getTypedValue() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void collect(Expression expression, Object reference, Map<String, Set<Object>> values) {
+        if (expression instanceof JunctionExpression junction) {
+            // Only operands naming an identifier bind the reference inside a compound expression
+            for (Expression operand : junction.getOperands()) {
+                collect(operand, operand.usesReference() ? reference : null, values);
+            }
+        } else if (expression instanceof NotExpression not) {
+            collect(not.getOperand(), reference, values);
+        } else if (expression instanceof BooleanAttributeExpression bool) {
+            add(values, bool.getAttribute(), BOOLEANS);
+        } else if (expression instanceof ComparisonExpression comparison) {
+            add(values, comparison.getAttribute(),
+                    around(reference != null ? reference : comparison.getOperand().getValue()));
+        } else if (expression instanceof InExpression in) {
+            add(values, in.getAttribute(), around(reference != null ? reference : in.getOperand().getValue()));
+        } else if (expression instanceof NumericComparisonExpression numeric) {
+            add(values, numeric.getAttribute(), around(numeric.getConstant()));
+        } else if (expression instanceof StringEqualityExpression equality) {
+            add(values, equality.getAttribute(), around(equality.getConstant()));
+        }
+    }
+
+    /**
+     * Values on both sides of a threshold, or inside and outside of a list.
+     */
+    private static List<Object> around(Object pivot) {
+        if (pivot instanceof Integer || pivot instanceof Long) {
+            long value = ((Number) pivot).longValue();
+            return List.of(value / 2, value, value + 1, value * 2);
+        }
+        if (pivot instanceof Number number) {
+            double value = number.doubleValue();
+            if (value == Math.rint(value)) {
+                long whole = (long) value;
+                return List.of(whole / 2, whole, whole + 1, whole * 2);
+            }
+            return List.of(value / 2, value, value * 2);
+        }
+        if (pivot instanceof Boolean) {
+            return BOOLEANS;
+        }
+        if (pivot instanceof Collection<?> members) {
+            List<Object> inside = new ArrayList<>(members.size() + 1);
+            members.stream().filter(member -> member != null).forEach(inside::add);
+            inside.add(OTHER);
+            return inside;
+        }
+        if (pivot instanceof String text) {
+            return List.of(text, OTHER);
+        }
+        return List.of();
+    }
+
+    private static void add(Map<String, Set<Object>> values, String attribute, Collection<Object> attributeValues) {
+        values.computeIfAbsent(attribute, name -> new LinkedHashSet<>()).addAll(attributeValues);
+    }
+}
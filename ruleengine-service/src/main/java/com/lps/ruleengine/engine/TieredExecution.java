@@ -0,0 +1,57 @@
+package com.lps.ruleengine.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses which tier of a compiled policy to execute.
+ * Policies start on the interpreted graph; once a policy has been evaluated {@code threshold} times its
+ * specialized graph is built and swapped in atomically, so cold policies never pay for specialization.
+ * The specialized graph is also laid out from the branch statistics gathered while the policy was interpreted.
+ *
+ * <p>Specialization rewrites each condition into a monomorphic expression object with its operand resolved and its
+ * type dispatch done, which C2 inlines along the hot path; no class is generated per policy. Generated straight-line
+ * code would have to reproduce everything the graph walk does besides comparing: trace levels, branch statistics,
+ * the hop limit and the error raised by missing or inactive rules.</p>
+ */
+@Component
+@Slf4j
+public class TieredExecution {
+
+    private final PolicyCompiler policyCompiler;
+    private final long threshold;
+    private final boolean forceInterpreter;
+
+    public TieredExecution(PolicyCompiler policyCompiler,
+                           @Value("${ruleengine.evaluation.tiering.threshold:1000}") long threshold,
+                           @Value("${ruleengine.evaluation.tiering.force-interpreter:false}") boolean forceInterpreter) {
+        this.policyCompiler = policyCompiler;
+        this.threshold = threshold;
+        this.forceInterpreter = forceInterpreter;
+    }
+
+    /**
+     * Returns the graph to execute for this evaluation of the policy.
+     *
+     * @param policy the compiled policy
+     * @return the specialized graph for hot policies, otherwise the interpreted graph
+     */
+    public DecisionGraph select(CompiledPolicy policy) {
+        if (forceInterpreter) {
+            return policy.getGraph();
+        }
+
+        DecisionGraph specialized = policy.getSpecializedGraph();
+        if (specialized != null) {
+            return specialized;
+        }
+
+        if (policy.recordEvaluation() < threshold) {
+            return policy.getGraph();
+        }
+
+        log.info("Policy {} reached {} evaluations, switching to specialized execution", policy.getPolicyId(), threshold);
+        return policy.promote(policyCompiler.layout(policyCompiler.specialize(policy.getGraph())));
+    }
+}
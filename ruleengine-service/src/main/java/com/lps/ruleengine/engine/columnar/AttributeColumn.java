@@ -0,0 +1,72 @@
+package com.lps.ruleengine.engine.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One attribute of a batch in columnar form.
+ * Numeric values are unboxed into a primitive array; every value (numeric or not) is also dictionary-encoded
+ * so that predicates on strings are evaluated once per distinct value rather than once per row.
+ */
+final class AttributeColumn {
+
+    static final int ABSENT = 0;
+
+    private final double[] numbers;
+    private final RowBitmap numeric;
+    private final int[] codes;
+    private final List<Object> dictionary;
+
+    private AttributeColumn(double[] numbers, RowBitmap numeric, int[] codes, List<Object> dictionary) {
+        this.numbers = numbers;
+        this.numeric = numeric;
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    static AttributeColumn build(String attribute, List<Map<String, Object>> rows) {
+        int size = rows.size();
+        double[] numbers = new double[size];
+        RowBitmap numeric = new RowBitmap(size);
+        int[] codes = new int[size];
+
+        Map<Object, Integer> encoding = new HashMap<>();
+        List<Object> dictionary = new ArrayList<>();
+        dictionary.add(null); // code 0 is reserved for absent values
+
+        for (int row = 0; row < size; row++) {
+            Object value = rows.get(row).get(attribute);
+            if (value == null) {
+                codes[row] = ABSENT;
+                continue;
+            }
+            if (value instanceof Number number) {
+                numbers[row] = number.doubleValue();
+                numeric.set(row);
+            }
+            codes[row] = encoding.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+        return new AttributeColumn(numbers, numeric, codes, dictionary);
+    }
+
+    double[] numbers() {
+        return numbers;
+    }
+
+    RowBitmap numeric() {
+        return numeric;
+    }
+
+    int[] codes() {
+        return codes;
+    }
+
+    List<Object> dictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,229 @@
+package com.lps.ruleengine.engine.columnar;
+
+import com.lps.ruleengine.engine.DecisionGraph;
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.engine.RuleNode;
+import com.lps.ruleengine.engine.expression.ComparisonExpression;
+import com.lps.ruleengine.engine.expression.Expression;
+import com.lps.ruleengine.engine.expression.NumericComparisonExpression;
+import com.lps.ruleengine.engine.expression.Operator;
+
+import java.util.*;
+
+/**
+ * Evaluates a decision graph for a whole batch of users at once.
+ *
+ * Users are turned into attribute columns, each rule is evaluated across the rows that reach it producing a
+ * selection bitmap, and onTrue/onFalse routing becomes bitmap AND/ANDNOT/OR. Numeric threshold checks run through
+ * {@link ComparisonKernel} as branch-free scalar loops over primitive arrays; checks on strings and other values are
+ * evaluated once per distinct value of the dictionary-encoded column. Conditions reading several attributes
+ * fall back to per-row evaluation for the rows that reach them.
+ */
+public final class ColumnarEvaluator {
+
+    private final DecisionGraph graph;
+    private final List<RuleNode> order;
+
+    private ColumnarEvaluator(DecisionGraph graph, List<RuleNode> order) {
+        this.graph = graph;
+        this.order = order;
+    }
+
+    /**
+     * Prepares a columnar evaluator for a graph
+     * @param graph The compiled decision graph
+     * @return The evaluator, or null if the graph has a cycle and must be evaluated row by row
+     */
+    public static ColumnarEvaluator forGraph(DecisionGraph graph) {
+        List<RuleNode> order = topologicalOrder(graph);
+        return order != null ? new ColumnarEvaluator(graph, order) : null;
+    }
+
+    /**
+     * Evaluates the graph for every row
+     * @param rows The user attributes, one map per user
+     * @return The decision and error (if any) for each row
+     */
+    public ColumnarResult evaluate(List<Map<String, Object>> rows) {
+        int size = rows.size();
+        Map<String, AttributeColumn> columns = new HashMap<>();
+        Map<RuleNode, RowBitmap> reaching = new IdentityHashMap<>();
+        RowBitmap positive = new RowBitmap(size);
+        RuntimeException[] errors = new RuntimeException[size];
+
+        reaching.put(graph.getRoot(), RowBitmap.allSet(size));
+
+        for (RuleNode node : order) {
+            RowBitmap rowsHere = reaching.remove(node);
+            if (rowsHere == null || rowsHere.isEmpty()) {
+                continue;
+            }
+            if (node.isFailure()) {
+                RuntimeException failure = node.failureException();
+                rowsHere.forEach(row -> errors[row] = failure);
+                continue;
+            }
+
+            RowBitmap failed = new RowBitmap(size);
+            RowBitmap truth = evaluateCondition(node, rowsHere, rows, columns, errors, failed);
+            RowBitmap live = rowsHere.andNot(failed);
+
+            route(live.and(truth), node.getOnTrueNode(), node.isOnTrueValue(), reaching, positive);
+            route(live.andNot(truth), node.getOnFalseNode(), node.isOnFalseValue(), reaching, positive);
+        }
+
+        boolean[] results = new boolean[size];
+        positive.forEach(row -> results[row] = true);
+        String[] messages = new String[size];
+        ErrorCause[] causes = new ErrorCause[size];
+        for (int row = 0; row < size; row++) {
+            if (errors[row] != null) {
+                messages[row] = errors[row].getMessage();
+                causes[row] = EvaluationException.causeOf(errors[row]);
+            }
+        }
+        return new ColumnarResult(results, messages, causes);
+    }
+
+    private void route(RowBitmap rows, RuleNode next, boolean value, Map<RuleNode, RowBitmap> reaching,
+                       RowBitmap positive) {
+        if (next != null) {
+            reaching.merge(next, rows, (existing, added) -> {
+                existing.or(added);
+                return existing;
+            });
+        } else if (value) {
+            positive.or(rows);
+        }
+    }
+
+    private RowBitmap evaluateCondition(RuleNode node, RowBitmap rowsHere, List<Map<String, Object>> rows,
+                                        Map<String, AttributeColumn> columns, RuntimeException[] errors,
+                                        RowBitmap failed) {
+        Expression condition = node.getCondition();
+        Object referenceValue = node.getReferenceValue();
+        RowBitmap truth = new RowBitmap(rows.size());
+
+        Set<String> attributes = condition.getAttributes();
+        if (attributes.size() != 1) {
+            rowsHere.forEach(row -> {
+                try {
+                    if (condition.evaluate(rows.get(row), referenceValue)) {
+                        truth.set(row);
+                    }
+                } catch (RuntimeException e) {
+                    errors[row] = e;
+                    failed.set(row);
+                }
+            });
+            return truth;
+        }
+
+        String attribute = attributes.iterator().next();
+        AttributeColumn column = columns.computeIfAbsent(attribute, name -> AttributeColumn.build(name, rows));
+
+        RowBitmap remaining = rowsHere;
+        Number threshold = numericThreshold(condition, referenceValue);
+        if (threshold != null) {
+            RowBitmap numericRows = rowsHere.and(column.numeric());
+            RowBitmap matches = new RowBitmap(rows.size());
+            ComparisonKernel.compare(column.numbers(), operatorOf(condition), threshold.doubleValue(),
+                    matches.words(), rows.size());
+            truth.or(matches.and(numericRows));
+            remaining = rowsHere.andNot(column.numeric());
+        }
+
+        if (!remaining.isEmpty()) {
+            evaluateDictionary(condition, referenceValue, attribute, column, remaining, truth, errors, failed);
+        }
+        return truth;
+    }
+
+    private void evaluateDictionary(Expression condition, Object referenceValue, String attribute,
+                                    AttributeColumn column, RowBitmap rowsToEvaluate, RowBitmap truth,
+                                    RuntimeException[] errors, RowBitmap failed) {
+        List<Object> dictionary = column.dictionary();
+        int[] codes = column.codes();
+        // 0 = not yet evaluated, 1 = true, 2 = false, 3 = error
+        byte[] outcomes = new byte[dictionary.size()];
+        RuntimeException[] outcomeErrors = new RuntimeException[dictionary.size()];
+
+        rowsToEvaluate.forEach(row -> {
+            int code = codes[row];
+            if (outcomes[code] == 0) {
+                Object value = dictionary.get(code);
+                Map<String, Object> single = value != null ? Map.of(attribute, value) : Map.of();
+                try {
+                    outcomes[code] = condition.evaluate(single, referenceValue) ? (byte) 1 : (byte) 2;
+                } catch (RuntimeException e) {
+                    outcomes[code] = 3;
+                    outcomeErrors[code] = e;
+                }
+            }
+            if (outcomes[code] == 1) {
+                truth.set(row);
+            } else if (outcomes[code] == 3) {
+                errors[row] = outcomeErrors[code];
+                failed.set(row);
+            }
+        });
+    }
+
+    private static Number numericThreshold(Expression condition, Object referenceValue) {
+        if (condition instanceof NumericComparisonExpression numeric) {
+            return numeric.getThreshold();
+        }
+        if (condition instanceof ComparisonExpression comparison
+                && comparison.getOperand().resolve(referenceValue) instanceof Number number) {
+            return number;
+        }
+        return null;
+    }
+
+    private static Operator operatorOf(Expression condition) {
+        return condition instanceof NumericComparisonExpression numeric
+                ? numeric.getOperator()
+                : ((ComparisonExpression) condition).getOperator();
+    }
+
+    private static List<RuleNode> topologicalOrder(DecisionGraph graph) {
+        Map<RuleNode, Integer> inDegree = new IdentityHashMap<>();
+        for (RuleNode node : graph.getNodes()) {
+            inDegree.putIfAbsent(node, 0);
+            for (RuleNode next : successors(node)) {
+                inDegree.merge(next, 1, Integer::sum);
+            }
+        }
+
+        Deque<RuleNode> ready = new ArrayDeque<>();
+        inDegree.forEach((node, degree) -> {
+            if (degree == 0) {
+                ready.add(node);
+            }
+        });
+
+        List<RuleNode> order = new ArrayList<>(inDegree.size());
+        while (!ready.isEmpty()) {
+            RuleNode node = ready.poll();
+            order.add(node);
+            for (RuleNode next : successors(node)) {
+                if (inDegree.merge(next, -1, Integer::sum) == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        return order.size() == inDegree.size() ? order : null;
+    }
+
+    private static List<RuleNode> successors(RuleNode node) {
+        List<RuleNode> successors = new ArrayList<>(2);
+        if (node.getOnTrueNode() != null) {
+            successors.add(node.getOnTrueNode());
+        }
+        if (node.getOnFalseNode() != null && node.getOnFalseNode() != node.getOnTrueNode()) {
+            successors.add(node.getOnFalseNode());
+        }
+        return successors;
+    }
+}
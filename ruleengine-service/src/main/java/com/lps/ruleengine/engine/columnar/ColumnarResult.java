@@ -0,0 +1,13 @@
+package com.lps.ruleengine.engine.columnar;
+
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+
+/**
+ * Per-row outcome of a columnar evaluation.
+ *
+ * @param results the decision for each row (false for rows that failed)
+ * @param errors the error message for each row that failed, otherwise null
+ * @param errorCauses the cause of each row's failure, otherwise null
+ */
+public record ColumnarResult(boolean[] results, String[] errors, ErrorCause[] errorCauses) {
+}
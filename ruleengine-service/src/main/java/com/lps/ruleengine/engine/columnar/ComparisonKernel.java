@@ -0,0 +1,92 @@
+package com.lps.ruleengine.engine.columnar;
+
+import com.lps.ruleengine.engine.expression.Operator;
+
+/**
+ * Compares a numeric column against a threshold into bitmap words, one branch-free loop per operator that shifts
+ * each row's result into its word. C2 on JDK 17 compiles these loops to scalar code, not SIMD: the shared word
+ * accumulator keeps the superword pass from vectorizing them. Writing results into a {@code boolean[]} mask first and
+ * packing it afterwards was measured as well and is slower, since packing costs as much as the comparison;
+ * {@code ComparisonKernelBenchmark} has both.
+ *
+ * <p>There is no Vector API path. On JDK 17 the API is the incubator module {@code jdk.incubator.vector}, which the
+ * build, the tests and every launch of the application would have to add with {@code --add-modules}; these loops
+ * stay scalar until the API is final.</p>
+ */
+public final class ComparisonKernel {
+
+    private ComparisonKernel() {
+    }
+
+    /**
+     * Sets bit {@code i} of {@code words} when {@code values[i] <op> threshold}, for every row below {@code size}.
+     *
+     * @param values the column, one value per row
+     * @param operator the comparison operator
+     * @param threshold the value compared against
+     * @param words receives the bitmap; every word is overwritten
+     * @param size the number of rows
+     */
+    public static void compare(double[] values, Operator operator, double threshold, long[] words, int size) {
+        boolean plainEquality = plainEquality(threshold);
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            switch (operator) {
+                case GT -> {
+                    for (int b = 0; b < end; b++) {
+                        bits |= (values[base + b] > threshold ? 1L : 0L) << b;
+                    }
+                }
+                case GTE -> {
+                    for (int b = 0; b < end; b++) {
+                        bits |= (values[base + b] >= threshold ? 1L : 0L) << b;
+                    }
+                }
+                case LT -> {
+                    for (int b = 0; b < end; b++) {
+                        bits |= (values[base + b] < threshold ? 1L : 0L) << b;
+                    }
+                }
+                case LTE -> {
+                    for (int b = 0; b < end; b++) {
+                        bits |= (values[base + b] <= threshold ? 1L : 0L) << b;
+                    }
+                }
+                case EQ -> {
+                    if (plainEquality) {
+                        for (int b = 0; b < end; b++) {
+                            bits |= (values[base + b] == threshold ? 1L : 0L) << b;
+                        }
+                    } else {
+                        for (int b = 0; b < end; b++) {
+                            bits |= (Double.compare(values[base + b], threshold) == 0 ? 1L : 0L) << b;
+                        }
+                    }
+                }
+                case NEQ -> {
+                    if (plainEquality) {
+                        for (int b = 0; b < end; b++) {
+                            bits |= (values[base + b] != threshold ? 1L : 0L) << b;
+                        }
+                    } else {
+                        for (int b = 0; b < end; b++) {
+                            bits |= (Double.compare(values[base + b], threshold) != 0 ? 1L : 0L) << b;
+                        }
+                    }
+                }
+                case IN -> throw new IllegalArgumentException("IN is not a comparison operator");
+            }
+            words[w] = bits;
+        }
+    }
+
+    /**
+     * Row-by-row evaluation compares with {@link Double#compare}, under which NaN equals NaN and 0.0 differs from
+     * -0.0. Against any other threshold that is the same as {@code ==}, which compiles to a much cheaper loop.
+     */
+    private static boolean plainEquality(double threshold) {
+        return !Double.isNaN(threshold) && threshold != 0.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.lps.ruleengine.engine.columnar;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Fixed-size bitmap over the rows of a columnar batch.
+ */
+final class RowBitmap {
+
+    private final long[] words;
+    private final int size;
+
+    RowBitmap(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    static RowBitmap allSet(int size) {
+        RowBitmap bitmap = new RowBitmap(size);
+        for (int w = 0; w < bitmap.words.length; w++) {
+            bitmap.words[w] = -1L;
+        }
+        int tail = size & 63;
+        if (tail != 0) {
+            bitmap.words[bitmap.words.length - 1] = (1L << tail) - 1;
+        }
+        return bitmap;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void set(int row) {
+        words[row >>> 6] |= 1L << row;
+    }
+
+    boolean get(int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void or(RowBitmap other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= other.words[w];
+        }
+    }
+
+    RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] & other.words[w];
+        }
+        return result;
+    }
+
+    RowBitmap andNot(RowBitmap other) {
+        RowBitmap result = new RowBitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] & ~other.words[w];
+        }
+        return result;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                action.accept((w << 6) + bit);
+                word &= word - 1;
+            }
+        }
+    }
+}
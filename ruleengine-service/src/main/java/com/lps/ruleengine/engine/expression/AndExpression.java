@@ -0,0 +1,18 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.List;
+
+/**
+ * {@code a AND b AND ...}: true unless an operand is false.
+ */
+public final class AndExpression extends JunctionExpression {
+
+    public AndExpression(List<Expression> operands) {
+        super(operands, false);
+    }
+
+    @Override
+    JunctionExpression withOperands(List<Expression> replacements) {
+        return new AndExpression(replacements);
+    }
+}
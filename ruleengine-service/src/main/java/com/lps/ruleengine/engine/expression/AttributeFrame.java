@@ -0,0 +1,75 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.Map;
+
+/**
+ * The attributes of one evaluation request, bound to the slots of a compiled graph.
+ * Each attribute the graph reads is looked up once per request; numeric values are unboxed up front and
+ * string forms are computed at most once per slot, however many rules read them.
+ */
+public final class AttributeFrame {
+
+    private final Map<String, Object> source;
+    private final Object[] values;
+    private final double[] numbers;
+    private final boolean[] numeric;
+    private final String[] strings;
+
+    private AttributeFrame(Map<String, Object> source, int slots) {
+        this.source = source;
+        this.values = new Object[slots];
+        this.numbers = new double[slots];
+        this.numeric = new boolean[slots];
+        this.strings = new String[slots];
+    }
+
+    /**
+     * Binds user attributes to slots
+     * @param attributes The attribute name of each slot
+     * @param userAttributes The user attributes of the request
+     * @return The bound frame
+     */
+    public static AttributeFrame bind(String[] attributes, Map<String, Object> userAttributes) {
+        AttributeFrame frame = new AttributeFrame(userAttributes, attributes.length);
+        for (int slot = 0; slot < attributes.length; slot++) {
+            Object value = userAttributes.get(attributes[slot]);
+            frame.values[slot] = value;
+            if (value instanceof Number number) {
+                frame.numbers[slot] = number.doubleValue();
+                frame.numeric[slot] = true;
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * @return The unbound user attributes, for expressions that read several attributes
+     */
+    public Map<String, Object> getSource() {
+        return source;
+    }
+
+    public Object value(int slot) {
+        return values[slot];
+    }
+
+    public boolean isNumeric(int slot) {
+        return numeric[slot];
+    }
+
+    public double number(int slot) {
+        return numbers[slot];
+    }
+
+    /**
+     * @return The string form of the slot's value, or null if the attribute is absent
+     */
+    public String string(int slot) {
+        String text = strings[slot];
+        if (text == null && values[slot] != null) {
+            text = values[slot].toString();
+            strings[slot] = text;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,57 @@
+package com.lps.ruleengine.engine.expression;
+
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bare attribute name whose value is read as a boolean, e.g. {@code isExistingCustomer}.
+ */
+@Getter
+public final class BooleanAttributeExpression implements Expression {
+
+    private final String attribute;
+
+    public BooleanAttributeExpression(String attribute) {
+        this.attribute = attribute;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        Object value = userAttributes.get(attribute);
+        if (value == null) {
+            throw new EvaluationException(ErrorCause.UNSUPPORTED_EXPRESSION, "Unsupported expression: " + attribute);
+        }
+        return Boolean.parseBoolean(value.toString());
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        Object value = frame.value(slot);
+        if (value == null) {
+            throw new EvaluationException(ErrorCause.UNSUPPORTED_EXPRESSION, "Unsupported expression: " + attribute);
+        }
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(frame.string(slot));
+    }
+
+    @Override
+    public boolean usesReference() {
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return 1;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of(attribute);
+    }
+}
@@ -0,0 +1,108 @@
+package com.lps.ruleengine.engine.expression;
+
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code attribute <op> operand} for the relational and equality operators.
+ */
+@Getter
+public final class ComparisonExpression implements Expression {
+
+    private final String attribute;
+    private final Operator operator;
+    private final Operand operand;
+
+    public ComparisonExpression(String attribute, Operator operator, Operand operand) {
+        if (operator == Operator.IN) {
+            throw new IllegalArgumentException("IN is not a comparison operator");
+        }
+        this.attribute = attribute;
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        Object attributeValue = userAttributes.get(attribute);
+        if (attributeValue == null) {
+            return false;
+        }
+        return compareValues(attributeValue, operand.resolve(referenceValue), operator);
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        if (frame.value(slot) == null) {
+            return false;
+        }
+        Object right = operand.resolve(referenceValue);
+        if (frame.isNumeric(slot) && right instanceof Number number) {
+            return compareNumbers(frame.number(slot), number.doubleValue(), operator);
+        }
+        return compareStrings(frame.string(slot), right.toString(), operator);
+    }
+
+    static boolean compareValues(Object left, Object right, Operator operator) {
+        // Handle numeric comparisons
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers(((Number) left).doubleValue(), ((Number) right).doubleValue(), operator);
+        }
+
+        // Handle string comparisons
+        return compareStrings(left.toString(), right.toString(), operator);
+    }
+
+    static boolean compareNumbers(double leftVal, double rightVal, Operator operator) {
+        return switch (operator) {
+            case GT -> leftVal > rightVal;
+            case GTE -> leftVal >= rightVal;
+            case LT -> leftVal < rightVal;
+            case LTE -> leftVal <= rightVal;
+            case EQ -> Double.compare(leftVal, rightVal) == 0;
+            case NEQ -> Double.compare(leftVal, rightVal) != 0;
+            case IN -> throw new EvaluationException(ErrorCause.UNSUPPORTED_EXPRESSION,
+                    "Unsupported operator: " + operator.getSymbol());
+        };
+    }
+
+    static boolean compareStrings(String leftStr, String rightStr, Operator operator) {
+        return switch (operator) {
+            case EQ -> leftStr.equals(rightStr);
+            case NEQ -> !leftStr.equals(rightStr);
+            case GT -> leftStr.compareTo(rightStr) > 0;
+            case GTE -> leftStr.compareTo(rightStr) >= 0;
+            case LT -> leftStr.compareTo(rightStr) < 0;
+            case LTE -> leftStr.compareTo(rightStr) <= 0;
+            case IN -> throw new EvaluationException(ErrorCause.UNSUPPORTED_EXPRESSION,
+                    "Unsupported operator for strings: " + operator.getSymbol());
+        };
+    }
+
+    @Override
+    public boolean usesReference() {
+        return operand.getKind() == Operand.Kind.IDENTIFIER;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return 2;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of(attribute);
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed, executable form of a rule expression.
+ */
+public interface Expression {
+
+    /**
+     * Evaluates the expression
+     * @param userAttributes The user attributes to evaluate against
+     * @param referenceValue The decoded value of the rule's reference document, or null
+     * @return The boolean outcome of the expression
+     */
+    boolean evaluate(Map<String, Object> userAttributes, Object referenceValue);
+
+    /**
+     * Evaluates the expression against attributes bound to the slots of a compiled graph.
+     * Single-attribute expressions read their slot directly; others fall back to the attribute map.
+     * @param frame The bound user attributes
+     * @param slot The slot of the expression's attribute, or -1 if it reads zero or several attributes
+     * @param referenceValue The decoded value of the rule's reference document, or null
+     * @return The boolean outcome of the expression
+     */
+    default boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        return evaluate(frame.getSource(), referenceValue);
+    }
+
+    /**
+     * Names of the user attributes the expression reads
+     * @return The attribute names
+     */
+    Set<String> getAttributes();
+
+    /**
+     * Whether the expression reads the rule's reference document. Inside compound expressions only operands that
+     * name an identifier bind the reference; literal operands keep their own value.
+     * @return True if the reference value must be passed to this expression
+     */
+    default boolean usesReference() {
+        return true;
+    }
+
+    /**
+     * Relative cost of one evaluation, used to run cheap operands of AND / OR first
+     * @return The estimated cost; 1 for a primitive comparison
+     */
+    default int estimatedCost() {
+        return 2;
+    }
+
+    /**
+     * Whether evaluation can raise an error, e.g. a boolean attribute missing from the request. Reordering never
+     * moves such an expression relative to the others, so errors surface exactly where they would as written.
+     * @return True unless the expression always yields a result
+     */
+    default boolean canFail() {
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses rule expression strings into {@link Expression} trees.
+ *
+ * Supported forms:
+ * <pre>
+ *   expression := term (OR term)*
+ *   term       := factor (AND factor)*
+ *   factor     := NOT factor | ( expression ) | condition
+ *   condition  := attribute                      ← boolean attribute
+ *               | attribute (&gt;|&gt;=|&lt;|&lt;=|==|!=) operand
+ *               | attribute IN operand
+ *   operand    := number | 'string' | "string" | [item, ...] | identifier
+ * </pre>
+ * {@code AND}, {@code OR}, {@code NOT} and {@code IN} are upper-case keywords; {@code NOT} binds tightest, then
+ * {@code AND}, then {@code OR}.
+ */
+public final class ExpressionParser {
+
+    private final String source;
+    private final List<Token> tokens;
+    private int position;
+
+    private ExpressionParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    /**
+     * Parses an expression
+     * @param expression The expression text
+     * @return The parsed expression tree
+     * @throws RuntimeException if the expression is not supported
+     */
+    public static Expression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new RuntimeException("Unsupported expression: " + expression);
+        }
+        return new ExpressionParser(expression).parseExpression();
+    }
+
+    private Expression parseExpression() {
+        Expression expression = parseOr();
+        expect(TokenType.END);
+        return expression;
+    }
+
+    private Expression parseOr() {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (peek().type == TokenType.OR) {
+            next();
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new OrExpression(operands);
+    }
+
+    private Expression parseAnd() {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseFactor());
+        while (peek().type == TokenType.AND) {
+            next();
+            operands.add(parseFactor());
+        }
+        return operands.size() == 1 ? operands.get(0) : new AndExpression(operands);
+    }
+
+    private Expression parseFactor() {
+        if (peek().type == TokenType.NOT) {
+            next();
+            return new NotExpression(parseFactor());
+        }
+        if (peek().type == TokenType.LPAREN) {
+            next();
+            Expression inner = parseOr();
+            expect(TokenType.RPAREN);
+            return inner;
+        }
+        return parseCondition();
+    }
+
+    private Expression parseCondition() {
+        String attribute = expect(TokenType.IDENTIFIER).text;
+
+        if (CONDITION_END.contains(peek().type)) {
+            return new BooleanAttributeExpression(attribute);
+        }
+        if (peek().type == TokenType.IN) {
+            next();
+            return new InExpression(attribute, parseOperand());
+        }
+        Operator operator = Operator.fromSymbol(expect(TokenType.OPERATOR).text);
+        return new ComparisonExpression(attribute, operator, parseOperand());
+    }
+
+    private Operand parseOperand() {
+        Token token = next();
+        return switch (token.type) {
+            case NUMBER -> Operand.number(parseNumber(token.text));
+            case STRING -> Operand.string(token.text);
+            case IDENTIFIER -> Operand.identifier(token.text);
+            case LBRACKET -> Operand.list(parseListItems());
+            default -> throw error("unexpected '" + token.text + "'");
+        };
+    }
+
+    private double parseNumber(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("invalid number '" + text + "'");
+        }
+    }
+
+    private List<Object> parseListItems() {
+        List<Object> items = new ArrayList<>();
+        if (peek().type == TokenType.RBRACKET) {
+            next();
+            return items;
+        }
+        while (true) {
+            Token item = next();
+            if (item.type != TokenType.NUMBER && item.type != TokenType.STRING && item.type != TokenType.IDENTIFIER) {
+                throw error("unexpected '" + item.text + "' in list");
+            }
+            items.add(item.type == TokenType.NUMBER ? parseNumber(item.text) : item.text);
+
+            Token separator = next();
+            if (separator.type == TokenType.RBRACKET) {
+                return items;
+            }
+            if (separator.type != TokenType.COMMA) {
+                throw error("expected ',' or ']' in list");
+            }
+        }
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.type != TokenType.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private Token expect(TokenType type) {
+        Token token = next();
+        if (token.type != type) {
+            throw error("expected " + type.name().toLowerCase() + " but found '" + token.text + "'");
+        }
+        return token;
+    }
+
+    private RuntimeException error(String detail) {
+        return new RuntimeException("Unsupported expression: " + source + " (" + detail + ")");
+    }
+
+    private enum TokenType {
+        IDENTIFIER, NUMBER, STRING, OPERATOR, IN, AND, OR, NOT, LBRACKET, RBRACKET, LPAREN, RPAREN, COMMA, END
+    }
+
+    // Tokens that may follow a bare boolean attribute
+    private static final Set<TokenType> CONDITION_END = Set.of(TokenType.END, TokenType.AND, TokenType.OR, TokenType.RPAREN);
+
+    private record Token(TokenType type, String text) {
+    }
+
+    private List<Token> tokenize(String text) {
+        List<Token> result = new ArrayList<>();
+        int i = 0;
+        int length = text.length();
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[') {
+                result.add(new Token(TokenType.LBRACKET, "["));
+                i++;
+            } else if (c == ']') {
+                result.add(new Token(TokenType.RBRACKET, "]"));
+                i++;
+            } else if (c == '(') {
+                result.add(new Token(TokenType.LPAREN, "("));
+                i++;
+            } else if (c == ')') {
+                result.add(new Token(TokenType.RPAREN, ")"));
+                i++;
+            } else if (c == ',') {
+                result.add(new Token(TokenType.COMMA, ","));
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw error("unterminated string");
+                }
+                result.add(new Token(TokenType.STRING, text.substring(i + 1, end)));
+                i = end + 1;
+            } else if (c == '>' || c == '<' || c == '=' || c == '!') {
+                boolean twoChar = i + 1 < length && text.charAt(i + 1) == '=';
+                String symbol = twoChar ? text.substring(i, i + 2) : String.valueOf(c);
+                if (symbol.equals("=") || symbol.equals("!")) {
+                    throw error("unexpected '" + symbol + "'");
+                }
+                result.add(new Token(TokenType.OPERATOR, symbol));
+                i += symbol.length();
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < length && Character.isDigit(text.charAt(i + 1)))) {
+                int start = i++;
+                while (i < length && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                    i++;
+                }
+                result.add(new Token(TokenType.NUMBER, text.substring(start, i)));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i++;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_' || text.charAt(i) == '.')) {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                result.add(new Token(keywordType(word), word));
+            } else {
+                throw error("unexpected character '" + c + "'");
+            }
+        }
+
+        result.add(new Token(TokenType.END, "end of expression"));
+        return result;
+    }
+
+    private static TokenType keywordType(String word) {
+        return switch (word) {
+            case "IN" -> TokenType.IN;
+            case "AND" -> TokenType.AND;
+            case "OR" -> TokenType.OR;
+            case "NOT" -> TokenType.NOT;
+            default -> TokenType.IDENTIFIER;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites parsed expressions into specialized forms once their reference value is known.
+ * Operand resolution and type dispatch are done here, once, instead of on every evaluation.
+ */
+public final class ExpressionSpecializer {
+
+    private ExpressionSpecializer() {
+    }
+
+    /**
+     * Specializes an expression for a fixed reference value
+     * @param expression The parsed expression
+     * @param referenceValue The decoded reference document value, or null
+     * @return A specialized expression that ignores the reference value argument, or the original expression
+     *         when no specialized form applies
+     */
+    public static Expression specialize(Expression expression, Object referenceValue) {
+        if (expression instanceof JunctionExpression junction) {
+            List<Expression> operands = new ArrayList<>();
+            for (Expression operand : junction.getOperands()) {
+                operands.add(specialize(operand, operand.usesReference() ? referenceValue : null));
+            }
+            return junction.withOperands(operands);
+        }
+        if (expression instanceof NotExpression not) {
+            return new NotExpression(specialize(not.getOperand(), referenceValue));
+        }
+        if (expression instanceof ComparisonExpression comparison) {
+            Object constant = comparison.getOperand().resolve(referenceValue);
+            if (constant instanceof Number number) {
+                return new NumericComparisonExpression(comparison.getAttribute(), comparison.getOperator(), number);
+            }
+            if (constant instanceof String string && comparison.getOperator() == Operator.EQ) {
+                return new StringEqualityExpression(comparison.getAttribute(), string, false);
+            }
+            if (constant instanceof String string && comparison.getOperator() == Operator.NEQ) {
+                return new StringEqualityExpression(comparison.getAttribute(), string, true);
+            }
+        }
+        return expression;
+    }
+}
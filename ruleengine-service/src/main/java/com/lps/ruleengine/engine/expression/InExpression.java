@@ -0,0 +1,74 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code attribute IN operand} membership test against a list document or an inline list.
+ * The compiler passes list documents as a pre-built {@link MembershipSet}, so each check is a hash probe.
+ */
+@Getter
+public final class InExpression implements Expression {
+
+    private final String attribute;
+    private final Operand operand;
+    private final MembershipSet inlineMembers;
+
+    public InExpression(String attribute, Operand operand) {
+        this.attribute = attribute;
+        this.operand = operand;
+        this.inlineMembers = operand.getValue() instanceof List<?> values ? MembershipSet.of(values) : null;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        return contains(userAttributes.get(attribute), referenceValue);
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        return contains(frame.value(slot), referenceValue);
+    }
+
+    private boolean contains(Object attributeValue, Object referenceValue) {
+        if (attributeValue == null) {
+            return false;
+        }
+
+        // Use reference value if it is a list, otherwise fall back to the inline list
+        if (referenceValue instanceof MembershipSet members) {
+            return members.contains(attributeValue);
+        }
+        if (referenceValue instanceof List<?> values) {
+            return MembershipSet.of(values).contains(attributeValue);
+        }
+        return inlineMembers != null && inlineMembers.contains(attributeValue);
+    }
+
+    @Override
+    public boolean usesReference() {
+        return operand.getKind() == Operand.Kind.IDENTIFIER;
+    }
+
+    @Override
+    public int estimatedCost() {
+        // Hash probe with numeric normalization; a reference list may be large, so rank it after inline lists
+        return operand.getKind() == Operand.Kind.LIST ? 3 : 4;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of(attribute);
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
@@ -0,0 +1,202 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared evaluation of {@code AND} / {@code OR}.
+ * Operands are evaluated in order of increasing estimated cost and evaluation stops at the first operand that
+ * decides the result. A sample of evaluations records how often each operand decides, and the order is
+ * periodically re-ranked by cost per decision so that cheap, selective operands run first.
+ * Reordering never changes the outcome: operands that can fail (e.g. a boolean attribute missing from the request)
+ * keep their written position and other operands only move between them, so every operand that can fail is reached
+ * exactly when the written expression would reach it.
+ */
+public abstract class JunctionExpression implements Expression {
+
+    // 1 in 64 evaluations is sampled; the order is re-ranked every 256 samples
+    private static final int SAMPLE_MASK = 63;
+    private static final int SAMPLES_PER_REORDER = 256;
+
+    private record Branch(int position, Expression expression, boolean bindsReference, int cost, boolean canFail) {
+    }
+
+    private final List<Expression> operands;
+    private final boolean decidingResult;
+    private final Set<String> attributes;
+    private final boolean usesReference;
+    private final int cost;
+    private final boolean canFail;
+
+    private volatile Branch[] order;
+    private final LongAdder[] sampledEvaluations;
+    private final LongAdder[] sampledDecisions;
+    private final AtomicInteger samples = new AtomicInteger();
+
+    /**
+     * @param operands the operands as written
+     * @param decidingResult the operand result that decides the junction: false for AND, true for OR
+     */
+    JunctionExpression(List<Expression> operands, boolean decidingResult) {
+        this.operands = List.copyOf(operands);
+        this.decidingResult = decidingResult;
+
+        Set<String> names = new LinkedHashSet<>();
+        Branch[] branches = new Branch[this.operands.size()];
+        int total = 0;
+        for (int i = 0; i < branches.length; i++) {
+            Expression operand = this.operands.get(i);
+            names.addAll(operand.getAttributes());
+            branches[i] = new Branch(i, operand, operand.usesReference(), operand.estimatedCost(), operand.canFail());
+            total += branches[i].cost();
+        }
+        this.attributes = Set.copyOf(names);
+        this.usesReference = Arrays.stream(branches).anyMatch(Branch::bindsReference);
+        this.cost = total;
+        this.canFail = Arrays.stream(branches).anyMatch(Branch::canFail);
+
+        // Stable sort: equal-cost operands keep their written order
+        sortBetweenFallible(branches, Comparator.comparingInt(Branch::cost));
+        this.order = branches;
+
+        this.sampledEvaluations = new LongAdder[branches.length];
+        this.sampledDecisions = new LongAdder[branches.length];
+        for (int i = 0; i < branches.length; i++) {
+            sampledEvaluations[i] = new LongAdder();
+            sampledDecisions[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return the operands as written
+     */
+    public List<Expression> getOperands() {
+        return operands;
+    }
+
+    /**
+     * Creates the same junction over different operands, e.g. their specialized forms.
+     */
+    abstract JunctionExpression withOperands(List<Expression> replacements);
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        Branch[] branches = order;
+        if (isSampled()) {
+            return evaluateSampled(branches,
+                    (expression, reference) -> expression.evaluate(userAttributes, reference), referenceValue);
+        }
+        return evaluateMap(branches, userAttributes, referenceValue);
+    }
+
+    private boolean evaluateMap(Branch[] branches, Map<String, Object> userAttributes, Object referenceValue) {
+        for (Branch branch : branches) {
+            if (branch.expression().evaluate(userAttributes, branch.bindsReference() ? referenceValue : null)
+                    == decidingResult) {
+                return decidingResult;
+            }
+        }
+        return !decidingResult;
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        // A slot is only assigned when every operand reads the same attribute
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        Branch[] branches = order;
+        if (isSampled()) {
+            return evaluateSampled(branches,
+                    (expression, reference) -> expression.evaluate(frame, slot, reference), referenceValue);
+        }
+        return evaluateFrame(branches, frame, slot, referenceValue);
+    }
+
+    private boolean evaluateFrame(Branch[] branches, AttributeFrame frame, int slot, Object referenceValue) {
+        for (Branch branch : branches) {
+            if (branch.expression().evaluate(frame, slot, branch.bindsReference() ? referenceValue : null)
+                    == decidingResult) {
+                return decidingResult;
+            }
+        }
+        return !decidingResult;
+    }
+
+    private interface BranchEvaluator {
+        boolean evaluate(Expression expression, Object referenceValue);
+    }
+
+    private static boolean isSampled() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    private boolean evaluateSampled(Branch[] branches, BranchEvaluator evaluator, Object referenceValue) {
+        boolean result = !decidingResult;
+        for (Branch branch : branches) {
+            boolean outcome = evaluator.evaluate(branch.expression(), branch.bindsReference() ? referenceValue : null);
+            sampledEvaluations[branch.position()].increment();
+            if (outcome == decidingResult) {
+                sampledDecisions[branch.position()].increment();
+                result = decidingResult;
+                break;
+            }
+        }
+        if (samples.incrementAndGet() % SAMPLES_PER_REORDER == 0) {
+            reorder(branches);
+        }
+        return result;
+    }
+
+    /**
+     * Ranks operands by expected cost per decision: cost divided by the smoothed probability that the operand
+     * decides the junction. A concurrent re-rank is harmless; the last published order wins.
+     */
+    private void reorder(Branch[] current) {
+        double[] rank = new double[current.length];
+        for (Branch branch : current) {
+            double evaluations = sampledEvaluations[branch.position()].sum();
+            double decisions = sampledDecisions[branch.position()].sum();
+            double decideRate = (decisions + 1) / (evaluations + 2);
+            rank[branch.position()] = branch.cost() / decideRate;
+        }
+        Branch[] reordered = current.clone();
+        sortBetweenFallible(reordered, Comparator.comparingDouble(branch -> rank[branch.position()]));
+        order = reordered;
+    }
+
+    /**
+     * Sorts each run of operands that cannot fail, leaving operands that can fail at their position.
+     */
+    private static void sortBetweenFallible(Branch[] branches, Comparator<Branch> comparator) {
+        int start = 0;
+        for (int i = 0; i <= branches.length; i++) {
+            if (i == branches.length || branches[i].canFail()) {
+                Arrays.sort(branches, start, i, comparator);
+                start = i + 1;
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public boolean usesReference() {
+        return usesReference;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean canFail() {
+        return canFail;
+    }
+}
@@ -0,0 +1,102 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hash index over the members of a list used by {@code IN} checks.
+ * Numbers and numeric strings are normalized so that {@code 560001}, {@code 560001.0} and {@code "560001"}
+ * match each other, while non-numeric strings are matched exactly.
+ */
+public final class MembershipSet {
+
+    // Exact string forms: string members as-is, numeric members in canonical form
+    private final Set<String> stringKeys;
+    // Canonical numeric forms of numeric members and numeric-looking string members
+    private final Set<String> numericKeys;
+
+    private MembershipSet(Set<String> stringKeys, Set<String> numericKeys) {
+        this.stringKeys = stringKeys;
+        this.numericKeys = numericKeys;
+    }
+
+    /**
+     * Builds the index for a list of members
+     * @param members The list members (strings, numbers or other scalars)
+     * @return The membership index
+     */
+    public static MembershipSet of(Collection<?> members) {
+        Set<String> stringKeys = new HashSet<>(Math.max(16, members.size() * 2));
+        Set<String> numericKeys = new HashSet<>();
+        for (Object member : members) {
+            if (member == null) {
+                continue;
+            }
+            if (member instanceof Number number) {
+                String canonical = canonical(number);
+                stringKeys.add(canonical);
+                numericKeys.add(canonical);
+            } else {
+                String text = member.toString();
+                stringKeys.add(text);
+                String canonical = canonicalOrNull(text);
+                if (canonical != null) {
+                    numericKeys.add(canonical);
+                }
+            }
+        }
+        return new MembershipSet(stringKeys, numericKeys);
+    }
+
+    /**
+     * Checks whether a value is a member
+     * @param value The attribute value
+     * @return True if the value, normalized, is in the set
+     */
+    public boolean contains(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Number number) {
+            return numericKeys.contains(canonical(number));
+        }
+        return stringKeys.contains(value.toString());
+    }
+
+    public int size() {
+        return stringKeys.size();
+    }
+
+    private static String canonical(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return Long.toString(number.longValue());
+        }
+        double value = number.doubleValue();
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        return (number instanceof BigDecimal decimal ? decimal : BigDecimal.valueOf(value))
+                .stripTrailingZeros().toPlainString();
+    }
+
+    private static String canonicalOrNull(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        char first = trimmed.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            return canonical(new BigDecimal(trimmed));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
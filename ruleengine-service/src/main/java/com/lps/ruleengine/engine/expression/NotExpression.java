@@ -0,0 +1,49 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code NOT operand}.
+ */
+@Getter
+public final class NotExpression implements Expression {
+
+    private final Expression operand;
+
+    public NotExpression(Expression operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        return !operand.evaluate(userAttributes, referenceValue);
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        return !operand.evaluate(frame, slot, referenceValue);
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return operand.getAttributes();
+    }
+
+    @Override
+    public boolean usesReference() {
+        return operand.usesReference();
+    }
+
+    @Override
+    public int estimatedCost() {
+        return operand.estimatedCost();
+    }
+
+    @Override
+    public boolean canFail() {
+        return operand.canFail();
+    }
+}
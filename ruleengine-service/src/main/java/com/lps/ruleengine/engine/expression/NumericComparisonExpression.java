@@ -0,0 +1,85 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+
+/**
+ * Specialized comparison against a numeric constant that was resolved at compile time.
+ * Numeric attributes are compared on primitive doubles; anything else falls back to the generic comparison.
+ */
+@Getter
+public final class NumericComparisonExpression implements Expression {
+
+    private final String attribute;
+    private final Operator operator;
+    private final Object constant;
+    private final double threshold;
+    private final DoublePredicate predicate;
+
+    NumericComparisonExpression(String attribute, Operator operator, Number constant) {
+        this.attribute = attribute;
+        this.operator = operator;
+        this.constant = constant;
+        this.threshold = constant.doubleValue();
+        this.predicate = predicateFor(operator, threshold);
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        Object attributeValue = userAttributes.get(attribute);
+        if (attributeValue == null) {
+            return false;
+        }
+        if (attributeValue instanceof Number number) {
+            return predicate.test(number.doubleValue());
+        }
+        return ComparisonExpression.compareValues(attributeValue, constant, operator);
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        if (frame.isNumeric(slot)) {
+            return predicate.test(frame.number(slot));
+        }
+        String text = frame.string(slot);
+        return text != null && ComparisonExpression.compareStrings(text, constant.toString(), operator);
+    }
+
+    private static DoublePredicate predicateFor(Operator operator, double threshold) {
+        return switch (operator) {
+            case GT -> value -> value > threshold;
+            case GTE -> value -> value >= threshold;
+            case LT -> value -> value < threshold;
+            case LTE -> value -> value <= threshold;
+            case EQ -> value -> Double.compare(value, threshold) == 0;
+            case NEQ -> value -> Double.compare(value, threshold) != 0;
+            case IN -> throw new IllegalArgumentException("IN is not a comparison operator");
+        };
+    }
+
+    @Override
+    public boolean usesReference() {
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return 1;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of(attribute);
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Right-hand side of a comparison or IN expression.
+ * A rule's reference document always takes precedence over the operand written in the expression;
+ * the operand is only used when the rule has no resolvable reference.
+ */
+@Getter
+public final class Operand {
+
+    public enum Kind {
+        NUMBER,     // Numeric literal, e.g. 18
+        STRING,     // Quoted string literal, e.g. 'active'
+        LIST,       // Inline list literal, e.g. ['Bangalore', 'Mumbai']
+        IDENTIFIER  // Symbolic name bound through the rule's reference document, e.g. minAge
+    }
+
+    private final Kind kind;
+    private final Object value;
+
+    private Operand(Kind kind, Object value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    public static Operand number(double value) {
+        return new Operand(Kind.NUMBER, value);
+    }
+
+    public static Operand string(String value) {
+        return new Operand(Kind.STRING, value);
+    }
+
+    public static Operand list(List<Object> values) {
+        return new Operand(Kind.LIST, List.copyOf(values));
+    }
+
+    public static Operand identifier(String name) {
+        return new Operand(Kind.IDENTIFIER, name);
+    }
+
+    /**
+     * Resolves the value to compare against.
+     * @param referenceValue The decoded reference document value, or null
+     * @return The reference value if present, otherwise the literal (an identifier resolves to its own name)
+     */
+    public Object resolve(Object referenceValue) {
+        return referenceValue != null ? referenceValue : value;
+    }
+}
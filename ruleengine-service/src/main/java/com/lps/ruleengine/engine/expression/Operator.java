@@ -0,0 +1,32 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+/**
+ * Operators supported in rule expressions.
+ */
+@Getter
+public enum Operator {
+    GT(">"),
+    GTE(">="),
+    LT("<"),
+    LTE("<="),
+    EQ("=="),
+    NEQ("!="),
+    IN("IN");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public static Operator fromSymbol(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported operator: " + symbol);
+    }
+}
@@ -0,0 +1,18 @@
+package com.lps.ruleengine.engine.expression;
+
+import java.util.List;
+
+/**
+ * {@code a OR b OR ...}: false unless an operand is true.
+ */
+public final class OrExpression extends JunctionExpression {
+
+    public OrExpression(List<Expression> operands) {
+        super(operands, true);
+    }
+
+    @Override
+    JunctionExpression withOperands(List<Expression> replacements) {
+        return new OrExpression(replacements);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lps.ruleengine.engine.expression;
+
+import com.lps.ruleengine.model.Rule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parsed expressions keyed by rule id and rule version.
+ * A rule's expression is parsed when it is written and reused until the rule version changes.
+ */
+@Component
+@Slf4j
+public class ParsedExpressionCache {
+
+    private record Entry(Integer version, String expression, Expression parsed) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the parsed expression for the rule, parsing it if the cached entry is missing or stale.
+     * Expressions that fail to parse yield an {@link UnsupportedExpression} that fails on evaluation.
+     *
+     * @param rule the rule whose expression to parse
+     * @return the parsed expression
+     */
+    public Expression get(Rule rule) {
+        Entry entry = entries.get(rule.getRuleId());
+        if (entry != null && Objects.equals(entry.version(), rule.getVersion())
+                && entry.expression().equals(rule.getExpression())) {
+            hits.increment();
+            return entry.parsed();
+        }
+        misses.increment();
+        return parse(rule);
+    }
+
+    /**
+     * Parses and caches the expression of a rule that was written. Rules are validated before they are saved, but a
+     * stored rule may still hold an expression this parser rejects, e.g. one written before the parser changed; like
+     * {@link #get}, such an expression is cached as an {@link UnsupportedExpression} rather than thrown, so applying
+     * the write to the rest of the in-memory state still completes.
+     *
+     * @param rule the rule that was created or updated
+     */
+    public void put(Rule rule) {
+        parse(rule);
+    }
+
+    private Expression parse(Rule rule) {
+        Expression parsed;
+        try {
+            parsed = ExpressionParser.parse(rule.getExpression());
+        } catch (RuntimeException e) {
+            log.warn("Rule {} has an unsupported expression: {}", rule.getRuleId(), e.getMessage());
+            parsed = new UnsupportedExpression(e.getMessage());
+        }
+        entries.put(rule.getRuleId(), new Entry(rule.getVersion(), rule.getExpression(), parsed));
+        return parsed;
+    }
+
+    /**
+     * Number of lookups served from the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that had to parse the expression.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Drops the cached expression of a deleted rule.
+     *
+     * @param ruleId the rule identifier
+     */
+    public void evict(String ruleId) {
+        entries.remove(ruleId);
+    }
+}
@@ -0,0 +1,61 @@
+package com.lps.ruleengine.engine.expression;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Specialized {@code ==} / {@code !=} against a string constant that was resolved at compile time.
+ */
+@Getter
+public final class StringEqualityExpression implements Expression {
+
+    private final String attribute;
+    private final String constant;
+    private final boolean negated;
+
+    StringEqualityExpression(String attribute, String constant, boolean negated) {
+        this.attribute = attribute;
+        this.constant = constant;
+        this.negated = negated;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        Object attributeValue = userAttributes.get(attribute);
+        if (attributeValue == null) {
+            return false;
+        }
+        return constant.equals(attributeValue.toString()) != negated;
+    }
+
+    @Override
+    public boolean evaluate(AttributeFrame frame, int slot, Object referenceValue) {
+        if (slot < 0) {
+            return evaluate(frame.getSource(), referenceValue);
+        }
+        String text = frame.string(slot);
+        return text != null && constant.equals(text) != negated;
+    }
+
+    @Override
+    public boolean usesReference() {
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return 2;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of(attribute);
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
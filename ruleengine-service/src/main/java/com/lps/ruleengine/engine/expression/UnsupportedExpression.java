@@ -0,0 +1,42 @@
+package com.lps.ruleengine.engine.expression;
+
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stand-in for an expression that failed to parse; evaluation reports the parse error.
+ * Only reachable for rules persisted without going through {@code RuleService}.
+ */
+@Getter
+public final class UnsupportedExpression implements Expression {
+
+    private final String message;
+
+    public UnsupportedExpression(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean evaluate(Map<String, Object> userAttributes, Object referenceValue) {
+        throw new EvaluationException(ErrorCause.UNSUPPORTED_EXPRESSION, message);
+    }
+
+    @Override
+    public boolean usesReference() {
+        return false;
+    }
+
+    @Override
+    public int estimatedCost() {
+        return 1;
+    }
+
+    @Override
+    public Set<String> getAttributes() {
+        return Set.of();
+    }
+}
@@ -0,0 +1,73 @@
+package com.lps.ruleengine.generator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Draws random applicants over the attributes that generated rules read. The attributes of the sample policies are
+ * among them, with values on both sides of their thresholds, so the same applicants also exercise those.
+ */
+public final class ApplicantGenerator {
+
+    /**
+     * A numeric attribute and the range of values applicants have, bounds included.
+     */
+    record NumericAttribute(String name, int min, int max) {
+
+        int draw(Random random) {
+            return min + random.nextInt(max - min + 1);
+        }
+    }
+
+    static final List<NumericAttribute> NUMERIC_ATTRIBUTES = List.of(
+            new NumericAttribute("age", 16, 80),
+            new NumericAttribute("income", 0, 200000),
+            new NumericAttribute("loanAmount", 10000, 2000000),
+            new NumericAttribute("creditScore", 300, 900),
+            new NumericAttribute("tenureMonths", 0, 360),
+            new NumericAttribute("existingLoans", 0, 10));
+
+    static final List<String> BOOLEAN_ATTRIBUTES = List.of("employed", "hasCollateral", "firstTimeBuyer");
+
+    static final String CHANNEL = "channel";
+    static final List<String> CHANNELS = List.of("BRANCH", "ONLINE", "PARTNER", "MOBILE");
+
+    static final String CITY = "city";
+    // The sample data's allowed cities, so that applicants also pass rule_city_check
+    private static final List<String> SAMPLE_CITIES = List.of("Bangalore", "Mumbai", "Delhi", "Chennai");
+
+    private final int cityCount;
+
+    public ApplicantGenerator(GeneratorSpec spec) {
+        this.cityCount = spec.cityCount();
+    }
+
+    /**
+     * Draws one applicant.
+     *
+     * @param random the source of randomness
+     * @return a new, mutable attribute map holding every generated attribute
+     */
+    public Map<String, Object> next(Random random) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (NumericAttribute attribute : NUMERIC_ATTRIBUTES) {
+            attributes.put(attribute.name(), attribute.draw(random));
+        }
+        for (String attribute : BOOLEAN_ATTRIBUTES) {
+            attributes.put(attribute, random.nextBoolean());
+        }
+        attributes.put(CHANNEL, CHANNELS.get(random.nextInt(CHANNELS.size())));
+        attributes.put(CITY, city(random.nextInt(cityCount + SAMPLE_CITIES.size())));
+        return attributes;
+    }
+
+    /**
+     * @param index a city index, below {@link GeneratorSpec#cityCount()} for generated cities
+     * @return the city's name
+     */
+    String city(int index) {
+        return index < cityCount ? "city_" + index : SAMPLE_CITIES.get(index - cityCount);
+    }
+}
@@ -0,0 +1,34 @@
+package com.lps.ruleengine.generator;
+
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A rule base produced by {@link RuleBaseGenerator}, ready to be saved: every rule's reference document and next
+ * rules exist, and every policy lists exactly the rules reachable from its root.
+ */
+@Getter
+@RequiredArgsConstructor
+public class GeneratedRuleBase {
+
+    private final GeneratorSpec spec;
+    private final List<Document> documents;
+    private final List<Rule> rules;
+    private final List<Policy> policies;
+
+    /**
+     * @return a generator of applicants for these rules
+     */
+    public ApplicantGenerator applicants() {
+        return new ApplicantGenerator(spec);
+    }
+
+    public List<String> getPolicyIds() {
+        return policies.stream().map(Policy::getPolicyId).toList();
+    }
+}
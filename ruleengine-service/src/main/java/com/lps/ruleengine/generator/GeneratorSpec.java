@@ -0,0 +1,61 @@
+package com.lps.ruleengine.generator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Size and shape of a generated rule base. The same spec, seed included, always generates the same rule base and
+ * the same stream of applicants.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class GeneratorSpec {
+
+    // Seed of every random choice
+    @Builder.Default
+    private final long seed = 42;
+
+    // Total number of rules, shared and per policy
+    @Builder.Default
+    private final int rules = 20000;
+
+    @Builder.Default
+    private final int policies = 2000;
+
+    // Share of the rules forming a library that any policy may lead into
+    @Builder.Default
+    private final double sharedRuleFraction = 0.1;
+
+    // Number of INTEGER documents used as thresholds of numeric conditions
+    @Builder.Default
+    private final int thresholdDocuments = 100;
+
+    // Number of LIST documents of cities used by IN conditions, and the number of cities in each
+    @Builder.Default
+    private final int listDocuments = 20;
+
+    @Builder.Default
+    private final int listSize = 10000;
+
+    /**
+     * @return the number of rules in the shared library
+     */
+    public int sharedRules() {
+        return Math.max(0, Math.min(rules - policies, (int) (rules * sharedRuleFraction)));
+    }
+
+    /**
+     * @return the number of rules owned by each policy, at least one
+     */
+    public int rulesPerPolicy() {
+        return Math.max(1, (rules - sharedRules()) / Math.max(1, policies));
+    }
+
+    /**
+     * @return the number of generated cities; twice the list size, so an applicant's city is in a list about half
+     * the time
+     */
+    public int cityCount() {
+        return Math.max(100, 2 * listSize);
+    }
+}
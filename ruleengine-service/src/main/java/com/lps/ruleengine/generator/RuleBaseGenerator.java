@@ -0,0 +1,277 @@
+package com.lps.ruleengine.generator;
+
+import com.lps.ruleengine.adaptor.DocumentAdaptor;
+import com.lps.ruleengine.adaptor.PolicyAdaptor;
+import com.lps.ruleengine.adaptor.RuleAdaptor;
+import com.lps.ruleengine.generator.ApplicantGenerator.NumericAttribute;
+import com.lps.ruleengine.model.Document;
+import com.lps.ruleengine.model.Policy;
+import com.lps.ruleengine.model.Rule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates random but valid rule bases at production scale, to load test and capacity-plan the engine.
+ *
+ * <p>A share of the rules forms a shared library; the rest is split evenly between the policies. A policy's own
+ * rules form a random binary tree below its root, each rule being the outcome of an earlier one, and every outcome
+ * left over either ends in a value or leads into the library. Library rules only lead to later library rules, so no
+ * graph has a cycle. Conditions mix literal comparisons, thresholds held in INTEGER documents, {@code IN} checks
+ * against LIST documents of cities, string equality, boolean attributes and compound expressions, all over the
+ * attributes {@link ApplicantGenerator} draws.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RuleBaseGenerator {
+
+    // Chance that an outcome not needed to reach a policy's own rules leads into the library
+    private static final double LIBRARY_LINK_PROBABILITY = 0.2;
+    // Chance that a library rule leads to another one, and how far ahead that one may be
+    private static final double LIBRARY_CHAIN_PROBABILITY = 0.3;
+    private static final int LIBRARY_CHAIN_WINDOW = 50;
+
+    private static final String SHARED_RULE_PREFIX = "gen_rule_shared_";
+
+    private static final List<String> RANGE_OPERATORS = List.of(">", ">=", "<", "<=");
+    private static final List<String> ALL_OPERATORS = List.of(">", ">=", "<", "<=", "==", "!=");
+
+    private final DocumentAdaptor documentAdaptor;
+    private final RuleAdaptor ruleAdaptor;
+    private final PolicyAdaptor policyAdaptor;
+
+    private record Threshold(String documentId, NumericAttribute attribute) {
+    }
+
+    private record Condition(String expression, String referenceId) {
+    }
+
+    // Where one rule leads when its condition is true and when it is false; null ends in a value
+    private static final class Outcomes {
+        String onTrue;
+        String onFalse;
+    }
+
+    /**
+     * Generates a rule base.
+     *
+     * @param spec the size and shape of the rule base
+     * @return the documents, rules and policies, not yet saved
+     */
+    public GeneratedRuleBase generate(GeneratorSpec spec) {
+        long start = System.nanoTime();
+        Random random = new Random(spec.getSeed());
+        List<Document> documents = new ArrayList<>();
+
+        List<Threshold> thresholds = new ArrayList<>();
+        for (int i = 0; i < spec.getThresholdDocuments(); i++) {
+            NumericAttribute attribute = ApplicantGenerator.NUMERIC_ATTRIBUTES.get(
+                    i % ApplicantGenerator.NUMERIC_ATTRIBUTES.size());
+            String documentId = String.format("gen_doc_threshold_%04d", i);
+            documents.add(documentAdaptor.createDocumentFromIdAndValue(documentId, attribute.draw(random)));
+            thresholds.add(new Threshold(documentId, attribute));
+        }
+
+        ApplicantGenerator applicants = new ApplicantGenerator(spec);
+        List<String> lists = new ArrayList<>();
+        for (int i = 0; i < spec.getListDocuments(); i++) {
+            String documentId = String.format("gen_doc_cities_%04d", i);
+            documents.add(documentAdaptor.createDocumentFromIdAndValue(documentId,
+                    cities(applicants, spec, random)));
+            lists.add(documentId);
+        }
+
+        List<Rule> rules = new ArrayList<>(spec.getRules());
+        List<String> libraryIds = new ArrayList<>(spec.sharedRules());
+        List<Outcomes> libraryOutcomes = new ArrayList<>(spec.sharedRules());
+        for (int i = 0; i < spec.sharedRules(); i++) {
+            libraryIds.add(String.format(SHARED_RULE_PREFIX + "%05d", i));
+        }
+        for (int i = 0; i < libraryIds.size(); i++) {
+            Outcomes outcomes = new Outcomes();
+            outcomes.onTrue = libraryLink(libraryIds, i, random);
+            outcomes.onFalse = libraryLink(libraryIds, i, random);
+            libraryOutcomes.add(outcomes);
+            rules.add(rule(libraryIds.get(i), condition(random, thresholds, lists), outcomes, random,
+                    "Shared rule " + i));
+        }
+
+        List<Policy> policies = new ArrayList<>(spec.getPolicies());
+        int rulesPerPolicy = spec.rulesPerPolicy();
+        for (int p = 0; p < spec.getPolicies(); p++) {
+            List<String> ruleIds = new ArrayList<>(rulesPerPolicy);
+            for (int j = 0; j < rulesPerPolicy; j++) {
+                ruleIds.add(String.format("gen_rule_%05d_%04d", p, j));
+            }
+            List<Outcomes> outcomes = tree(ruleIds, libraryIds, random);
+
+            Set<String> reachable = new LinkedHashSet<>(ruleIds);
+            for (int j = 0; j < rulesPerPolicy; j++) {
+                rules.add(rule(ruleIds.get(j), condition(random, thresholds, lists), outcomes.get(j), random,
+                        "Rule " + j + " of generated policy " + p));
+                addLibraryClosure(outcomes.get(j), libraryOutcomes, reachable);
+            }
+            policies.add(policyAdaptor.createPolicy(String.format("gen_policy_%05d", p),
+                    "Generated Policy " + p, "Generated with seed " + spec.getSeed(), ruleIds.get(0),
+                    new ArrayList<>(reachable), 1 + random.nextInt(10), true));
+        }
+
+        log.info("Generated {} documents, {} rules and {} policies in {} ms", documents.size(), rules.size(),
+                policies.size(), (System.nanoTime() - start) / 1_000_000);
+        return new GeneratedRuleBase(spec, documents, rules, policies);
+    }
+
+    /**
+     * Links each rule after the first to a random free outcome of an earlier one, then ends every outcome left
+     * over in a value or in the library.
+     */
+    private static List<Outcomes> tree(List<String> ruleIds, List<String> libraryIds, Random random) {
+        List<Outcomes> outcomes = new ArrayList<>(ruleIds.size());
+        // Free outcomes as rule index * 2, plus one for the false outcome
+        List<Integer> free = new ArrayList<>();
+        for (int j = 0; j < ruleIds.size(); j++) {
+            outcomes.add(new Outcomes());
+            if (j > 0) {
+                int pick = random.nextInt(free.size());
+                int slot = free.get(pick);
+                free.set(pick, free.get(free.size() - 1));
+                free.remove(free.size() - 1);
+                setOutcome(outcomes.get(slot / 2), slot % 2 == 0, ruleIds.get(j));
+            }
+            free.add(2 * j);
+            free.add(2 * j + 1);
+        }
+        for (int slot : free) {
+            if (!libraryIds.isEmpty() && random.nextDouble() < LIBRARY_LINK_PROBABILITY) {
+                setOutcome(outcomes.get(slot / 2), slot % 2 == 0, libraryIds.get(random.nextInt(libraryIds.size())));
+            }
+        }
+        return outcomes;
+    }
+
+    private static void setOutcome(Outcomes outcomes, boolean onTrue, String ruleId) {
+        if (onTrue) {
+            outcomes.onTrue = ruleId;
+        } else {
+            outcomes.onFalse = ruleId;
+        }
+    }
+
+    private static String libraryLink(List<String> libraryIds, int index, Random random) {
+        int remaining = Math.min(LIBRARY_CHAIN_WINDOW, libraryIds.size() - index - 1);
+        if (remaining <= 0 || random.nextDouble() >= LIBRARY_CHAIN_PROBABILITY) {
+            return null;
+        }
+        return libraryIds.get(index + 1 + random.nextInt(remaining));
+    }
+
+    private static void addLibraryClosure(Outcomes outcomes, List<Outcomes> libraryOutcomes, Set<String> reachable) {
+        Deque<String> pending = new ArrayDeque<>();
+        addIfLibrary(outcomes.onTrue, pending);
+        addIfLibrary(outcomes.onFalse, pending);
+        while (!pending.isEmpty()) {
+            String ruleId = pending.pop();
+            if (reachable.add(ruleId)) {
+                Outcomes next = libraryOutcomes.get(libraryIndex(ruleId));
+                addIfLibrary(next.onTrue, pending);
+                addIfLibrary(next.onFalse, pending);
+            }
+        }
+    }
+
+    private static void addIfLibrary(String ruleId, Deque<String> pending) {
+        if (ruleId != null && ruleId.startsWith(SHARED_RULE_PREFIX)) {
+            pending.push(ruleId);
+        }
+    }
+
+    private static int libraryIndex(String ruleId) {
+        return Integer.parseInt(ruleId.substring(SHARED_RULE_PREFIX.length()));
+    }
+
+    private Rule rule(String ruleId, Condition condition, Outcomes outcomes, Random random, String description) {
+        return ruleAdaptor.createRule(ruleId, condition.expression(), condition.referenceId(),
+                outcomes.onTrue != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE,
+                outcomes.onTrue != null ? outcomes.onTrue : String.valueOf(random.nextBoolean()),
+                outcomes.onFalse != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE,
+                outcomes.onFalse != null ? outcomes.onFalse : String.valueOf(random.nextBoolean()),
+                description, true);
+    }
+
+    private static Condition condition(Random random, List<Threshold> thresholds, List<String> lists) {
+        int kind = random.nextInt(100);
+        if (kind < 30) {
+            return new Condition(numericLiteral(random), null);
+        }
+        if (kind < 50 && !thresholds.isEmpty()) {
+            Threshold threshold = thresholds.get(random.nextInt(thresholds.size()));
+            String attribute = threshold.attribute().name();
+            return new Condition(attribute + " " + pick(RANGE_OPERATORS, random) + " " + attribute + "Threshold",
+                    threshold.documentId());
+        }
+        if (kind < 62 && !lists.isEmpty()) {
+            return new Condition(ApplicantGenerator.CITY + " IN allowedCities",
+                    lists.get(random.nextInt(lists.size())));
+        }
+        if (kind < 65) {
+            return new Condition(ApplicantGenerator.CHANNEL + " IN ['" + pick(ApplicantGenerator.CHANNELS, random)
+                    + "', '" + pick(ApplicantGenerator.CHANNELS, random) + "']", null);
+        }
+        if (kind < 75) {
+            return new Condition(ApplicantGenerator.CHANNEL + (random.nextBoolean() ? " == '" : " != '")
+                    + pick(ApplicantGenerator.CHANNELS, random) + "'", null);
+        }
+        if (kind < 85) {
+            return new Condition(booleanAttribute(random), null);
+        }
+        return new Condition(compoundPart(random) + (random.nextBoolean() ? " AND " : " OR ")
+                + compoundPart(random), null);
+    }
+
+    private static String compoundPart(Random random) {
+        return random.nextInt(3) == 0 ? booleanAttribute(random) : numericLiteral(random);
+    }
+
+    private static String numericLiteral(Random random) {
+        NumericAttribute attribute = pick(ApplicantGenerator.NUMERIC_ATTRIBUTES, random);
+        // Equality only makes sense for attributes with few values
+        List<String> operators = attribute.max() - attribute.min() <= 10 ? ALL_OPERATORS : RANGE_OPERATORS;
+        return attribute.name() + " " + pick(operators, random) + " " + attribute.draw(random);
+    }
+
+    private static String booleanAttribute(Random random) {
+        String attribute = pick(ApplicantGenerator.BOOLEAN_ATTRIBUTES, random);
+        return random.nextBoolean() ? attribute : "NOT " + attribute;
+    }
+
+    private static List<String> cities(ApplicantGenerator applicants, GeneratorSpec spec, Random random) {
+        // Partial shuffle: the first listSize indices end up a random sample without repeats
+        int[] indices = new int[spec.cityCount()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        int size = Math.min(spec.getListSize(), indices.length);
+        List<String> cities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int j = i + random.nextInt(indices.length - i);
+            int swap = indices[i];
+            indices[i] = indices[j];
+            indices[j] = swap;
+            cities.add(applicants.city(indices[i]));
+        }
+        return cities;
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.lps.ruleengine.service;
 
 import com.lps.ruleengine.dto.CreateDocumentRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
 import com.lps.ruleengine.model.Document;
 
 import java.util.List;
@@ -69,4 +70,11 @@ public interface IDocumentService {
      * @return The created or updated document
      */
     Document createOrUpdateDocument(String documentId, Object value);
+
+    /**
+     * Retrieves the rules and policies whose decisions depend on a document
+     * @param documentId The document identifier
+     * @return Optional containing the dependents, empty if the document does not exist
+     */
+    Optional<DependentsResponse> getDependents(String documentId);
 }
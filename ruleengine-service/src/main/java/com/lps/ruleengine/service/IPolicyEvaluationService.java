@@ -1,8 +1,13 @@
 package com.lps.ruleengine.service;
 
+import com.lps.ruleengine.dto.EvaluationRequest;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
 import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.dto.ResidualPolicyResponse;
 
+import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Interface for policy evaluation operations.
@@ -16,19 +21,23 @@ public interface IPolicyEvaluationService {
      * @param policyId The policy identifier
      * @param userId The user identifier
      * @param userAttributes The user attributes to evaluate against
+     * @param traceLevel How much execution trace to return; null means FULL
      * @return The evaluation response
      * @throws RuntimeException if policy not found or inactive
      */
-    EvaluationResponse evaluatePolicy(String policyId, String userId, Map<String, Object> userAttributes);
+    EvaluationResponse evaluatePolicy(String policyId, String userId, Map<String, Object> userAttributes,
+                                  TraceLevel traceLevel);
 
     /**
      * Evaluates a single rule (for client applications that need direct rule evaluation)
      * @param ruleId The rule identifier
      * @param userId The user identifier
      * @param userAttributes The user attributes to evaluate against
+     * @param traceLevel How much execution trace to return; null means FULL
      * @return The evaluation response
      */
-    EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes);
+    EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes,
+                                    TraceLevel traceLevel);
 
     /**
      * Bulk policy evaluation for multiple policies
@@ -36,8 +45,107 @@ public interface IPolicyEvaluationService {
      * @param policyIds Array of policy identifiers
      * @param userId The user identifier
      * @param userAttributes The user attributes to evaluate against
+     * @param traceLevel How much execution trace to return for each policy; null means FULL
      * @return Map of policy ID to evaluation response
      */
     Map<String, EvaluationResponse> evaluateMultiplePolicies(
-            String[] policyIds, String userId, Map<String, Object> userAttributes);
+            String[] policyIds, String userId, Map<String, Object> userAttributes, TraceLevel traceLevel);
+
+    /**
+     * Evaluates every active policy for a user, highest priority first
+     * Rules shared between policies are evaluated only once per call
+     * @param userId The user identifier
+     * @param userAttributes The user attributes to evaluate against
+     * @param traceLevel How much execution trace to return for each policy; null means FULL
+     * @return Map of policy ID to evaluation response
+     */
+    Map<String, EvaluationResponse> evaluatePortfolio(String userId, Map<String, Object> userAttributes,
+                                                      TraceLevel traceLevel);
+
+    /**
+     * Partially evaluates a policy for attribute values that are the same on every request
+     * Rules decidable from the fixed values are folded away; the residual is cached and rebuilt when the policy,
+     * its rules or documents change version
+     * @param policyId The policy identifier
+     * @param fixedAttributes The attribute values shared by every request
+     * @return The residual policy, including the id to evaluate it with
+     * @throws RuntimeException if policy not found or inactive
+     */
+    ResidualPolicyResponse createResidualPolicy(String policyId, Map<String, Object> fixedAttributes);
+
+    /**
+     * Evaluates a residual policy created by {@link #createResidualPolicy(String, Map)}
+     * @param residualId The residual identifier
+     * @param userId The user identifier
+     * @param userAttributes The attributes that vary per request; fixed values take precedence
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response
+     * @throws RuntimeException if the residual is unknown or its policy no longer exists or is inactive
+     */
+    EvaluationResponse evaluateResidualPolicy(String residualId, String userId, Map<String, Object> userAttributes,
+                                              TraceLevel traceLevel);
+
+    /**
+     * Opens an evaluation session for a user and policy and evaluates the policy in full
+     * Replaces any open session of the same user and policy
+     * @param policyId The policy identifier
+     * @param userId The user identifier
+     * @param userAttributes The applicant's attributes
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response
+     * @throws RuntimeException if policy not found or inactive
+     */
+    EvaluationResponse startSession(String policyId, String userId, Map<String, Object> userAttributes,
+                                    TraceLevel traceLevel);
+
+    /**
+     * Applies an attribute delta to an open session and re-evaluates only from the first rule on the previous
+     * path that reads a changed attribute; if the policy, its rules or documents changed, evaluates in full
+     * @param policyId The policy identifier
+     * @param userId The user identifier
+     * @param changedAttributes The changed attributes; a null value removes the attribute
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response, including how many rules were evaluated
+     * @throws RuntimeException if no session is open or the policy no longer exists or is inactive
+     */
+    EvaluationResponse updateSession(String policyId, String userId, Map<String, Object> changedAttributes,
+                                     TraceLevel traceLevel);
+
+    /**
+     * Closes the evaluation session of a user and policy
+     * @param policyId The policy identifier
+     * @param userId The user identifier
+     * @return true if a session was open
+     */
+    boolean endSession(String policyId, String userId);
+
+    /**
+     * Returns statistics of the decision cache in front of {@link #evaluatePolicy}
+     * @return Whether the cache is enabled, its size, and hit, miss and eviction counts
+     */
+    Map<String, Object> getDecisionCacheStats();
+
+    /**
+     * Prepares a batch evaluation of many users against one policy
+     * The policy, its rules and documents are resolved once here and shared by every user in the batch
+     * @param policyId The policy identifier
+     * @param vectorized Whether to evaluate users column-wise; responses then carry no execution trace
+     * @return An evaluator for the batch
+     * @throws RuntimeException if policy not found or inactive
+     */
+    BatchEvaluator prepareBatch(String policyId, boolean vectorized);
+
+    /**
+     * Evaluates a stream of users against a policy resolved by {@link #prepareBatch(String, boolean)}.
+     */
+    interface BatchEvaluator {
+
+        /**
+         * Evaluates users in parallel chunks and hands results to the sink in input order
+         * @param requests The users to evaluate; consumed lazily
+         * @param sink Receives one response per request, in order
+         * @return The number of users evaluated
+         */
+        long evaluate(Iterator<EvaluationRequest> requests, Consumer<EvaluationResponse> sink);
+    }
 }
@@ -0,0 +1,26 @@
+package com.lps.ruleengine.service;
+
+import com.lps.ruleengine.dto.RuleBaseFileResponse;
+
+import java.util.Optional;
+
+/**
+ * Interface for the binary rule base file.
+ * Defines contract for exporting the rule base and inspecting the exported file.
+ */
+public interface IRuleBaseFileService {
+
+    /**
+     * Exports every rule, document and policy in the database to the configured rule base file
+     * @return Description of the written file
+     * @throws RuntimeException if no file is configured or it cannot be written
+     */
+    RuleBaseFileResponse exportFile();
+
+    /**
+     * Reads and verifies the configured rule base file
+     * @return Description of the file, marked invalid if it is unreadable or corrupt;
+     * empty if no file is configured or it does not exist
+     */
+    Optional<RuleBaseFileResponse> getFile();
+}
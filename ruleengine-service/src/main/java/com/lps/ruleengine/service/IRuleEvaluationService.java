@@ -1,8 +1,14 @@
 package com.lps.ruleengine.service;
 
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
 import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.engine.CompiledPolicy;
+import com.lps.ruleengine.engine.EvaluationSession;
+import com.lps.ruleengine.engine.PortfolioGraph;
+import com.lps.ruleengine.engine.ResidualPolicy;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for rule evaluation operations.
@@ -15,8 +21,53 @@ public interface IRuleEvaluationService {
      * @param ruleId The rule identifier to evaluate
      * @param userId The user identifier
      * @param userAttributes The user attributes to evaluate the rule against
+     * @param traceLevel How much execution trace to return; null means FULL
      * @return The evaluation response containing result and execution trace
      * @throws RuntimeException if rule not found or inactive
      */
-    EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes);
+    EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes,
+                                    TraceLevel traceLevel);
+
+    /**
+     * Evaluates a compiled policy against user attributes
+     * @param policy The compiled policy to evaluate
+     * @param userId The user identifier
+     * @param userAttributes The user attributes to evaluate the policy against
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response containing result and execution trace
+     */
+    EvaluationResponse evaluatePolicy(CompiledPolicy policy, String userId, Map<String, Object> userAttributes,
+                                      TraceLevel traceLevel);
+
+    /**
+     * Evaluates a session's policy against its current attributes, resuming from the first rule on the previous
+     * path that reads a changed attribute, and records the new path in the session
+     * @param session The evaluation session; the caller holds its lock
+     * @param changedAttributes Names of the attributes changed since the last evaluation; null to start from the root
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response; its trace covers the whole path, including reused rules
+     */
+    EvaluationResponse evaluateSession(EvaluationSession session, Set<String> changedAttributes, TraceLevel traceLevel);
+
+    /**
+     * Evaluates every policy of a portfolio, evaluating each distinct rule at most once
+     * @param portfolio The merged graph of the active policies
+     * @param userId The user identifier
+     * @param userAttributes The user attributes to evaluate the policies against
+     * @param traceLevel How much execution trace to return for each policy; null means FULL
+     * @return Map of policy ID to evaluation response, in portfolio order
+     */
+    Map<String, EvaluationResponse> evaluatePortfolio(PortfolioGraph portfolio, String userId,
+                                                      Map<String, Object> userAttributes, TraceLevel traceLevel);
+
+    /**
+     * Evaluates a residual policy; the fixed attribute values take precedence over the request's
+     * @param residual The policy partially evaluated for fixed attribute values
+     * @param userId The user identifier
+     * @param userAttributes The attributes that vary per request
+     * @param traceLevel How much execution trace to return; null means FULL
+     * @return The evaluation response; the trace lists only the rules that were not folded away
+     */
+    EvaluationResponse evaluateResidual(ResidualPolicy residual, String userId, Map<String, Object> userAttributes,
+                                        TraceLevel traceLevel);
 }
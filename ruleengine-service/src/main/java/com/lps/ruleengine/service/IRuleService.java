@@ -1,9 +1,11 @@
 package com.lps.ruleengine.service;
 
 import com.lps.ruleengine.dto.CreateRuleRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
 import com.lps.ruleengine.model.Rule;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -81,4 +83,18 @@ public interface IRuleService {
      * @return Count of active rules
      */
     long getActiveRuleCount();
+
+    /**
+     * Gets the branch statistics recorded for a rule since it was last changed
+     * @param ruleId The rule identifier
+     * @return Optional containing the outcome counts, rates and mean evaluation time if the rule exists
+     */
+    Optional<Map<String, Object>> getRuleStatistics(String ruleId);
+
+    /**
+     * Retrieves the rules and policies whose evaluation can reach a rule
+     * @param ruleId The rule identifier
+     * @return Optional containing the dependents, empty if the rule does not exist
+     */
+    Optional<DependentsResponse> getDependents(String ruleId);
 }
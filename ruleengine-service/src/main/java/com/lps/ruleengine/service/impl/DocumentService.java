@@ -1,7 +1,11 @@
 package com.lps.ruleengine.service.impl;
 
+import com.lps.ruleengine.adaptor.DependencyAdaptor;
 import com.lps.ruleengine.adaptor.DocumentAdaptor;
 import com.lps.ruleengine.dto.CreateDocumentRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
+import com.lps.ruleengine.engine.ChangePublisher;
+import com.lps.ruleengine.engine.DependencyIndex;
 import com.lps.ruleengine.model.Document;
 import com.lps.ruleengine.repository.DocumentRepository;
 import com.lps.ruleengine.service.IDocumentService;
@@ -19,6 +23,9 @@ public class DocumentService implements IDocumentService {
 
     private final DocumentRepository documentRepository;
     private final DocumentAdaptor documentAdaptor;
+    private final DependencyIndex dependencyIndex;
+    private final DependencyAdaptor dependencyAdaptor;
+    private final ChangePublisher changePublisher;
 
     @Override
     public Document createDocument(CreateDocumentRequest request) {
@@ -30,7 +37,7 @@ public class DocumentService implements IDocumentService {
         
         Document document = documentAdaptor.createDocumentFromRequest(request);
         
-        return documentRepository.save(document);
+        return changePublisher.saveDocument(document);
     }
 
     @Override
@@ -58,9 +65,8 @@ public class DocumentService implements IDocumentService {
         Document existing = existingOpt.get();
         existing.setDocumentValue(request.getDocumentValue());
         existing.setValueType(request.getValueType());
-        existing.setVersion(existing.getVersion() + 1);
         
-        return documentRepository.save(existing);
+        return changePublisher.saveDocument(existing);
     }
 
     @Override
@@ -68,7 +74,7 @@ public class DocumentService implements IDocumentService {
         if (!documentRepository.existsByDocumentId(documentId)) {
             throw new RuntimeException("Document not found: " + documentId);
         }
-        documentRepository.deleteById(documentId);
+        changePublisher.deleteDocument(documentId);
     }
 
     @Override
@@ -85,10 +91,18 @@ public class DocumentService implements IDocumentService {
             Document updated = documentAdaptor.createDocumentFromIdAndValue(documentId, value);
             existing.setDocumentValue(updated.getDocumentValue());
             existing.setValueType(updated.getValueType());
-            existing.setVersion(existing.getVersion() + 1);
-            return documentRepository.save(existing);
+            return changePublisher.saveDocument(existing);
         } else {
-            return documentRepository.save(documentAdaptor.createDocumentFromIdAndValue(documentId, value));
+            return changePublisher.saveDocument(documentAdaptor.createDocumentFromIdAndValue(documentId, value));
         }
     }
+
+    @Override
+    public Optional<DependentsResponse> getDependents(String documentId) {
+        if (!documentRepository.existsByDocumentId(documentId)) {
+            return Optional.empty();
+        }
+        return Optional.of(dependencyAdaptor.createDependentsResponse(documentId,
+                dependencyIndex.ofDocument(documentId)));
+    }
 }
@@ -1,53 +1,109 @@
 package com.lps.ruleengine.service.impl;
 
+import com.lps.ruleengine.adaptor.EvaluationResponseAdaptor;
+import com.lps.ruleengine.adaptor.ResidualPolicyAdaptor;
+import com.lps.ruleengine.dto.EvaluationRequest;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
 import com.lps.ruleengine.dto.EvaluationResponse;
-import com.lps.ruleengine.model.Policy;
-import com.lps.ruleengine.repository.PolicyRepository;
+import com.lps.ruleengine.dto.ResidualPolicyResponse;
+import com.lps.ruleengine.engine.CompiledPolicy;
+import com.lps.ruleengine.engine.CompiledPolicyRegistry;
+import com.lps.ruleengine.engine.DecisionCache;
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.engine.EvaluationMetrics.EvaluationPath;
+import com.lps.ruleengine.engine.EvaluationSession;
+import com.lps.ruleengine.engine.EvaluationSessionStore;
+import com.lps.ruleengine.engine.ResidualPolicy;
+import com.lps.ruleengine.engine.ResidualPolicyRegistry;
+import com.lps.ruleengine.engine.TieredExecution;
+import com.lps.ruleengine.engine.columnar.ColumnarEvaluator;
+import com.lps.ruleengine.engine.columnar.ColumnarResult;
 import com.lps.ruleengine.service.IPolicyEvaluationService;
 import com.lps.ruleengine.service.IRuleEvaluationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PolicyEvaluationService implements IPolicyEvaluationService {
 
-    private final PolicyRepository policyRepository;
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
     private final IRuleEvaluationService ruleEvaluationService;
+    private final EvaluationResponseAdaptor evaluationResponseAdaptor;
+    private final ExecutorService policyEvaluationExecutor;
+    private final DecisionCache decisionCache;
+    private final ResidualPolicyRegistry residualPolicyRegistry;
+    private final ResidualPolicyAdaptor residualPolicyAdaptor;
+    private final EvaluationSessionStore evaluationSessionStore;
+    private final TieredExecution tieredExecution;
+    private final EvaluationMetrics evaluationMetrics;
+
+    @Value("${ruleengine.evaluation.multi-policy.timeout-ms:2000}")
+    private long multiPolicyTimeoutMs;
+
+    @Value("${ruleengine.evaluation.batch.chunk-size:1024}")
+    private int batchChunkSize;
+
+    @Value("${ruleengine.evaluation.batch.vectorized-slice-size:512}")
+    private int vectorizedSliceSize;
 
     /**
      * Evaluates a policy for a user with given attributes
      * This is the primary client-facing evaluation method
      */
     @Override
-    public EvaluationResponse evaluatePolicy(String policyId, String userId, Map<String, Object> userAttributes) {
+    public EvaluationResponse evaluatePolicy(String policyId, String userId, Map<String, Object> userAttributes,
+                                             TraceLevel traceLevel) {
         log.info("Evaluating policy: {} for user: {}", policyId, userId);
+        long started = System.nanoTime();
         
-        // Validate policy exists and is active
-        Optional<Policy> policyOpt = policyRepository.findByPolicyId(policyId);
-        if (policyOpt.isEmpty()) {
-            throw new RuntimeException("Policy not found: " + policyId);
-        }
-        
-        Policy policy = policyOpt.get();
-        if (!policy.getIsActive()) {
-            throw new RuntimeException("Policy is inactive: " + policyId);
+        // Validate policy exists and is active; compiled once and served from memory afterwards
+        CompiledPolicy policy;
+        try {
+            policy = compiledPolicyRegistry.getPolicy(policyId);
+        } catch (RuntimeException e) {
+            evaluationMetrics.recordError(EvaluationException.causeOf(e));
+            throw e;
         }
         
         log.debug("Policy found: {}, root rule: {}", policy.getPolicyName(), policy.getRootRuleId());
         
-        // Evaluate starting from the root rule
-        EvaluationResponse response = ruleEvaluationService.evaluateRule(
-            policy.getRootRuleId(), userId, userAttributes);
+        // Repeated evaluations with the same relevant attributes reuse the memoized decision
+        DecisionCache.Key cacheKey = decisionCache.keyFor(policy, userAttributes, traceLevel);
+        EvaluationResponse cached = decisionCache.get(cacheKey);
+        if (cached != null) {
+            log.info("Policy evaluation served from decision cache for user: {}, result: {}", userId, cached.getResult());
+            EvaluationResponse response = evaluationResponseAdaptor.createSuccessResponse(cached.getResult(), userId,
+                    policyId, "POLICY", cached.getExecutionTrace(), cached.getPath());
+            response.setSnapshotVersion(cached.getSnapshotVersion());
+            evaluationMetrics.recordPolicyEvaluation(policyId, EvaluationPath.SINGLE, System.nanoTime() - started);
+            return response;
+        }
         
-        // Update response to indicate it was a policy evaluation
-        response.setEvaluatedId(policyId);
-        response.setEvaluationType("POLICY");
+        // Evaluate starting from the root rule
+        EvaluationResponse response = ruleEvaluationService.evaluatePolicy(policy, userId, userAttributes, traceLevel);
+        decisionCache.put(cacheKey, response);
+        evaluationMetrics.recordPolicyEvaluation(policyId, EvaluationPath.SINGLE, System.nanoTime() - started);
         
         log.info("Policy evaluation completed for user: {}, result: {}", userId, response.getResult());
         
@@ -58,26 +114,282 @@ public class PolicyEvaluationService implements IPolicyEvaluationService {
      * Evaluates a single rule (for client applications that need direct rule evaluation)
      */
     @Override
-    public EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes) {
+    public EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes,
+                                           TraceLevel traceLevel) {
         log.info("Direct rule evaluation: {} for user: {}", ruleId, userId);
         
-        return ruleEvaluationService.evaluateRule(ruleId, userId, userAttributes);
+        return ruleEvaluationService.evaluateRule(ruleId, userId, userAttributes, traceLevel);
     }
 
     /**
      * Bulk policy evaluation for multiple policies
      * Useful for comparing different policy outcomes
+     * Policies are loaded in one query and evaluated concurrently, so the call costs the slowest policy rather than
+     * the sum of all of them. One deadline covers the whole call: a policy that fails, is rejected by the saturated
+     * evaluation pool or is not done by the deadline gets an error response of its own.
      */
     @Override
     public Map<String, EvaluationResponse> evaluateMultiplePolicies(
-            String[] policyIds, String userId, Map<String, Object> userAttributes) {
+            String[] policyIds, String userId, Map<String, Object> userAttributes, TraceLevel traceLevel) {
         
         log.info("Bulk evaluation for user: {} across {} policies", userId, policyIds.length);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(multiPolicyTimeoutMs);
+        
+        List<String> distinctPolicyIds = Arrays.stream(policyIds).distinct().toList();
+        compiledPolicyRegistry.preload(distinctPolicyIds);
+        
+        Map<String, CompletableFuture<EvaluationResponse>> pending = new LinkedHashMap<>();
+        for (String policyId : distinctPolicyIds) {
+            CompletableFuture<EvaluationResponse> evaluation;
+            try {
+                evaluation = CompletableFuture.supplyAsync(
+                        () -> evaluatePolicy(policyId, userId, userAttributes, traceLevel), policyEvaluationExecutor);
+            } catch (RejectedExecutionException e) {
+                evaluation = CompletableFuture.failedFuture(e);
+            }
+            pending.put(policyId, evaluation
+                    .orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    .exceptionally(e -> createPolicyErrorResponse(policyId, userId, e)));
+        }
         
-        return java.util.Arrays.stream(policyIds)
-            .collect(java.util.stream.Collectors.toMap(
-                policyId -> policyId,
-                policyId -> evaluatePolicy(policyId, userId, userAttributes)
-            ));
+        Map<String, EvaluationResponse> responses = new LinkedHashMap<>();
+        pending.forEach((policyId, response) -> responses.put(policyId, response.join()));
+        return responses;
+    }
+
+    private EvaluationResponse createPolicyErrorResponse(String policyId, String userId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message;
+        if (cause instanceof TimeoutException) {
+            message = "Policy evaluation timed out after " + multiPolicyTimeoutMs + " ms";
+            evaluationMetrics.recordError(ErrorCause.TIMEOUT);
+        } else if (cause instanceof RejectedExecutionException) {
+            message = "Policy evaluation rejected, the evaluation pool is saturated";
+            evaluationMetrics.recordError(ErrorCause.REJECTED);
+        } else {
+            // Already counted by the evaluation that raised it
+            message = cause.getMessage();
+        }
+        log.warn("Bulk evaluation of policy {} failed for user {}: {}", policyId, userId, message);
+        return evaluationResponseAdaptor.createErrorResponse(userId, policyId, "POLICY", List.of(), message);
+    }
+
+    /**
+     * Evaluates every active policy for a user over one shared graph
+     * Used to present all products an applicant is eligible for
+     */
+    @Override
+    public Map<String, EvaluationResponse> evaluatePortfolio(String userId, Map<String, Object> userAttributes,
+                                                             TraceLevel traceLevel) {
+        log.info("Portfolio evaluation for user: {}", userId);
+        
+        Map<String, EvaluationResponse> responses = ruleEvaluationService.evaluatePortfolio(
+                compiledPolicyRegistry.getPortfolio(), userId, userAttributes, traceLevel);
+        
+        log.info("Portfolio evaluation completed for user: {}, eligible policies: {}", userId,
+                responses.values().stream().filter(EvaluationResponse::getResult).count());
+        return responses;
+    }
+
+    /**
+     * Partially evaluates a policy for fixed attribute values
+     * Used for channel partners whose requests always carry the same city or product
+     */
+    @Override
+    public ResidualPolicyResponse createResidualPolicy(String policyId, Map<String, Object> fixedAttributes) {
+        log.info("Creating residual of policy: {} for fixed attributes: {}", policyId, fixedAttributes.keySet());
+        
+        ResidualPolicy residual = residualPolicyRegistry.getOrCreate(policyId, fixedAttributes);
+        
+        log.info("Residual {} of policy {} keeps {} rules, folded {}", residual.getResidualId(), policyId,
+                residual.getRemainingRuleIds().size(), residual.getFoldedRuleIds().size());
+        return residualPolicyAdaptor.createResidualPolicyResponse(residual);
+    }
+
+    /**
+     * Evaluates a residual policy, rebuilding it first if anything it was built from changed
+     */
+    @Override
+    public EvaluationResponse evaluateResidualPolicy(String residualId, String userId, Map<String, Object> userAttributes,
+                                                     TraceLevel traceLevel) {
+        log.info("Evaluating residual policy: {} for user: {}", residualId, userId);
+        
+        EvaluationResponse response = ruleEvaluationService.evaluateResidual(
+                residualPolicyRegistry.get(residualId), userId, userAttributes, traceLevel);
+        
+        log.info("Residual policy evaluation completed for user: {}, result: {}", userId, response.getResult());
+        return response;
+    }
+
+    /**
+     * Opens an evaluation session and evaluates the policy in full
+     * Used by form journeys that re-evaluate the policy as the applicant edits fields
+     */
+    @Override
+    public EvaluationResponse startSession(String policyId, String userId, Map<String, Object> userAttributes,
+                                           TraceLevel traceLevel) {
+        log.info("Starting evaluation session of policy: {} for user: {}", policyId, userId);
+        
+        CompiledPolicy policy = compiledPolicyRegistry.getPolicy(policyId);
+        EvaluationSession session = evaluationSessionStore.open(policyId, userId);
+        synchronized (session) {
+            session.applyChanges(userAttributes);
+            session.reset(tieredExecution.select(policy), policy.getVersionStamp());
+            return ruleEvaluationService.evaluateSession(session, null, traceLevel);
+        }
+    }
+
+    /**
+     * Re-evaluates an open session after an attribute delta
+     */
+    @Override
+    public EvaluationResponse updateSession(String policyId, String userId, Map<String, Object> changedAttributes,
+                                            TraceLevel traceLevel) {
+        log.info("Updating evaluation session of policy: {} for user: {}, changed: {}", policyId, userId,
+                changedAttributes.keySet());
+        
+        EvaluationSession session = evaluationSessionStore.get(policyId, userId);
+        synchronized (session) {
+            session.applyChanges(changedAttributes);
+            
+            // Recorded results are only valid for the rules and documents they were computed from
+            CompiledPolicy policy = compiledPolicyRegistry.getPolicy(policyId);
+            if (!policy.getVersionStamp().equals(session.getVersionStamp())) {
+                log.info("Policy {} changed since the last evaluation of the session, evaluating in full", policyId);
+                session.reset(tieredExecution.select(policy), policy.getVersionStamp());
+                return ruleEvaluationService.evaluateSession(session, null, traceLevel);
+            }
+            
+            EvaluationResponse response = ruleEvaluationService.evaluateSession(
+                    session, changedAttributes.keySet(), traceLevel);
+            log.info("Session evaluation completed for user: {}, result: {}, rules evaluated: {}", userId,
+                    response.getResult(), response.getEvaluatedRuleCount());
+            return response;
+        }
+    }
+
+    /**
+     * Closes an evaluation session
+     */
+    @Override
+    public boolean endSession(String policyId, String userId) {
+        log.info("Closing evaluation session of policy: {} for user: {}", policyId, userId);
+        return evaluationSessionStore.close(policyId, userId);
+    }
+
+    /**
+     * Returns decision cache statistics
+     */
+    @Override
+    public Map<String, Object> getDecisionCacheStats() {
+        return decisionCache.getStats();
+    }
+
+    /**
+     * Resolves a policy once for a batch of users
+     * Each chunk of users is evaluated in parallel and emitted in input order, so results can be streamed
+     * Vectorized batches run the columnar kernel over slices of each chunk and carry no execution trace
+     */
+    @Override
+    public BatchEvaluator prepareBatch(String policyId, boolean vectorized) {
+        CompiledPolicy policy = compiledPolicyRegistry.getPolicy(policyId);
+        
+        // Graphs with a cycle cannot be ordered for the columnar kernel; they keep the per-user path
+        ColumnarEvaluator columnar = vectorized ? ColumnarEvaluator.forGraph(policy.getGraph()) : null;
+        if (vectorized && columnar == null) {
+            log.warn("Policy {} cannot be evaluated column-wise, falling back to per-user evaluation", policyId);
+        }
+        
+        return (requests, sink) -> {
+            log.info("Batch evaluation started for policy: {}, vectorized: {}", policyId, columnar != null);
+            long evaluated = 0;
+            
+            List<EvaluationRequest> chunk = new ArrayList<>(batchChunkSize);
+            while (requests.hasNext()) {
+                chunk.add(requests.next());
+                if (chunk.size() == batchChunkSize || !requests.hasNext()) {
+                    evaluated += columnar != null
+                            ? evaluateChunkColumnar(policy, columnar, chunk, sink)
+                            : evaluateChunk(policy, chunk, sink);
+                    chunk.clear();
+                }
+            }
+            
+            log.info("Batch evaluation completed for policy: {}, users: {}", policyId, evaluated);
+            return evaluated;
+        };
+    }
+
+    private int evaluateChunk(CompiledPolicy policy, List<EvaluationRequest> chunk, Consumer<EvaluationResponse> sink) {
+        EvaluationResponse[] responses = new EvaluationResponse[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel()
+                .forEach(i -> responses[i] = evaluateBatchEntry(policy, chunk.get(i)));
+        
+        for (EvaluationResponse response : responses) {
+            sink.accept(response);
+        }
+        return responses.length;
+    }
+
+    private int evaluateChunkColumnar(CompiledPolicy policy, ColumnarEvaluator columnar,
+                                      List<EvaluationRequest> chunk, Consumer<EvaluationResponse> sink) {
+        EvaluationResponse[] responses = new EvaluationResponse[chunk.size()];
+        int slices = (chunk.size() + vectorizedSliceSize - 1) / vectorizedSliceSize;
+        IntStream.range(0, slices).parallel().forEach(slice -> {
+            int from = slice * vectorizedSliceSize;
+            int to = Math.min(from + vectorizedSliceSize, chunk.size());
+            evaluateSliceColumnar(policy, columnar, chunk, from, to, responses);
+        });
+        
+        for (EvaluationResponse response : responses) {
+            sink.accept(response);
+        }
+        return responses.length;
+    }
+
+    private void evaluateSliceColumnar(CompiledPolicy policy, ColumnarEvaluator columnar, List<EvaluationRequest> chunk,
+                                       int from, int to, EvaluationResponse[] responses) {
+        List<Map<String, Object>> rows = new ArrayList<>(to - from);
+        int[] positions = new int[to - from];
+        for (int i = from; i < to; i++) {
+            EvaluationRequest request = chunk.get(i);
+            if (request == null || request.getUserId() == null || request.getUserAttributes() == null) {
+                responses[i] = evaluateBatchEntry(policy, request);
+            } else {
+                positions[rows.size()] = i;
+                rows.add(request.getUserAttributes());
+            }
+        }
+        
+        long started = System.nanoTime();
+        ColumnarResult result = columnar.evaluate(rows);
+        evaluationMetrics.recordPolicyEvaluations(policy.getPolicyId(), EvaluationPath.COLUMNAR, rows.size(),
+                System.nanoTime() - started);
+        for (int row = 0; row < rows.size(); row++) {
+            int i = positions[row];
+            String userId = chunk.get(i).getUserId();
+            if (result.errorCauses()[row] != null) {
+                evaluationMetrics.recordError(result.errorCauses()[row]);
+            }
+            responses[i] = result.errors()[row] != null
+                    ? evaluationResponseAdaptor.createErrorResponse(userId, policy.getPolicyId(), "POLICY",
+                            List.of(), result.errors()[row])
+                    : evaluationResponseAdaptor.createSuccessResponse(result.results()[row], userId,
+                            policy.getPolicyId(), "POLICY", List.of());
+            responses[i].setSnapshotVersion(policy.getSnapshotVersion());
+        }
+    }
+
+    private EvaluationResponse evaluateBatchEntry(CompiledPolicy policy, EvaluationRequest request) {
+        if (request == null || request.getUserId() == null || request.getUserAttributes() == null) {
+            return evaluationResponseAdaptor.createErrorResponse(request != null ? request.getUserId() : null,
+                    policy.getPolicyId(), "POLICY", List.of(), "User ID and user attributes are required");
+        }
+        long started = System.nanoTime();
+        EvaluationResponse response = ruleEvaluationService.evaluatePolicy(policy, request.getUserId(),
+                request.getUserAttributes(), request.getTraceLevel());
+        evaluationMetrics.recordPolicyEvaluation(policy.getPolicyId(), EvaluationPath.BATCH,
+                System.nanoTime() - started);
+        return response;
     }
 }
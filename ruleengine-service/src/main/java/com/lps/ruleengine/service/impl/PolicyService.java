@@ -2,6 +2,8 @@ package com.lps.ruleengine.service.impl;
 
 import com.lps.ruleengine.adaptor.PolicyAdaptor;
 import com.lps.ruleengine.dto.CreatePolicyRequest;
+import com.lps.ruleengine.engine.ChangePublisher;
+import com.lps.ruleengine.engine.RuleGraphValidator;
 import com.lps.ruleengine.model.Policy;
 import com.lps.ruleengine.repository.PolicyRepository;
 import com.lps.ruleengine.service.IPolicyService;
@@ -19,6 +21,8 @@ public class PolicyService implements IPolicyService {
 
     private final PolicyRepository policyRepository;
     private final PolicyAdaptor policyAdaptor;
+    private final RuleGraphValidator ruleGraphValidator;
+    private final ChangePublisher changePublisher;
 
     @Override
     public Policy createPolicy(CreatePolicyRequest request) {
@@ -32,9 +36,12 @@ public class PolicyService implements IPolicyService {
             throw new RuntimeException("Policy name already exists: " + request.getPolicyName());
         }
         
+        // Reject policies whose rule graph contains a cycle
+        ruleGraphValidator.validatePolicy(request.getRootRuleId());
+        
         Policy policy = policyAdaptor.createPolicyFromRequest(request);
         
-        return policyRepository.save(policy);
+        return changePublisher.savePolicy(policy);
     }
 
     @Override
@@ -59,15 +66,16 @@ public class PolicyService implements IPolicyService {
             throw new RuntimeException("Policy not found: " + policyId);
         }
         
+        ruleGraphValidator.validatePolicy(request.getRootRuleId());
+        
         Policy existing = existingOpt.get();
         existing.setPolicyName(request.getPolicyName());
         existing.setDescription(request.getDescription());
         existing.setRootRuleId(request.getRootRuleId());
         existing.setRuleIds(request.getRuleIds());
         existing.setPriority(request.getPriority() != null ? request.getPriority() : existing.getPriority());
-        existing.setVersion(existing.getVersion() + 1);
         
-        return policyRepository.save(existing);
+        return changePublisher.savePolicy(existing);
     }
 
     @Override
@@ -75,7 +83,7 @@ public class PolicyService implements IPolicyService {
         if (!policyRepository.existsByPolicyId(policyId)) {
             throw new RuntimeException("Policy not found: " + policyId);
         }
-        policyRepository.deleteById(policyId);
+        changePublisher.deletePolicy(policyId);
     }
 
     @Override
@@ -96,7 +104,6 @@ public class PolicyService implements IPolicyService {
         
         Policy policy = policyOpt.get();
         policy.setIsActive(isActive);
-        policy.setVersion(policy.getVersion() + 1);
-        policyRepository.save(policy);
+        changePublisher.savePolicy(policy);
     }
 }
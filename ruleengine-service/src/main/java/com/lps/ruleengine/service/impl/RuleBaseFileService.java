@@ -0,0 +1,47 @@
+package com.lps.ruleengine.service.impl;
+
+import com.lps.ruleengine.adaptor.RuleBaseFileAdaptor;
+import com.lps.ruleengine.dto.RuleBaseFileResponse;
+import com.lps.ruleengine.engine.ChangeLog;
+import com.lps.ruleengine.engine.RuleBaseFile;
+import com.lps.ruleengine.engine.RuleBaseFileStore;
+import com.lps.ruleengine.service.IRuleBaseFileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RuleBaseFileService implements IRuleBaseFileService {
+
+    private final RuleBaseFileStore ruleBaseFileStore;
+    private final ChangeLog changeLog;
+    private final RuleBaseFileAdaptor ruleBaseFileAdaptor;
+
+    @Override
+    public RuleBaseFileResponse exportFile() {
+        RuleBaseFile.Header header = ruleBaseFileStore.export();
+        return ruleBaseFileAdaptor.createRuleBaseFileResponse(ruleBaseFileStore.getPath().orElseThrow(), header,
+                ruleBaseFileStore.isCurrent(header, changeLog.currentEpoch()));
+    }
+
+    @Override
+    public Optional<RuleBaseFileResponse> getFile() {
+        Optional<Path> path = ruleBaseFileStore.getPath();
+        if (path.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return ruleBaseFileStore.describe()
+                    .map(header -> ruleBaseFileAdaptor.createRuleBaseFileResponse(path.get(), header,
+                            ruleBaseFileStore.isCurrent(header, changeLog.currentEpoch())));
+        } catch (RuntimeException e) {
+            log.warn("Rule base file {} is not usable: {}", path.get(), e.getMessage());
+            return Optional.of(ruleBaseFileAdaptor.createInvalidRuleBaseFileResponse(path.get(), e.getMessage()));
+        }
+    }
+}
@@ -1,244 +1,333 @@
 package com.lps.ruleengine.service.impl;
 
 import com.lps.ruleengine.adaptor.EvaluationResponseAdaptor;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
 import com.lps.ruleengine.dto.EvaluationResponse;
-import com.lps.ruleengine.model.Document;
-import com.lps.ruleengine.model.Rule;
-import com.lps.ruleengine.repository.DocumentRepository;
-import com.lps.ruleengine.repository.RuleRepository;
+import com.lps.ruleengine.engine.CompiledPolicy;
+import com.lps.ruleengine.engine.CompiledPolicyRegistry;
+import com.lps.ruleengine.engine.DecisionGraph;
+import com.lps.ruleengine.engine.EvaluationException;
+import com.lps.ruleengine.engine.EvaluationMetrics;
+import com.lps.ruleengine.engine.EvaluationMetrics.ErrorCause;
+import com.lps.ruleengine.engine.EvaluationMetrics.EvaluationPath;
+import com.lps.ruleengine.engine.EvaluationSession;
+import com.lps.ruleengine.engine.PortfolioGraph;
+import com.lps.ruleengine.engine.ResidualPolicy;
+import com.lps.ruleengine.engine.RuleCounters;
+import com.lps.ruleengine.engine.RuleNode;
+import com.lps.ruleengine.engine.TieredExecution;
+import com.lps.ruleengine.engine.expression.AttributeFrame;
 import com.lps.ruleengine.service.IRuleEvaluationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.*;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RuleEvaluationService implements IRuleEvaluationService {
 
-    private final RuleRepository ruleRepository;
-    private final DocumentRepository documentRepository;
+    // Memoized rule outcomes in a portfolio evaluation; 0 means not evaluated yet
+    private static final byte OUTCOME_TRUE = 1;
+    private static final byte OUTCOME_FALSE = 2;
+    private static final byte OUTCOME_ERROR = 3;
+
+    private final CompiledPolicyRegistry compiledPolicyRegistry;
+    private final TieredExecution tieredExecution;
     private final EvaluationResponseAdaptor evaluationResponseAdaptor;
+    private final EvaluationMetrics evaluationMetrics;
+
+    @Value("${ruleengine.evaluation.max-hops:10000}")
+    private int maxHops;
 
     @Override
-    public EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes) {
+    public EvaluationResponse evaluateRule(String ruleId, String userId, Map<String, Object> userAttributes,
+                                           TraceLevel traceLevel) {
         log.debug("Starting rule evaluation for ruleId: {}, userId: {}", ruleId, userId);
         
-        List<EvaluationResponse.ExecutionTrace> executionTrace = new ArrayList<>();
+        TraceRecorder trace = TraceRecorder.forLevel(traceLevel, evaluationResponseAdaptor);
+        DecisionGraph graph = null;
+        long started = System.nanoTime();
         
         try {
-            boolean result = evaluateRuleRecursively(ruleId, userAttributes, executionTrace, new HashSet<>());
+            graph = compiledPolicyRegistry.getRuleGraph(ruleId);
+            boolean result = evaluateGraph(graph, userAttributes, trace);
             
-            return evaluationResponseAdaptor.createSuccessResponse(result, userId, ruleId, "RULE", executionTrace);
+            // Only rules that exist are timed, so unknown ids never take up a metric tag
+            evaluationMetrics.recordRuleEvaluation(ruleId, System.nanoTime() - started);
+            return withSnapshot(evaluationResponseAdaptor.createSuccessResponse(result, userId, ruleId, "RULE",
+                    trace.getExecutionTrace(), trace.getPath()), graph);
                     
         } catch (Exception e) {
             log.error("Error evaluating rule: {}", e.getMessage(), e);
-            return evaluationResponseAdaptor.createErrorResponse(userId, ruleId, "RULE", executionTrace, e.getMessage());
+            evaluationMetrics.recordError(EvaluationException.causeOf(e));
+            return withSnapshot(evaluationResponseAdaptor.createErrorResponse(userId, ruleId, "RULE",
+                    trace.getExecutionTrace(), trace.getPath(), e.getMessage()), graph);
         }
     }
 
-    private boolean evaluateRuleRecursively(String ruleId, Map<String, Object> userAttributes, 
-                                          List<EvaluationResponse.ExecutionTrace> trace, Set<String> visitedRules) {
-        
-        // Prevent infinite loops
-        if (visitedRules.contains(ruleId)) {
-            throw new RuntimeException("Circular dependency detected in rules: " + ruleId);
-        }
-        visitedRules.add(ruleId);
-        
-        Optional<Rule> ruleOpt = ruleRepository.findByRuleId(ruleId);
-        if (ruleOpt.isEmpty()) {
-            throw new RuntimeException("Rule not found: " + ruleId);
-        }
-        
-        Rule rule = ruleOpt.get();
-        if (!rule.getIsActive()) {
-            throw new RuntimeException("Rule is inactive: " + ruleId);
-        }
-        
-        // Evaluate the rule expression
-        boolean expressionResult = evaluateExpression(rule.getExpression(), rule.getReferenceId(), userAttributes);
+    @Override
+    public EvaluationResponse evaluatePolicy(CompiledPolicy policy, String userId, Map<String, Object> userAttributes,
+                                             TraceLevel traceLevel) {
+        log.debug("Starting policy evaluation for policyId: {}, userId: {}", policy.getPolicyId(), userId);
         
-        // Add to execution trace
-        String nextAction = expressionResult ? "onTrue: " + rule.getOnTrueValue() : "onFalse: " + rule.getOnFalseValue();
-        trace.add(evaluationResponseAdaptor.createExecutionTrace(ruleId, rule.getExpression(), expressionResult, nextAction));
+        TraceRecorder trace = TraceRecorder.forLevel(traceLevel, evaluationResponseAdaptor);
         
-        // Determine next step based on result
-        if (expressionResult) {
-            if (rule.getOnTrueType() == Rule.OutcomeType.VALUE) {
-                return rule.getOnTrueValueAsBoolean();
-            } else {
-                return evaluateRuleRecursively(rule.getOnTrueRuleId(), userAttributes, trace, new HashSet<>(visitedRules));
-            }
-        } else {
-            if (rule.getOnFalseType() == Rule.OutcomeType.VALUE) {
-                return rule.getOnFalseValueAsBoolean();
-            } else {
-                return evaluateRuleRecursively(rule.getOnFalseRuleId(), userAttributes, trace, new HashSet<>(visitedRules));
-            }
+        try {
+            boolean result = evaluateGraph(tieredExecution.select(policy), userAttributes, trace);
+            
+            return withSnapshot(evaluationResponseAdaptor.createSuccessResponse(result, userId, policy.getPolicyId(),
+                    "POLICY", trace.getExecutionTrace(), trace.getPath()), policy.getGraph());
+                    
+        } catch (Exception e) {
+            log.error("Error evaluating policy: {}", e.getMessage(), e);
+            evaluationMetrics.recordError(EvaluationException.causeOf(e));
+            return withSnapshot(evaluationResponseAdaptor.createErrorResponse(userId, policy.getPolicyId(), "POLICY",
+                    trace.getExecutionTrace(), trace.getPath(), e.getMessage()), policy.getGraph());
         }
     }
 
-    private boolean evaluateExpression(String expression, String referenceId, Map<String, Object> userAttributes) {
-        log.debug("Evaluating expression: {}, referenceId: {}", expression, referenceId);
+    @Override
+    public EvaluationResponse evaluateResidual(ResidualPolicy residual, String userId, Map<String, Object> userAttributes,
+                                               TraceLevel traceLevel) {
+        log.debug("Starting residual evaluation of policyId: {} for userId: {}", residual.getPolicyId(), userId);
+        
+        TraceRecorder trace = TraceRecorder.forLevel(traceLevel, evaluationResponseAdaptor);
+        long started = System.nanoTime();
         
-        // Get reference value if needed
-        Object referenceValue = null;
-        if (referenceId != null && !referenceId.isEmpty()) {
-            Optional<Document> docOpt = documentRepository.findByDocumentId(referenceId);
-            if (docOpt.isPresent()) {
-                referenceValue = docOpt.get().getTypedValue();
+        try {
+            boolean result;
+            if (residual.isDecided()) {
+                result = residual.getDecidedResult();
+            } else {
+                Map<String, Object> attributes = userAttributes;
+                if (residual.readsFixedAttributes()) {
+                    attributes = new HashMap<>(userAttributes);
+                    attributes.putAll(residual.getFixedAttributes());
+                }
+                result = evaluateGraph(residual.getGraph(), attributes, trace);
             }
+            
+            evaluationMetrics.recordPolicyEvaluation(residual.getPolicyId(), EvaluationPath.RESIDUAL,
+                    System.nanoTime() - started);
+            EvaluationResponse response = evaluationResponseAdaptor.createSuccessResponse(result, userId,
+                    residual.getPolicyId(), "POLICY", trace.getExecutionTrace(), trace.getPath());
+            response.setSnapshotVersion(residual.getSnapshotVersion());
+            return response;
+                    
+        } catch (Exception e) {
+            log.error("Error evaluating residual of policy: {}", e.getMessage(), e);
+            evaluationMetrics.recordError(EvaluationException.causeOf(e));
+            EvaluationResponse response = evaluationResponseAdaptor.createErrorResponse(userId, residual.getPolicyId(),
+                    "POLICY", trace.getExecutionTrace(), trace.getPath(), e.getMessage());
+            response.setSnapshotVersion(residual.getSnapshotVersion());
+            return response;
         }
-        
-        // Parse and evaluate expression
-        return parseAndEvaluateExpression(expression, userAttributes, referenceValue);
     }
 
-    private boolean parseAndEvaluateExpression(String expression, Map<String, Object> userAttributes, Object referenceValue) {
-        // Simple expression parser for common operators
-        String trimmedExpression = expression.trim();
-        
-        // Handle IN operator (e.g., "city IN ['Bangalore', 'Mumbai']")
-        if (trimmedExpression.contains(" IN ")) {
-            return evaluateInExpression(trimmedExpression, userAttributes, referenceValue);
-        }
-        
-        // Handle comparison operators
-        if (trimmedExpression.contains(" > ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, ">");
-        }
-        
-        if (trimmedExpression.contains(" >= ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, ">=");
-        }
-        
-        if (trimmedExpression.contains(" < ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, "<");
-        }
-        
-        if (trimmedExpression.contains(" <= ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, "<=");
-        }
+    @Override
+    public EvaluationResponse evaluateSession(EvaluationSession session, Set<String> changedAttributes,
+                                              TraceLevel traceLevel) {
+        log.debug("Starting session evaluation for policyId: {}, userId: {}, changed: {}", session.getPolicyId(),
+                session.getUserId(), changedAttributes);
         
-        if (trimmedExpression.contains(" == ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, "==");
-        }
+        TraceRecorder trace = TraceRecorder.forLevel(traceLevel, evaluationResponseAdaptor);
+        long started = System.nanoTime();
+        int resume = changedAttributes == null ? 0 : session.resumeIndex(changedAttributes);
+        int reused = resume < 0 ? session.getPathLength() : resume;
         
-        if (trimmedExpression.contains(" != ")) {
-            return evaluateComparisonExpression(trimmedExpression, userAttributes, referenceValue, "!=");
+        // Rules before the resume point read none of the changed attributes, so their recorded results still hold
+        for (int i = 0; i < reused; i++) {
+            trace.record(session.getPathNode(i), session.getPathResult(i));
         }
         
-        // Handle boolean expressions
-        if (userAttributes.containsKey(trimmedExpression)) {
-            Object value = userAttributes.get(trimmedExpression);
-            return Boolean.parseBoolean(value.toString());
+        try {
+            boolean result;
+            if (resume < 0) {
+                result = session.getResult();
+            } else {
+                RuleNode start = session.nodeAfter(resume);
+                session.truncatePath(resume);
+                DecisionGraph graph = session.getGraph();
+                result = walk(graph, start, resume, graph.bind(session.getAttributes()), trace, session);
+                session.complete(result);
+            }
+            
+            EvaluationResponse response = evaluationResponseAdaptor.createSuccessResponse(result, session.getUserId(),
+                    session.getPolicyId(), "POLICY", trace.getExecutionTrace(), trace.getPath());
+            response.setEvaluatedRuleCount(session.getPathLength() - reused);
+            evaluationMetrics.recordPolicyEvaluation(session.getPolicyId(), EvaluationPath.SESSION,
+                    System.nanoTime() - started);
+            return withSnapshot(response, session.getGraph());
+            
+        } catch (Exception e) {
+            log.error("Error evaluating session of policy: {}", e.getMessage(), e);
+            evaluationMetrics.recordError(EvaluationException.causeOf(e));
+            session.fail(e.getMessage());
+            return withSnapshot(evaluationResponseAdaptor.createErrorResponse(session.getUserId(),
+                    session.getPolicyId(), "POLICY", trace.getExecutionTrace(), trace.getPath(), e.getMessage()),
+                    session.getGraph());
         }
-        
-        throw new RuntimeException("Unsupported expression: " + expression);
     }
 
-    private boolean evaluateInExpression(String expression, Map<String, Object> userAttributes, Object referenceValue) {
-        String[] parts = expression.split(" IN ");
-        if (parts.length != 2) {
-            throw new RuntimeException("Invalid IN expression: " + expression);
-        }
+    @Override
+    public Map<String, EvaluationResponse> evaluatePortfolio(PortfolioGraph portfolio, String userId,
+                                                             Map<String, Object> userAttributes, TraceLevel traceLevel) {
+        log.debug("Starting portfolio evaluation of {} policies for userId: {}", portfolio.getPolicyIds().size(), userId);
         
-        String attributeName = parts[0].trim();
-        Object attributeValue = userAttributes.get(attributeName);
+        long started = System.nanoTime();
         
-        if (attributeValue == null) {
-            return false;
-        }
+        // Outcome of each distinct rule for this applicant, shared by all policies
+        byte[] outcomes = new byte[portfolio.getNodeCount()];
+        RuntimeException[] errors = new RuntimeException[portfolio.getNodeCount()];
+        AttributeFrame frame = portfolio.bind(userAttributes);
         
-        // Use reference value if available, otherwise parse the expression
-        if (referenceValue instanceof List) {
-            List<?> allowedValues = (List<?>) referenceValue;
-            return allowedValues.contains(attributeValue.toString());
+        Map<String, EvaluationResponse> responses = new LinkedHashMap<>();
+        for (int p = 0; p < portfolio.getPolicyIds().size(); p++) {
+            String policyId = portfolio.getPolicyIds().get(p);
+            TraceRecorder trace = TraceRecorder.forLevel(traceLevel, evaluationResponseAdaptor);
+            EvaluationResponse response;
+            try {
+                boolean result = evaluatePortfolioPolicy(portfolio, p, frame, outcomes, errors, trace);
+                response = evaluationResponseAdaptor.createSuccessResponse(result, userId, policyId, "POLICY",
+                        trace.getExecutionTrace(), trace.getPath());
+            } catch (Exception e) {
+                log.error("Error evaluating policy {} in portfolio: {}", policyId, e.getMessage());
+                evaluationMetrics.recordError(EvaluationException.causeOf(e));
+                response = evaluationResponseAdaptor.createErrorResponse(userId, policyId, "POLICY",
+                        trace.getExecutionTrace(), trace.getPath(), e.getMessage());
+            }
+            response.setSnapshotVersion(portfolio.getSnapshotVersion(p));
+            responses.put(policyId, response);
         }
+        evaluationMetrics.recordPortfolioEvaluation(System.nanoTime() - started);
+        return responses;
+    }
+
+    private boolean evaluatePortfolioPolicy(PortfolioGraph portfolio, int policyIndex, AttributeFrame frame,
+                                            byte[] outcomes, RuntimeException[] errors, TraceRecorder trace) {
+        int index = portfolio.getRoot(policyIndex);
+        int hops = 0;
         
-        // Parse inline list (fallback)
-        String listPart = parts[1].trim();
-        if (listPart.startsWith("[") && listPart.endsWith("]")) {
-            String listContent = listPart.substring(1, listPart.length() - 1);
-            String[] values = listContent.split(",");
-            for (String value : values) {
-                String cleanValue = value.trim().replace("'", "").replace("\"", "");
-                if (cleanValue.equals(attributeValue.toString())) {
-                    return true;
+        while (true) {
+            RuleNode node = portfolio.getNode(index);
+            if (node.isFailure()) {
+                throw node.failureException();
+            }
+            
+            if (++hops > portfolio.getNodeCount()) {
+                throw new EvaluationException(ErrorCause.CIRCULAR_DEPENDENCY,
+                        "Circular dependency detected in rules: " + node.getRuleId());
+            }
+            if (hops > maxHops) {
+                throw new EvaluationException(ErrorCause.MAX_HOPS_EXCEEDED,
+                        "Evaluation exceeded the maximum of " + maxHops + " rule hops at rule: " + node.getRuleId());
+            }
+            
+            // Rules shared with a policy evaluated earlier reuse its outcome
+            if (outcomes[index] == 0) {
+                try {
+                    boolean evaluated = evaluateNode(node, frame, portfolio.getSlot(index));
+                    outcomes[index] = evaluated ? OUTCOME_TRUE : OUTCOME_FALSE;
+                } catch (RuntimeException e) {
+                    outcomes[index] = OUTCOME_ERROR;
+                    errors[index] = e;
                 }
             }
+            if (outcomes[index] == OUTCOME_ERROR) {
+                throw new EvaluationException(EvaluationException.causeOf(errors[index]), errors[index].getMessage());
+            }
+            boolean expressionResult = outcomes[index] == OUTCOME_TRUE;
+            
+            trace.record(node, expressionResult);
+            
+            int next = portfolio.next(index, expressionResult);
+            if (next < 0) {
+                evaluationMetrics.recordDepth(hops);
+                return expressionResult ? node.isOnTrueValue() : node.isOnFalseValue();
+            }
+            index = next;
         }
-        
-        return false;
     }
 
-    private boolean evaluateComparisonExpression(String expression, Map<String, Object> userAttributes, 
-                                               Object referenceValue, String operator) {
-        String[] parts = expression.split(" " + Pattern.quote(operator) + " ");
-        if (parts.length != 2) {
-            throw new RuntimeException("Invalid comparison expression: " + expression);
+    /**
+     * Echoes the version of the rule base snapshot the graph was compiled from, if it was compiled.
+     */
+    private static EvaluationResponse withSnapshot(EvaluationResponse response, DecisionGraph graph) {
+        if (graph != null) {
+            response.setSnapshotVersion(graph.getSnapshotVersion());
         }
-        
-        String attributeName = parts[0].trim();
-        Object attributeValue = userAttributes.get(attributeName);
-        
-        if (attributeValue == null) {
-            return false;
-        }
-        
-        Object compareValue = referenceValue;
-        if (compareValue == null) {
-            // Try to parse the right side of the expression
-            String rightSide = parts[1].trim();
-            try {
-                compareValue = Double.parseDouble(rightSide);
-            } catch (NumberFormatException e) {
-                compareValue = rightSide;
-            }
-        }
-        
-        return compareValues(attributeValue, compareValue, operator);
+        return response;
     }
 
-    private boolean compareValues(Object left, Object right, String operator) {
-        try {
-            // Handle numeric comparisons
-            if (left instanceof Number && right instanceof Number) {
-                double leftVal = ((Number) left).doubleValue();
-                double rightVal = ((Number) right).doubleValue();
-                
-                return switch (operator) {
-                    case ">" -> leftVal > rightVal;
-                    case ">=" -> leftVal >= rightVal;
-                    case "<" -> leftVal < rightVal;
-                    case "<=" -> leftVal <= rightVal;
-                    case "==" -> Double.compare(leftVal, rightVal) == 0;
-                    case "!=" -> Double.compare(leftVal, rightVal) != 0;
-                    default -> throw new RuntimeException("Unsupported operator: " + operator);
-                };
+    private boolean evaluateGraph(DecisionGraph graph, Map<String, Object> userAttributes, TraceRecorder trace) {
+        return walk(graph, graph.getRoot(), 0, graph.bind(userAttributes), trace, null);
+    }
+
+    /**
+     * Walks a graph from the given node; {@code hops} counts the steps already taken before it.
+     * When a session is given, every step is appended to its path.
+     */
+    private boolean walk(DecisionGraph graph, RuleNode node, int hops, AttributeFrame frame, TraceRecorder trace,
+                         EvaluationSession session) {
+        while (true) {
+            if (node.isFailure()) {
+                throw node.failureException();
             }
             
-            // Handle string comparisons
-            String leftStr = left.toString();
-            String rightStr = right.toString();
+            // A path that visits more nodes than the graph holds must have revisited one
+            if (++hops > graph.getNodeCount()) {
+                throw new EvaluationException(ErrorCause.CIRCULAR_DEPENDENCY,
+                        "Circular dependency detected in rules: " + node.getRuleId());
+            }
+            if (hops > maxHops) {
+                throw new EvaluationException(ErrorCause.MAX_HOPS_EXCEEDED,
+                        "Evaluation exceeded the maximum of " + maxHops + " rule hops at rule: " + node.getRuleId());
+            }
             
-            return switch (operator) {
-                case "==" -> leftStr.equals(rightStr);
-                case "!=" -> !leftStr.equals(rightStr);
-                case ">" -> leftStr.compareTo(rightStr) > 0;
-                case ">=" -> leftStr.compareTo(rightStr) >= 0;
-                case "<" -> leftStr.compareTo(rightStr) < 0;
-                case "<=" -> leftStr.compareTo(rightStr) <= 0;
-                default -> throw new RuntimeException("Unsupported operator for strings: " + operator);
-            };
+            // Evaluate the parsed expression against the bound attributes and the pre-resolved reference value
+            boolean expressionResult = evaluateNode(node, frame, node.getSlot());
             
-        } catch (Exception e) {
-            throw new RuntimeException("Error comparing values: " + e.getMessage(), e);
+            // Add to execution trace
+            trace.record(node, expressionResult);
+            if (session != null) {
+                session.recordStep(node, expressionResult);
+            }
+            
+            // Determine next step based on result
+            RuleNode next = expressionResult ? node.getOnTrueNode() : node.getOnFalseNode();
+            if (next == null) {
+                evaluationMetrics.recordDepth(hops);
+                return expressionResult ? node.isOnTrueValue() : node.isOnFalseValue();
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Evaluates a node's condition and records the outcome in the rule's branch statistics.
+     */
+    private boolean evaluateNode(RuleNode node, AttributeFrame frame, int slot) {
+        RuleCounters counters = node.getCounters();
+        if (counters == null) {
+            return node.getCondition().evaluate(frame, slot, node.getReferenceValue());
+        }
+        
+        boolean timed = counters.sampleTiming();
+        long started = timed ? System.nanoTime() : 0L;
+        try {
+            boolean result = node.getCondition().evaluate(frame, slot, node.getReferenceValue());
+            counters.record(result, timed ? System.nanoTime() - started : -1L);
+            return result;
+        } catch (RuntimeException e) {
+            counters.recordError(timed ? System.nanoTime() - started : -1L);
+            throw e;
         }
     }
 }
@@ -1,7 +1,14 @@
 package com.lps.ruleengine.service.impl;
 
+import com.lps.ruleengine.adaptor.DependencyAdaptor;
 import com.lps.ruleengine.adaptor.RuleAdaptor;
 import com.lps.ruleengine.dto.CreateRuleRequest;
+import com.lps.ruleengine.dto.DependentsResponse;
+import com.lps.ruleengine.engine.ChangePublisher;
+import com.lps.ruleengine.engine.DependencyIndex;
+import com.lps.ruleengine.engine.RuleGraphValidator;
+import com.lps.ruleengine.engine.RuleStatistics;
+import com.lps.ruleengine.engine.expression.ExpressionParser;
 import com.lps.ruleengine.model.Rule;
 import com.lps.ruleengine.repository.RuleRepository;
 import com.lps.ruleengine.service.IRuleService;
@@ -10,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -19,6 +27,11 @@ public class RuleService implements IRuleService {
 
     private final RuleRepository ruleRepository;
     private final RuleAdaptor ruleAdaptor;
+    private final RuleGraphValidator ruleGraphValidator;
+    private final RuleStatistics ruleStatistics;
+    private final DependencyIndex dependencyIndex;
+    private final DependencyAdaptor dependencyAdaptor;
+    private final ChangePublisher changePublisher;
 
     @Override
     public Rule createRule(CreateRuleRequest request) {
@@ -28,9 +41,14 @@ public class RuleService implements IRuleService {
             throw new RuntimeException("Rule already exists: " + request.getRuleId());
         }
         
+        // Reject unsupported expressions before anything is persisted
+        ExpressionParser.parse(request.getExpression());
+        
         Rule rule = ruleAdaptor.createRuleFromRequest(request);
+        ruleGraphValidator.validateRule(rule);
         
-        return ruleRepository.save(rule);
+        // Also invalidates rules already branching to the new id, which compiled it as missing
+        return changePublisher.saveRule(rule);
     }
 
     @Override
@@ -55,6 +73,8 @@ public class RuleService implements IRuleService {
             throw new RuntimeException("Rule not found: " + ruleId);
         }
         
+        ExpressionParser.parse(request.getExpression());
+        
         Rule existing = existingOpt.get();
         existing.setExpression(request.getExpression());
         existing.setReferenceId(request.getReferenceId());
@@ -63,9 +83,9 @@ public class RuleService implements IRuleService {
         existing.setOnFalseType(request.getOnFalseType());
         existing.setOnFalseValue(request.getOnFalseValue());
         existing.setDescription(request.getDescription());
-        existing.setVersion(existing.getVersion() + 1);
+        ruleGraphValidator.validateRule(existing);
         
-        return ruleRepository.save(existing);
+        return changePublisher.saveRule(existing);
     }
 
     @Override
@@ -73,7 +93,7 @@ public class RuleService implements IRuleService {
         if (!ruleRepository.existsByRuleId(ruleId)) {
             throw new RuntimeException("Rule not found: " + ruleId);
         }
-        ruleRepository.deleteById(ruleId);
+        changePublisher.deleteRule(ruleId);
     }
 
     @Override
@@ -94,8 +114,7 @@ public class RuleService implements IRuleService {
         
         Rule rule = ruleOpt.get();
         rule.setIsActive(isActive);
-        rule.setVersion(rule.getVersion() + 1);
-        ruleRepository.save(rule);
+        changePublisher.saveRule(rule);
     }
 
     @Override
@@ -107,4 +126,20 @@ public class RuleService implements IRuleService {
     public long getActiveRuleCount() {
         return ruleRepository.countActiveRules();
     }
+
+    @Override
+    public Optional<Map<String, Object>> getRuleStatistics(String ruleId) {
+        if (!ruleRepository.existsByRuleId(ruleId)) {
+            return Optional.empty();
+        }
+        return Optional.of(ruleStatistics.getStats(ruleId));
+    }
+
+    @Override
+    public Optional<DependentsResponse> getDependents(String ruleId) {
+        if (!ruleRepository.existsByRuleId(ruleId)) {
+            return Optional.empty();
+        }
+        return Optional.of(dependencyAdaptor.createDependentsResponse(ruleId, dependencyIndex.ofRule(ruleId)));
+    }
 }
@@ -0,0 +1,65 @@
+package com.lps.ruleengine.service.impl;
+
+import com.lps.ruleengine.adaptor.EvaluationResponseAdaptor;
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import com.lps.ruleengine.engine.RuleNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the execution trace of one evaluation at the requested {@link TraceLevel}.
+ * NONE is a shared, stateless instance so untraced evaluations allocate no trace objects.
+ */
+final class TraceRecorder {
+
+    private static final TraceRecorder NONE = new TraceRecorder(null, null, null);
+
+    private final EvaluationResponseAdaptor evaluationResponseAdaptor;
+    private final List<String> path;
+    private final List<EvaluationResponse.ExecutionTrace> entries;
+
+    private TraceRecorder(EvaluationResponseAdaptor evaluationResponseAdaptor, List<String> path,
+                          List<EvaluationResponse.ExecutionTrace> entries) {
+        this.evaluationResponseAdaptor = evaluationResponseAdaptor;
+        this.path = path;
+        this.entries = entries;
+    }
+
+    /**
+     * Creates a recorder for a trace level; a null level means FULL, the behaviour of older clients.
+     */
+    static TraceRecorder forLevel(TraceLevel level, EvaluationResponseAdaptor evaluationResponseAdaptor) {
+        return switch (level != null ? level : TraceLevel.FULL) {
+            case NONE -> NONE;
+            case PATH_IDS -> new TraceRecorder(evaluationResponseAdaptor, new ArrayList<>(), null);
+            case FULL -> new TraceRecorder(evaluationResponseAdaptor, new ArrayList<>(), new ArrayList<>());
+        };
+    }
+
+    void record(RuleNode node, boolean result) {
+        if (path == null) {
+            return;
+        }
+        path.add(node.getRuleId());
+        if (entries != null) {
+            entries.add(evaluationResponseAdaptor.createExecutionTrace(
+                    node.getRuleId(), node.getExpression(), result, node.getNextAction(result)));
+        }
+    }
+
+    /**
+     * @return the executed rule ids in order, or null when the level is NONE
+     */
+    List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * @return the detailed trace entries; empty unless the level is FULL
+     */
+    List<EvaluationResponse.ExecutionTrace> getExecutionTrace() {
+        return entries != null ? entries : List.of();
+    }
+}
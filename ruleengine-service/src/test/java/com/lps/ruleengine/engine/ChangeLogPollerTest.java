@@ -0,0 +1,70 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.ChangeLogEntry;
+import com.lps.ruleengine.model.ChangeLogEntry.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeLogPollerTest {
+
+    private final ChangeLog changeLog = mock(ChangeLog.class);
+    private final ChangePublisher changePublisher = mock(ChangePublisher.class);
+    private final RuleBase ruleBase = mock(RuleBase.class);
+    private final ChangeLogPoller poller = new ChangeLogPoller(changeLog, changePublisher, ruleBase);
+
+    @BeforeEach
+    void loadRuleBase() {
+        when(ruleBase.isLoaded()).thenReturn(true);
+        when(ruleBase.getLoadedEpoch()).thenReturn(10L);
+    }
+
+    @Test
+    void changeThatFailsToApplyIsSkippedAndLaterChangesStillApply() {
+        ChangeLogEntry broken = change("rule_unparseable", 11);
+        ChangeLogEntry next = change("rule_age_check", 12);
+        when(changeLog.changesAfter(10L)).thenReturn(List.of(broken, next));
+        doThrow(new RuntimeException("Unsupported expression: age >= 18 AND")).when(changePublisher)
+                .applyLogged(broken);
+
+        poller.poll();
+
+        verify(changePublisher).applyLogged(next);
+
+        // The failed change is not read again
+        ChangeLogEntry later = change("rule_city_check", 13);
+        when(changeLog.changesAfter(12L)).thenReturn(List.of(later));
+        poller.poll();
+
+        verify(changePublisher).applyLogged(later);
+        verify(changeLog, never()).changesAfter(11L);
+    }
+
+    @Test
+    void nothingIsPolledBeforeTheRuleBaseIsLoaded() {
+        when(ruleBase.isLoaded()).thenReturn(false);
+
+        poller.poll();
+
+        verify(changeLog, never()).changesAfter(any(Long.class));
+    }
+
+    private static ChangeLogEntry change(String ruleId, long epoch) {
+        return ChangeLogEntry.builder()
+                .changeKey(ChangeLogEntry.keyOf(EntityType.RULE, ruleId))
+                .entityType(EntityType.RULE)
+                .entityId(ruleId)
+                .epoch(epoch)
+                .deleted(false)
+                .originNode("node-b")
+                .build();
+    }
+}
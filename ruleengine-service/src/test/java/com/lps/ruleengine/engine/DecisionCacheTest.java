@@ -0,0 +1,140 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.dto.EvaluationRequest.TraceLevel;
+import com.lps.ruleengine.dto.EvaluationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecisionCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryOfASegmentIsEvicted() {
+        // 16 segments of two entries; keys with equal hashes share a segment
+        DecisionCache cache = new DecisionCache(true, 32, 60);
+        EvaluationResponse first = response();
+        cache.put(collidingKey("first"), first);
+        cache.put(collidingKey("second"), response());
+
+        // Reading the first entry makes the second one the least recently used
+        assertThat(cache.get(collidingKey("first"))).isSameAs(first);
+        cache.put(collidingKey("third"), response());
+
+        assertThat(cache.get(collidingKey("second"))).isNull();
+        assertThat(cache.get(collidingKey("first"))).isSameAs(first);
+        assertThat(cache.get(collidingKey("third"))).isNotNull();
+        assertThat(cache.getStats().get("evictions")).isEqualTo(1L);
+    }
+
+    @Test
+    void singleEntryCacheKeepsOnlyTheLatestDecision() {
+        DecisionCache cache = new DecisionCache(true, 1, 60);
+        cache.put(key("policy_a", 1), response());
+        cache.put(key("policy_a", 2), response());
+
+        assertThat(cache.get(key("policy_a", 1))).isNull();
+        assertThat(cache.get(key("policy_a", 2))).isNotNull();
+    }
+
+    @Test
+    void sizeNeverExceedsTheBound() {
+        DecisionCache cache = new DecisionCache(true, 100, 60);
+        for (int i = 0; i < 5_000; i++) {
+            cache.put(key("policy_a", i), response());
+        }
+
+        assertThat((int) cache.getStats().get("size")).isLessThanOrEqualTo(100).isGreaterThan(90);
+        assertThat((long) cache.getStats().get("evictions"))
+                .isEqualTo(5_000L - (int) cache.getStats().get("size"));
+    }
+
+    @Test
+    void expiredDecisionIsAMiss() {
+        DecisionCache cache = new DecisionCache(true, 10, 0);
+        cache.put(key("policy_a", 1), response());
+
+        assertThat(cache.get(key("policy_a", 1))).isNull();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDropsOnlyTheGivenPolicies() {
+        DecisionCache cache = new DecisionCache(true, 100, 60);
+        for (int i = 0; i < 20; i++) {
+            cache.put(key("policy_a", i), response());
+            cache.put(key("policy_b", i), response());
+        }
+
+        cache.invalidate(List.of("policy_a"));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.get(key("policy_a", i))).isNull();
+            assertThat(cache.get(key("policy_b", i))).isNotNull();
+        }
+    }
+
+    @Test
+    void failedEvaluationsAreNotCached() {
+        DecisionCache cache = new DecisionCache(true, 10, 60);
+        EvaluationResponse failed = response();
+        failed.setErrorMessage("Rule not found: rule_x");
+
+        cache.put(key("policy_a", 1), failed);
+
+        assertThat(cache.get(key("policy_a", 1))).isNull();
+    }
+
+    @Test
+    void concurrentReadsAndWritesStayWithinTheBound() throws Exception {
+        DecisionCache cache = new DecisionCache(true, 256, 60);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<?>> pending = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 100;
+            pending.add(threads.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    DecisionCache.Key key = key("policy_a", offset + i % 400);
+                    if (cache.get(key) == null) {
+                        cache.put(key, response());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        threads.shutdown();
+
+        assertThat((int) cache.getStats().get("size")).isLessThanOrEqualTo(256);
+        assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(8 * 20_000L);
+        assertThat(cache.getHitCount()).isPositive();
+    }
+
+    private static DecisionCache.Key key(String policyId, int value) {
+        return new DecisionCache.Key(policyId, policyId + "@0", TraceLevel.NONE, List.of(value));
+    }
+
+    private static DecisionCache.Key collidingKey(String name) {
+        return new DecisionCache.Key("policy_a", "policy_a@0", TraceLevel.NONE, List.of(new SameHash(name)));
+    }
+
+    // Attribute value whose hash is the same for every name
+    private record SameHash(String name) {
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    private static EvaluationResponse response() {
+        return EvaluationResponse.builder().result(true).build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.lps.ruleengine.engine;
+
+import com.lps.ruleengine.model.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RuleGraphValidatorTest {
+
+    private final RuleBase ruleBase = mock(RuleBase.class);
+    private final RuleGraphValidator validator = new RuleGraphValidator(ruleBase);
+
+    @Test
+    void ruleLinkingToItselfIsRejected() {
+        holding();
+
+        assertThatThrownBy(() -> validator.validateRule(rule("rule_a", "rule_a", null)))
+                .hasMessage("Circular dependency detected in rules: rule_a -> rule_a");
+    }
+
+    @Test
+    void updateClosingAMultiHopCycleIsRejected() {
+        holding(rule("rule_a", "rule_b", null), rule("rule_b", null, "rule_c"), rule("rule_c", null, null));
+
+        // rule_c previously ended evaluation; pointing it back at rule_a closes rule_a -> rule_b -> rule_c
+        assertThatThrownBy(() -> validator.validateRule(rule("rule_c", "rule_a", null)))
+                .hasMessage("Circular dependency detected in rules: rule_c -> rule_a -> rule_b -> rule_c");
+    }
+
+    @Test
+    void updateReplacesTheHeldVersionOfTheRule() {
+        holding(rule("rule_a", "rule_b", null), rule("rule_b", "rule_a", null));
+
+        // The held rule_b links back to rule_a; the update breaks that cycle
+        assertThatCode(() -> validator.validateRule(rule("rule_b", null, null))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sharedSuccessorIsNotACycle() {
+        holding(rule("rule_b", "rule_d", null), rule("rule_c", "rule_d", null), rule("rule_d", null, null));
+
+        assertThatCode(() -> validator.validateRule(rule("rule_a", "rule_b", "rule_c"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successorsThatDoNotExistYetAreAllowed() {
+        holding();
+
+        assertThatCode(() -> validator.validateRule(rule("rule_a", "rule_missing", "rule_other")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void policyWhoseRootReachesACycleIsRejected() {
+        holding(rule("rule_root", null, "rule_x"), rule("rule_x", "rule_y", null), rule("rule_y", null, "rule_x"));
+
+        assertThatThrownBy(() -> validator.validatePolicy("rule_root"))
+                .hasMessage("Circular dependency detected in rules: rule_x -> rule_y -> rule_x");
+    }
+
+    @Test
+    void policyWhoseRootIsOnACycleIsRejected() {
+        holding(rule("rule_root", "rule_x", null), rule("rule_x", null, "rule_root"));
+
+        assertThatThrownBy(() -> validator.validatePolicy("rule_root"))
+                .hasMessage("Circular dependency detected in rules: rule_root -> rule_x -> rule_root");
+    }
+
+    @Test
+    void policyOverAnAcyclicGraphIsAccepted() {
+        holding(rule("rule_root", "rule_x", "rule_y"), rule("rule_x", "rule_y", null), rule("rule_y", null, null));
+
+        assertThatCode(() -> validator.validatePolicy("rule_root")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void longAcyclicChainDoesNotOverflowTheStack() {
+        int length = 10_000;
+        List<Rule> chain = new ArrayList<>(length);
+        for (int i = 1; i < length; i++) {
+            chain.add(rule("rule_" + i, "rule_" + (i + 1), null));
+        }
+        chain.add(rule("rule_" + length, null, null));
+        holding(chain.toArray(new Rule[0]));
+
+        assertThatCode(() -> validator.validatePolicy("rule_1")).doesNotThrowAnyException();
+        assertThatCode(() -> validator.validateRule(rule("rule_0", "rule_1", null))).doesNotThrowAnyException();
+        // Closing the chain is still detected at the far end
+        assertThatThrownBy(() -> validator.validateRule(rule("rule_" + length, "rule_1", null)))
+                .hasMessageStartingWith("Circular dependency detected in rules: rule_" + length + " -> rule_1 -> ");
+    }
+
+    private void holding(Rule... rules) {
+        when(ruleBase.current()).thenReturn(RuleBaseSnapshot.of(1, List.of(rules), List.of(), List.of()));
+    }
+
+    private static Rule rule(String ruleId, String onTrueRuleId, String onFalseRuleId) {
+        return Rule.builder()
+                .ruleId(ruleId)
+                .expression("age >= 18")
+                .onTrueType(onTrueRuleId != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE)
+                .onTrueValue(onTrueRuleId != null ? onTrueRuleId : "true")
+                .onFalseType(onFalseRuleId != null ? Rule.OutcomeType.RULE : Rule.OutcomeType.VALUE)
+                .onFalseValue(onFalseRuleId != null ? onFalseRuleId : "false")
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.lps.ruleengine.engine.expression;
+
+import com.lps.ruleengine.model.Rule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpressionParserTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "age > 18, 17, false",
+            "age > 18, 18, false",
+            "age > 18, 19, true",
+            "age >= 18, 17, false",
+            "age >= 18, 18, true",
+            "age >= 18, 19, true",
+            "age < 18, 17, true",
+            "age < 18, 18, false",
+            "age <= 18, 18, true",
+            "age <= 18, 19, false",
+            "age == 18, 18, true",
+            "age == 18, 18.5, false",
+            "age != 18, 18, false",
+            "age != 18, 19, true",
+            "age >= -5, -5, true",
+            "age < 2.5, 2.4, true",
+            "age < 2.5, 2.5, false"
+    })
+    void comparisonOperatorsHoldAtTheirBoundaries(String expression, double age, boolean expected) {
+        Expression parsed = ExpressionParser.parse(expression);
+
+        assertThat(parsed).isInstanceOf(ComparisonExpression.class);
+        assertThat(parsed.evaluate(Map.of("age", age), null)).isEqualTo(expected);
+    }
+
+    @Test
+    void comparisonAgainstAMissingAttributeIsFalse() {
+        assertThat(ExpressionParser.parse("age >= 18").evaluate(Map.of(), null)).isFalse();
+        assertThat(ExpressionParser.parse("age != 18").evaluate(Map.of(), null)).isFalse();
+    }
+
+    @Test
+    void referenceValueTakesPrecedenceOverTheLiteral() {
+        Expression parsed = ExpressionParser.parse("age >= 18");
+
+        assertThat(parsed.evaluate(Map.of("age", 20), 21)).isFalse();
+        assertThat(parsed.evaluate(Map.of("age", 21), 21)).isTrue();
+    }
+
+    @Test
+    void identifierOperandIsBoundThroughTheReference() {
+        Expression parsed = ExpressionParser.parse("income >= minIncome");
+
+        assertThat(parsed.usesReference()).isTrue();
+        assertThat(parsed.evaluate(Map.of("income", 50000), 25000)).isTrue();
+        assertThat(parsed.evaluate(Map.of("income", 20000), 25000)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"city == 'Delhi'", "city == \"Delhi\""})
+    void quotedStringLiteralsCompareExactly(String expression) {
+        Expression parsed = ExpressionParser.parse(expression);
+
+        assertThat(parsed.evaluate(Map.of("city", "Delhi"), null)).isTrue();
+        assertThat(parsed.evaluate(Map.of("city", "delhi"), null)).isFalse();
+        assertThat(parsed.evaluate(Map.of("city", "Delhi "), null)).isFalse();
+    }
+
+    @Test
+    void quotedStringKeepsSpacesAndKeywords() {
+        Expression parsed = ExpressionParser.parse("segment != 'NOT AND OR'");
+
+        assertThat(parsed.evaluate(Map.of("segment", "NOT AND OR"), null)).isFalse();
+        assertThat(parsed.evaluate(Map.of("segment", "retail"), null)).isTrue();
+    }
+
+    @Test
+    void inWithInlineList() {
+        Expression parsed = ExpressionParser.parse("city IN ['Delhi', \"Mumbai\", 560001]");
+
+        assertThat(parsed).isInstanceOf(InExpression.class);
+        assertThat(parsed.usesReference()).isFalse();
+        assertThat(parsed.evaluate(Map.of("city", "Mumbai"), null)).isTrue();
+        assertThat(parsed.evaluate(Map.of("city", "Paris"), null)).isFalse();
+        assertThat(parsed.evaluate(Map.of("city", 560001), null)).isTrue();
+        assertThat(parsed.evaluate(Map.of(), null)).isFalse();
+    }
+
+    @Test
+    void inWithEmptyInlineListMatchesNothing() {
+        assertThat(ExpressionParser.parse("city IN []").evaluate(Map.of("city", "Delhi"), null)).isFalse();
+    }
+
+    @Test
+    void inWithDocumentReference() {
+        Expression parsed = ExpressionParser.parse("city IN allowedCities");
+
+        assertThat(parsed.usesReference()).isTrue();
+        assertThat(parsed.evaluate(Map.of("city", "Pune"), List.of("Pune", "Delhi"))).isTrue();
+        assertThat(parsed.evaluate(Map.of("city", "Pune"), MembershipSet.of(List.of("Pune")))).isTrue();
+        assertThat(parsed.evaluate(Map.of("city", "Paris"), List.of("Pune", "Delhi"))).isFalse();
+        // Without a reference list nothing is a member
+        assertThat(parsed.evaluate(Map.of("city", "Pune"), null)).isFalse();
+    }
+
+    @Test
+    void inReferenceListTakesPrecedenceOverInlineList() {
+        Expression parsed = ExpressionParser.parse("city IN ['Delhi']");
+
+        assertThat(parsed.evaluate(Map.of("city", "Delhi"), List.of("Pune"))).isFalse();
+        assertThat(parsed.evaluate(Map.of("city", "Pune"), List.of("Pune"))).isTrue();
+    }
+
+    @Test
+    void booleanAttribute() {
+        Expression parsed = ExpressionParser.parse("isExistingCustomer");
+
+        assertThat(parsed).isInstanceOf(BooleanAttributeExpression.class);
+        assertThat(parsed.evaluate(Map.of("isExistingCustomer", true), null)).isTrue();
+        assertThat(parsed.evaluate(Map.of("isExistingCustomer", "true"), null)).isTrue();
+        assertThat(parsed.evaluate(Map.of("isExistingCustomer", false), null)).isFalse();
+        assertThatThrownBy(() -> parsed.evaluate(Map.of(), null))
+                .hasMessageStartingWith("Unsupported expression");
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        // a OR (b AND c)
+        Expression parsed = ExpressionParser.parse("a OR b AND c");
+
+        assertThat(parsed).isInstanceOf(OrExpression.class);
+        assertThat(parsed.evaluate(flags(true, false, false), null)).isTrue();
+        assertThat(parsed.evaluate(flags(false, true, false), null)).isFalse();
+        assertThat(parsed.evaluate(flags(false, true, true), null)).isTrue();
+    }
+
+    @Test
+    void notBindsTighterThanAnd() {
+        // (NOT a) AND b
+        Expression parsed = ExpressionParser.parse("NOT a AND b");
+
+        assertThat(parsed).isInstanceOf(AndExpression.class);
+        assertThat(parsed.evaluate(flags(false, true, false), null)).isTrue();
+        assertThat(parsed.evaluate(flags(true, true, false), null)).isFalse();
+        assertThat(parsed.evaluate(flags(false, false, false), null)).isFalse();
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        Expression grouped = ExpressionParser.parse("(a OR b) AND c");
+        Expression negated = ExpressionParser.parse("NOT (a AND b)");
+
+        assertThat(grouped.evaluate(flags(true, false, false), null)).isFalse();
+        assertThat(grouped.evaluate(flags(true, false, true), null)).isTrue();
+        assertThat(negated.evaluate(flags(true, false, false), null)).isTrue();
+        assertThat(negated.evaluate(flags(true, true, false), null)).isFalse();
+    }
+
+    @Test
+    void compoundOfComparisons() {
+        Expression parsed = ExpressionParser.parse("age >= 21 AND city IN ['Delhi', 'Mumbai'] OR income > 100000");
+        Map<String, Object> attributes = new HashMap<>(Map.of("age", 25, "city", "Paris", "income", 50000));
+
+        assertThat(parsed.getAttributes()).containsExactlyInAnyOrder("age", "city", "income");
+        assertThat(parsed.evaluate(attributes, null)).isFalse();
+        attributes.put("city", "Delhi");
+        assertThat(parsed.evaluate(attributes, null)).isTrue();
+        attributes.put("age", 20);
+        assertThat(parsed.evaluate(attributes, null)).isFalse();
+        attributes.put("income", 150000);
+        assertThat(parsed.evaluate(attributes, null)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "age >= 18 AND",
+            "age >=",
+            "age = 18",
+            "age ! 18",
+            "age >= 18 18",
+            "city == 'Delhi",
+            "city IN ['Delhi' 'Mumbai']",
+            "city IN [AND]",
+            "(age >= 18",
+            "age >= 18)",
+            "age >= 1.2.3",
+            "age # 18",
+            "and age >= 18",
+            "   "
+    })
+    void rejectedInputIsReportedAsUnsupported(String expression) {
+        assertThatThrownBy(() -> ExpressionParser.parse(expression))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Unsupported expression");
+    }
+
+    @Test
+    void nullIsRejected() {
+        assertThatThrownBy(() -> ExpressionParser.parse(null)).hasMessageStartingWith("Unsupported expression");
+    }
+
+    @Test
+    void rejectedStoredExpressionBecomesUnsupportedExpression() {
+        ParsedExpressionCache cache = new ParsedExpressionCache();
+        Rule rule = Rule.builder().ruleId("rule_broken").expression("age >= 18 AND").version(1).build();
+
+        Expression parsed = cache.get(rule);
+
+        assertThat(parsed).isInstanceOf(UnsupportedExpression.class);
+        assertThat(parsed.getAttributes()).isEmpty();
+        assertThatThrownBy(() -> parsed.evaluate(Map.of("age", 30), null))
+                .hasMessageStartingWith("Unsupported expression: age >= 18 AND");
+        // Cached like any other expression until the rule changes
+        assertThat(cache.get(rule)).isSameAs(parsed);
+    }
+
+    private static Map<String, Object> flags(boolean a, boolean b, boolean c) {
+        return Map.of("a", a, "b", b, "c", c);
+    }
+}
@@ -0,0 +1,128 @@
+package com.lps.ruleengine.engine.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MembershipSetTest {
+
+    @Test
+    void numericMembersMatchNumbersOfAnyType() {
+        MembershipSet members = MembershipSet.of(List.of(560001, 2.5));
+
+        assertThat(members.contains(560001)).isTrue();
+        assertThat(members.contains(560001L)).isTrue();
+        assertThat(members.contains(560001.0)).isTrue();
+        assertThat(members.contains(new BigDecimal("560001.00"))).isTrue();
+        assertThat(members.contains(2.5f)).isTrue();
+        assertThat(members.contains(new BigDecimal("2.50"))).isTrue();
+        assertThat(members.contains(560002)).isFalse();
+        assertThat(members.contains(2.51)).isFalse();
+    }
+
+    @Test
+    void numericMembersMatchTheirCanonicalStringForm() {
+        MembershipSet members = MembershipSet.of(List.of(560001, 560001.0, 2.5));
+
+        assertThat(members.contains("560001")).isTrue();
+        assertThat(members.contains("2.5")).isTrue();
+        // Strings are matched exactly against the canonical form, not parsed
+        assertThat(members.contains("560001.0")).isFalse();
+        assertThat(members.contains("2.50")).isFalse();
+    }
+
+    @Test
+    void numericStringMembersMatchNumbers() {
+        MembershipSet members = MembershipSet.of(List.of("560001", "2.50", "-7", "+3", ".5"));
+
+        assertThat(members.contains(560001)).isTrue();
+        assertThat(members.contains(560001.0)).isTrue();
+        assertThat(members.contains(2.5)).isTrue();
+        assertThat(members.contains(-7L)).isTrue();
+        assertThat(members.contains(3)).isTrue();
+        assertThat(members.contains(0.5)).isTrue();
+        assertThat(members.contains(7)).isFalse();
+    }
+
+    @Test
+    void stringMembersMatchStringsExactly() {
+        MembershipSet members = MembershipSet.of(List.of("2.50", "Delhi"));
+
+        assertThat(members.contains("2.50")).isTrue();
+        assertThat(members.contains("2.5")).isFalse();
+        assertThat(members.contains("Delhi")).isTrue();
+    }
+
+    @Test
+    void numericStringMembersAreTrimmedForNumbersOnly() {
+        MembershipSet members = MembershipSet.of(List.of(" 560001 ", " Delhi"));
+
+        assertThat(members.contains(560001)).isTrue();
+        assertThat(members.contains("560001")).isFalse();
+        assertThat(members.contains(" 560001 ")).isTrue();
+        assertThat(members.contains("Delhi")).isFalse();
+        assertThat(members.contains(" Delhi")).isTrue();
+    }
+
+    @Test
+    void stringsAreCaseSensitive() {
+        MembershipSet members = MembershipSet.of(List.of("Delhi", "MUMBAI"));
+
+        assertThat(members.contains("Delhi")).isTrue();
+        assertThat(members.contains("delhi")).isFalse();
+        assertThat(members.contains("Mumbai")).isFalse();
+        assertThat(members.contains("MUMBAI")).isTrue();
+    }
+
+    @Test
+    void nonNumericStringsNeverMatchNumbers() {
+        MembershipSet members = MembershipSet.of(List.of("abc", "1e", "-", "", "NaN"));
+
+        assertThat(members.contains(1)).isFalse();
+        assertThat(members.contains(0)).isFalse();
+        assertThat(members.contains(Double.NaN)).isFalse();
+        assertThat(members.contains("NaN")).isTrue();
+        assertThat(members.contains("")).isTrue();
+    }
+
+    @Test
+    void mixedTypeListMatchesEachMemberByItsOwnRules() {
+        MembershipSet members = MembershipSet.of(Arrays.asList("Delhi", 560001, "411001", 2.5, true, null));
+
+        assertThat(members.size()).isEqualTo(5);
+        assertThat(members.contains("Delhi")).isTrue();
+        assertThat(members.contains(560001.0)).isTrue();
+        assertThat(members.contains("560001")).isTrue();
+        assertThat(members.contains(411001)).isTrue();
+        assertThat(members.contains("411001")).isTrue();
+        assertThat(members.contains(2.5)).isTrue();
+        assertThat(members.contains(true)).isTrue();
+        assertThat(members.contains("true")).isTrue();
+        assertThat(members.contains(null)).isFalse();
+        assertThat(members.contains("Paris")).isFalse();
+    }
+
+    @Test
+    void largeAndNegativeNumbersKeepTheirValue() {
+        MembershipSet members = MembershipSet.of(List.of(1e16, -0.0, 9007199254740993L));
+
+        assertThat(members.contains(1e16)).isTrue();
+        assertThat(members.contains(0)).isTrue();
+        assertThat(members.contains(9007199254740993L)).isTrue();
+        // The neighbouring long differs, though both round to the same double
+        assertThat(members.contains(9007199254740992L)).isFalse();
+    }
+
+    @Test
+    void emptyListHasNoMembers() {
+        MembershipSet members = MembershipSet.of(List.of());
+
+        assertThat(members.size()).isZero();
+        assertThat(members.contains("Delhi")).isFalse();
+        assertThat(members.contains(0)).isFalse();
+    }
+}